@@ -45,6 +45,11 @@ class LSConnectionOptions {
   #if js
   var cookieHandlingRequired: Bool = false;
   #end
+  #if java
+  var webSocketCompressionEnabled: Bool = true;
+  var maxConcurrentControlRequests: Int = 1;
+  var messageLingerMillis: Millis = new Millis(0);
+  #end
   final client: LightstreamerClient;
   final lock: com.lightstreamer.internal.RLock;
   
@@ -308,6 +313,48 @@ class LSConnectionOptions {
     client.eventDispatcher.onPropertyChange("slowingEnabled");
   }
 
+  #if java
+  public function isWebSocketCompressionEnabled(): Bool {
+    return webSocketCompressionEnabled;
+  }
+  public function setWebSocketCompressionEnabled(webSocketCompressionEnabled: Bool): Void {
+    if (webSocketCompressionEnabled == this.webSocketCompressionEnabled) {
+      return;
+    }
+    actionLogger.logInfo('webSocketCompressionEnabled changed: $webSocketCompressionEnabled');
+    this.webSocketCompressionEnabled = webSocketCompressionEnabled;
+    client.eventDispatcher.onPropertyChange("webSocketCompressionEnabled");
+  }
+
+  public function getMaxConcurrentControlRequests(): Int {
+    return maxConcurrentControlRequests;
+  }
+  public function setMaxConcurrentControlRequests(maxConcurrentControlRequests: Int): Void {
+    if (maxConcurrentControlRequests <= 0) {
+      throw new IllegalArgumentException("value must be greater than zero");
+    }
+    if (maxConcurrentControlRequests == this.maxConcurrentControlRequests) {
+      return;
+    }
+    actionLogger.logInfo('maxConcurrentControlRequests changed: $maxConcurrentControlRequests');
+    this.maxConcurrentControlRequests = maxConcurrentControlRequests;
+    client.eventDispatcher.onPropertyChange("maxConcurrentControlRequests");
+  }
+
+  public function getMessageLingerMillis(): Long {
+    return messageLingerMillis;
+  }
+  public function setMessageLingerMillis(messageLingerMillis: Long): Void {
+    var newValue = Millis.fromIntGtEq0(messageLingerMillis);
+    if (newValue == this.messageLingerMillis) {
+      return;
+    }
+    actionLogger.logInfo('messageLingerMillis changed: $newValue');
+    this.messageLingerMillis = newValue;
+    client.eventDispatcher.onPropertyChange("messageLingerMillis");
+  }
+  #end
+
   #if LS_HAS_PROXY
   var proxy: Null<Proxy>;
 
@@ -355,6 +402,11 @@ class LSConnectionOptions {
     #if js
     map["cookieHandlingRequired"] = cookieHandlingRequired;
     #end
+    #if java
+    map["webSocketCompressionEnabled"] = webSocketCompressionEnabled;
+    map["maxConcurrentControlRequests"] = maxConcurrentControlRequests;
+    map["messageLingerMillis"] = messageLingerMillis;
+    #end
     return map.toString();
   }
 }
\ No newline at end of file
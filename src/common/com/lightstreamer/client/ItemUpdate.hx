@@ -45,6 +45,10 @@ import com.lightstreamer.internal.NativeTypes;
       #if LS_JSON_PATCH
       overload function getValueAsJSONPatchIfAvailable(fieldName: String): Null<String>;
       overload function getValueAsJSONPatchIfAvailable(fieldPos: Int): Null<String>;
+        #if java
+        overload function getValueAsJSONNode(fieldName: String): Null<com.fasterxml.jackson.databind.JsonNode>;
+        overload function getValueAsJSONNode(fieldPos: Int): Null<com.fasterxml.jackson.databind.JsonNode>;
+        #end
       #end
     #end
   #else
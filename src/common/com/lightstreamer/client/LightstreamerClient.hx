@@ -37,6 +37,12 @@ class LSLightstreamerClient {
   public final connectionOptions: ConnectionOptions;
   final eventDispatcher = new ClientEventDispatcher();
   final machine: ClientMachine;
+  #if java
+  @:allow(com.lightstreamer.internal.PlatformApi)
+  final sessionThread = com.lightstreamer.internal.Threads.SessionThreads.instance.acquire();
+  @:allow(com.lightstreamer.internal.PlatformApi)
+  final wsTraffic = new com.lightstreamer.internal.WsTraffic();
+  #end
 
   public static function setLoggerProvider(provider: Null<com.lightstreamer.log.LoggerProvider>): Void {
     com.lightstreamer.log.LogManager.setLoggerProvider(provider);
@@ -67,6 +73,47 @@ class LSLightstreamerClient {
   #end
   #end
 
+  #if (java && !android)
+  public static function setSessionThreadPoolSize(size: Int) {
+    com.lightstreamer.internal.Threads.SessionThreads.instance.setPoolSize(size);
+  }
+
+  public static function setSessionExecutor(executor: java.util.concurrent.ScheduledExecutorService) {
+    com.lightstreamer.internal.Threads.SessionThreads.instance.setExecutor(executor);
+  }
+
+  public static function setListenerThreadPoolSize(size: Int) {
+    com.lightstreamer.internal.Threads.UserThreads.instance.setPoolSize(size);
+  }
+
+  public static function setVirtualThreadsEnabled(enabled: Bool) {
+    com.lightstreamer.internal.Threads.SessionThreads.instance.setVirtual(enabled);
+    com.lightstreamer.internal.Threads.UserThreads.instance.setVirtual(enabled);
+  }
+
+  public static function setTimerWheelEnabled(enabled: Bool) {
+    com.lightstreamer.internal.Threads.SessionThreads.instance.setTimerWheel(enabled);
+  }
+
+  public static function setMaxInboundBatchSize(size: Int) {
+    com.lightstreamer.internal.Threads.SessionThreads.instance.setMaxBatchSize(size);
+  }
+  #end
+
+  #if java
+  public static function getListenerQueueDepth(): Long {
+    return com.lightstreamer.internal.DispatchStats.getQueueDepth();
+  }
+
+  public static function getListenerDispatchCount(): Long {
+    return com.lightstreamer.internal.DispatchStats.getRunCount();
+  }
+
+  public static function getListenerDispatchDelay(): Long {
+    return com.lightstreamer.internal.DispatchStats.getWaitNanos();
+  }
+  #end
+
   public function new(serverAddress: String, adapterSet: String #if LS_TEST ,?factory: IFactory #end) {
     connectionDetails = new ConnectionDetails(@:nullSafety(Off) this);
     connectionOptions = new ConnectionOptions(@:nullSafety(Off) this);
@@ -121,6 +168,12 @@ class LSLightstreamerClient {
   overload public function sendMessage(message: String, sequence: Null<String>, delayTimeout: Int, listener: Null<ClientMessageListener>, enqueueWhileDisconnected: Bool): Void {
     machine.sendMessage(message, sequence, delayTimeout, listener, enqueueWhileDisconnected);
   }
+
+  #if java
+  public function sendMessages(messages: NativeList<String>, sequence: Null<String>, delayTimeout: Int, listener: Null<ClientMessageListener>, enqueueWhileDisconnected: Bool): Void {
+    machine.sendMessages(messages.toHaxe(), sequence, delayTimeout, listener, enqueueWhileDisconnected);
+  }
+  #end
   #else
   public function sendMessage(message: String, sequence: Null<String> = null, delayTimeout: Null<Int> = -1, listener: Null<ClientMessageListener> = null, enqueueWhileDisconnected: Null<Bool> = false): Void {
     machine.sendMessage(message, sequence, delayTimeout != null ? delayTimeout : -1, listener, enqueueWhileDisconnected != null ? enqueueWhileDisconnected : false);
@@ -135,6 +188,28 @@ class LSLightstreamerClient {
     machine.unsubscribe(subscription);
   }
 
+  #if java
+  public function subscribeAll(subscriptions: NativeList<Subscription>): Void {
+    machine.subscribeAll(subscriptions.toHaxe());
+  }
+
+  public function unsubscribeAll(subscriptions: NativeList<Subscription>): Void {
+    machine.unsubscribeAll(subscriptions.toHaxe());
+  }
+  #end
+
+  #if java
+  @:unsynchronized
+  public function getWebSocketWireBytes(): Long {
+    return wsTraffic.getWireBytes();
+  }
+
+  @:unsynchronized
+  public function getWebSocketPayloadBytes(): Long {
+    return wsTraffic.getPayloadBytes();
+  }
+  #end
+
   public function getSubscriptions(): NativeList<Subscription> {
     return new NativeList(machine.getSubscriptions());
   }
@@ -18,6 +18,7 @@ package com.lightstreamer.client;
 import com.lightstreamer.internal.InfoMap;
 import com.lightstreamer.client.internal.SubscriptionManager;
 import com.lightstreamer.client.internal.SubscriptionManager.SubscriptionManagerLiving;
+import com.lightstreamer.client.internal.update.ItemUpdateBase;
 import com.lightstreamer.internal.NativeTypes;
 import com.lightstreamer.internal.EventDispatcher;
 import com.lightstreamer.internal.Types;
@@ -29,7 +30,175 @@ private enum SubscriptionState {
   Inactive; Active; Subscribed;
 }
 
-private class SubscriptionEventDispatcher extends EventDispatcher<SubscriptionListener> {}
+private class SubscriptionEventDispatcher extends EventDispatcher<SubscriptionListener> {
+  #if java
+  /**
+   * The updates not yet delivered to each listener, by item position (see `onItemUpdateConflated`).
+   */
+  final pendingUpdates = new haxe.ds.ObjectMap<SubscriptionListener, Map<Int, PendingUpdate>>();
+
+  /**
+   * Dispatches an update, unless an update of the same item is still waiting to be delivered to a listener:
+   * in that case the latter is replaced by the merge of the two, so that the listener only receives the latest values.
+   * NB `lock` guards the pending updates, which are taken by the listener threads.
+   */
+  public function onItemUpdateConflated(update: ItemUpdateBase, sub: LSSubscription, lock: com.lightstreamer.internal.RLock) {
+    var itemPos = update.getItemPos();
+    for (listener in listeners) {
+      var pendings = getPendingUpdates(listener);
+      var pending = pendings[itemPos];
+      if (pending != null) {
+        pending.update = pending.update.conflate(update, sub);
+      } else {
+        var pending = new PendingUpdate(update);
+        pendings[itemPos] = pending;
+        dispatchToOne(listener, l -> {
+          var update = lock.synchronized(() -> {
+            if (pendings[itemPos] == pending) {
+              pendings.remove(itemPos);
+            }
+            return pending.update;
+          });
+          l.onItemUpdate(update);
+        });
+      }
+    }
+  }
+
+  /**
+   * The updates not yet delivered to each listener, when their number is bounded (see `onItemUpdateBounded`).
+   */
+  final boundedQueues = new haxe.ds.ObjectMap<SubscriptionListener, java.util.ArrayDeque<QueuedUpdate>>();
+
+  /**
+   * Dispatches an update, unless `maxPending` updates are still waiting to be delivered to a listener:
+   * in that case the oldest of them is dropped, and the listener is notified of the loss through `onItemLostUpdates`
+   * before receiving the next update.
+   * NB `lock` guards the queues, which are drained by the listener threads.
+   */
+  public function onItemUpdateBounded(update: ItemUpdate, maxPending: Int, lock: com.lightstreamer.internal.RLock) {
+    for (listener in listeners) {
+      var queue = getBoundedQueue(listener);
+      var entry = new QueuedUpdate(update);
+      if (queue.size() >= maxPending) {
+        var dropped = queue.poll();
+        // the loss is reported along with the update that is now the oldest
+        var heir = queue.isEmpty() ? entry : queue.peek();
+        heir.addLost(dropped);
+        // NB the task of the dropped update delivers the new one, so that each queued update has exactly one task
+        queue.add(entry);
+        continue;
+      }
+      queue.add(entry);
+      dispatchToOne(listener, l -> {
+        var next = lock.synchronized(() -> queue.poll());
+        var lost = next.lost;
+        if (lost != null) {
+          for (itemPos => lu in lost) {
+            l.onItemLostUpdates(lu.itemName, itemPos, lu.count);
+          }
+        }
+        l.onItemUpdate(next.update);
+      });
+    }
+  }
+
+  function getBoundedQueue(listener: SubscriptionListener): java.util.ArrayDeque<QueuedUpdate> {
+    var queue = boundedQueues.get(listener);
+    if (queue == null) {
+      queue = new java.util.ArrayDeque();
+      boundedQueues.set(listener, queue);
+    }
+    return queue;
+  }
+
+  function getPendingUpdates(listener: SubscriptionListener): Map<Int, PendingUpdate> {
+    var pendings = pendingUpdates.get(listener);
+    if (pendings == null) {
+      pendings = new Map();
+      pendingUpdates.set(listener, pendings);
+    }
+    return pendings;
+  }
+
+  /**
+   * Forgets the updates waiting to be delivered to the listener too, so that they are not retained after its removal.
+   * NB the tasks already dispatched still deliver them, since they hold their own reference.
+   */
+  override public function removeListener(listener: SubscriptionListener): Bool {
+    pendingUpdates.remove(listener);
+    boundedQueues.remove(listener);
+    return super.removeListener(listener);
+  }
+
+  /**
+   * Prevents the updates dispatched from now on from being merged with (or queued behind) the ones already dispatched,
+   * which would deliver them before the events dispatched in the meantime.
+   */
+  public function closePendingUpdates() {
+    pendingUpdates.clear();
+    boundedQueues.clear();
+  }
+  #end
+}
+
+#if java
+private class PendingUpdate {
+  public var update: ItemUpdateBase;
+
+  public function new(update: ItemUpdateBase) {
+    this.update = update;
+  }
+}
+
+private class QueuedUpdate {
+  public final update: ItemUpdate;
+  /**
+   * The updates dropped before this one, by item position.
+   */
+  public var lost: Null<Map<Int, LostUpdates>>;
+
+  public function new(update: ItemUpdate) {
+    this.update = update;
+  }
+
+  /**
+   * Records the loss of the given update, and of the ones dropped before it.
+   */
+  public function addLost(dropped: QueuedUpdate) {
+    var lost = this.lost;
+    if (lost == null) {
+      lost = this.lost = new Map();
+    }
+    var prevLost = dropped.lost;
+    if (prevLost != null) {
+      for (itemPos => lu in prevLost) {
+        count(lost, itemPos, lu.itemName, lu.count);
+      }
+    }
+    count(lost, dropped.update.getItemPos(), dropped.update.getItemName(), 1);
+  }
+
+  static function count(lost: Map<Int, LostUpdates>, itemPos: Int, itemName: Null<String>, n: Int) {
+    var lu = lost[itemPos];
+    if (lu == null) {
+      lost[itemPos] = new LostUpdates(itemName, n);
+    } else {
+      lu.count += n;
+    }
+  }
+}
+
+private class LostUpdates {
+  public final itemName: Null<String>;
+  public var count: Int;
+
+  public function new(itemName: Null<String>, count: Int) {
+    this.itemName = itemName;
+    this.count = count;
+  }
+}
+#end
 
 #if cpp
 private typedef NativeWrapper = cpp.Pointer<NativeSubscription>;
@@ -61,7 +230,12 @@ class LSSubscription {
   var keyIdx: Null<Pos>;
   var nItems: Null<Int>;
   var nFields: Null<Int>;
+  var updateSchema: Null<com.lightstreamer.client.internal.update.UpdateSchema>;
   var m_internal: Bool = false; // special flag used to mark 2-level subscriptions
+  #if java
+  var conflation: Bool = false;
+  var maxPendingUpdates: Int = 0;
+  #end
   var manager: Null<SubscriptionManagerLiving>;
   public final wrapper: Null<NativeWrapper>;
 
@@ -263,6 +437,33 @@ class LSSubscription {
     }
   }
 
+  #if java
+  public function isConflationEnabled(): Bool {
+    return conflation;
+  }
+  public function setConflationEnabled(enabled: Bool): Void {
+    checkActive();
+    if (mode != Merge) {
+      throw new IllegalStateException("This method can only be used on MERGE subscriptions");
+    }
+    this.conflation = enabled;
+  }
+
+  public function getMaxPendingUpdates(): Int {
+    return maxPendingUpdates;
+  }
+  public function setMaxPendingUpdates(max: Int): Void {
+    checkActive();
+    if (mode == Command) {
+      throw new IllegalStateException("This method cannot be used on COMMAND subscriptions");
+    }
+    if (max < 0) {
+      throw new IllegalArgumentException("The given value is not valid. Use 0 or a positive number");
+    }
+    this.maxPendingUpdates = max;
+  }
+  #end
+
   public function getSelector(): Null<String> {
     return selector;
   }
@@ -577,6 +778,7 @@ class LSSubscription {
     keyIdx = null;
     nItems = null;
     nFields = null;
+    updateSchema = null;
   }
 
   @:synchronized
@@ -586,6 +788,7 @@ class LSSubscription {
     this.subId = subId;
     this.nItems = nItems;
     this.nFields = nFields;
+    this.updateSchema = new com.lightstreamer.client.internal.update.UpdateSchema(nFields, items, fields, fields2);
   }
   
   @:synchronized
@@ -597,6 +800,7 @@ class LSSubscription {
     this.keyIdx = keyIdx;
     this.nItems = nItems;
     this.nFields = nFields;
+    this.updateSchema = new com.lightstreamer.client.internal.update.UpdateSchema(nFields, items, fields, fields2);
   }
 
   @:synchronized
@@ -608,6 +812,13 @@ class LSSubscription {
     return nFields;
   }
 
+  @:synchronized
+  @:allow(com.lightstreamer.client.internal.update.ItemUpdateBase)
+  @:allow(com.lightstreamer.client.internal.update.ItemUpdate2Level)
+  function fetch_schema(): Null<com.lightstreamer.client.internal.update.UpdateSchema> {
+    return updateSchema;
+  }
+
   @:synchronized
   @:allow(com.lightstreamer.client.internal.ClientMachine)
   function isInternal(): Bool {
@@ -658,6 +869,7 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.SubscriptionManager)
   function fireOnSubscription(subId: Int) {
     subscriptionLogger.logInfo('Subscription $subId added');
+    closePendingUpdates();
     eventDispatcher.onSubscription();
   }
 
@@ -665,6 +877,7 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.SubscriptionManager)
   function fireOnUnsubscription(subId: Int) {
     subscriptionLogger.logInfo('Subscription $subId deleted');
+    closePendingUpdates();
     eventDispatcher.onUnsubscription();
   }
 
@@ -672,6 +885,7 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.SubscriptionManager)
   function fireOnSubscriptionError(subId: Int, code: Int, msg: String) {
     subscriptionLogger.logWarn('Subscription $subId failed: $code - $msg');
+    closePendingUpdates();
     eventDispatcher.onSubscriptionError(code, msg);
   }
 
@@ -679,6 +893,7 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.SubscriptionManager)
   function fireOnEndOfSnapshot(itemIdx: Pos, subId: Int) {
     subscriptionLogger.logDebug('Subscription $subId:${getItemNameOrPos(itemIdx)}: snapshot ended');
+    closePendingUpdates();
     eventDispatcher.onEndOfSnapshot(getItemName(itemIdx), itemIdx);
   }
 
@@ -686,6 +901,7 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.SubscriptionManager)
   function fireOnClearSnapshot(itemIdx: Pos, subId: Int) {
     subscriptionLogger.logDebug('Subscription $subId:${getItemNameOrPos(itemIdx)}: snapshot cleared');
+    closePendingUpdates();
     eventDispatcher.onClearSnapshot(getItemName(itemIdx), itemIdx);
   }
 
@@ -693,6 +909,7 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.SubscriptionManager)
   function fireOnLostUpdates(itemIdx: Pos, lostUpdates: Int, subId: Int) {
     subscriptionLogger.logDebug('Subscription $subId:${getItemNameOrPos(itemIdx)}: lost $lostUpdates updates');
+    closePendingUpdates();
     eventDispatcher.onItemLostUpdates(getItemName(itemIdx), itemIdx, lostUpdates);
   }
   
@@ -702,13 +919,39 @@ class LSSubscription {
   @:allow(com.lightstreamer.client.internal.update.Key2Level)
   function fireOnItemUpdate(update: ItemUpdate, subId: Int) {
     subscriptionLogger.logDebug('Subscription $subId:${getItemNameOrPos(update.getItemPos())} update: $update');
+    #if java
+    if (conflation && !update.isSnapshot()) {
+      var conflatable = @:nullSafety(Off) Std.downcast(update, ItemUpdateBase);
+      if (conflatable != null) {
+        eventDispatcher.onItemUpdateConflated(conflatable, this, lock);
+        return;
+      }
+    }
+    if (maxPendingUpdates > 0 && !update.isSnapshot()) {
+      eventDispatcher.onItemUpdateBounded(update, maxPendingUpdates, lock);
+      return;
+    }
+    #end
+    closePendingUpdates();
     eventDispatcher.onItemUpdate(update);
   }
 
+  /**
+   * See `SubscriptionEventDispatcher.closePendingUpdates`.
+   */
+  function closePendingUpdates() {
+    #if java
+    if (conflation || maxPendingUpdates > 0) {
+      eventDispatcher.closePendingUpdates();
+    }
+    #end
+  }
+
   @:synchronized
   @:allow(com.lightstreamer.client.internal.ModeStrategy)
   function fireOnRealMaxFrequency(freq: Null<RealMaxFrequency>, subId: Int) {
     subscriptionLogger.logDebug('Subscription $subId real max frequency changed: $freq');
+    closePendingUpdates();
     eventDispatcher.onRealMaxFrequency(realFrequencyAsString(freq));
   }
 
@@ -51,6 +51,12 @@ class ClientMachine {
   final ctrlFactory: IHttpClientFactory;
   final timerFactory: ITimerFactory;
   final randomGenerator: Millis->Millis;
+  #if java
+  // NB shadows the global `sessionThread`: the events of a client are always processed by the same executor
+  final sessionThread: Executor;
+  #end
+  // NB the events of the transports go through `inbox`, so that a burst of events is processed by a single task
+  final inbox: EventBatcher;
   // attributes
   final delayCounter: RetryDelayCounter = new RetryDelayCounter();
   var m_status: ClientStatus = DISCONNECTED;
@@ -72,8 +78,23 @@ class ClientMachine {
   // messages
   final sequenceMap: Map<String, Int> = [];
   final messageManagers = new MyArray<MessageManager>();
+  // the messages that may be pending (see `getPendingMessages`), in the order they were sent
+  final pendingMessages: Array<MessageManager> = [];
+  // the messages waiting for the end of the linger window (see `evtLingerTimeout`)
+  final lingeringMessages: Array<MessageManager> = [];
   // subscriptions
   final subscriptionManagers: OrderedIntMap<SubscriptionManager> = new OrderedIntMap();
+  // the subscriptions that may have a pending request (see `getPendingControls`)
+  final pendingSubManagers: Map<Int, SubscriptionManager> = [];
+  // the senders of the requests that may still receive a response, by reqId (see `doREQOK`)
+  static inline final MIN_SUB_REQUESTS_LIMIT = 64;
+  final subRequests: Map<Int, Int> = [];
+  var subRequestsCount = 0;
+  var subRequestsLimit = MIN_SUB_REQUESTS_LIMIT;
+  final msgRequests: Map<Int, MessageManager> = [];
+  // when not null, the controls are collected here and sent together afterwards (see `subscribeAll`)
+  var heldControls: Null<Array<Encodable>>;
+  var heldMessages: Null<Array<MessageManager>>;
   // request types
   var switchRequest: Null<SwitchRequest>;
   var constrainRequest: Null<ConstrainRequest>;
@@ -104,7 +125,8 @@ class ClientMachine {
   // connections
   var ws: Null<IWsClient>;
   var http: Null<IHttpClient>;
-  var ctrl_http: Null<IHttpClient>;
+  // NB there may be several control requests in flight (see `sendPendingControlsHTTP`)
+  final ctrl_https: Array<IHttpClient> = [];
   // timeouts
   var transportTimer: Null<ITimer>;
   var retryTimer: Null<ITimer>;
@@ -112,10 +134,13 @@ class ClientMachine {
   var stalledTimer: Null<ITimer>;
   var reconnectTimer: Null<ITimer>;
   var rhbTimer: Null<ITimer>;
+  final keepaliveDeadline: TimerDeadline;
+  final rhbDeadline: TimerDeadline;
   var recoveryTimer: Null<ITimer>;
   var idleTimer: Null<ITimer>;
   var pollingTimer: Null<ITimer>;
   var ctrlTimer: Null<ITimer>;
+  var lingerTimer: Null<ITimer>;
 
   function disposeSession() {
     disposeWS();
@@ -139,6 +164,12 @@ class ClientMachine {
     bw_requestedMaxBandwidth = null;
     
     swt_lastReqId = null;
+
+    // NB the requests of a closed session are never answered
+    subRequests.clear();
+    subRequestsCount = 0;
+    subRequestsLimit = MIN_SUB_REQUESTS_LIMIT;
+    msgRequests.clear();
   }
 
   function disposeClient() {
@@ -158,10 +189,18 @@ class ClientMachine {
     this.httpFactory = factory.createHttpClient;
     this.ctrlFactory = factory.createCtrlClient;
     this.timerFactory = factory.createTimer;
+    this.keepaliveDeadline = factory.createTimerDeadline();
+    this.rhbDeadline = factory.createTimerDeadline();
     this.randomGenerator = factory.randomMillis;
     this.reachabilityFactory = factory.createReachabilityManager;
     this.frz_pageLifecycleFactory = factory.createPageLifecycleFactory;
     this.clientEventDispatcher = client.eventDispatcher;
+    #if java
+    this.sessionThread = client.sessionThread;
+    this.inbox = new EventBatcher(sessionThread, lock, SessionThreads.instance.getMaxBatchSize());
+    #else
+    this.inbox = new EventBatcher(sessionThread, lock);
+    #end
     this.switchRequest = new SwitchRequest(this);
     this.constrainRequest = new ConstrainRequest(this);
     delayCounter.reset(options.retryDelay);
@@ -580,49 +619,81 @@ class ClientMachine {
   }
 
   function evtMessage(line: String) {
+    if (line.length == 0) {
+      return false;
+    }
     var matched = true;
-    if (line.startsWith("U,")) {
+    // dispatch on the first character, so that each line is compared with a few tags only
+    switch line.fastCodeAt(0) {
+    case "U".code if (line.startsWith("U,")):
       // U,<subscription id>,<itemd index>,<field values>
       var update = parseUpdate(line);
       evtU(update.subId, update.itemIdx, update.values, line);
-    } else if (line.startsWith("REQOK")) {
+    case "U".code if (line.startsWith("UNSUB")):
+      // UNSUB,<subscription id>
+      var args = new MessageScanner(line, "UNSUB".length);
+      var subId = args.nextInt();
+      evtUNSUB(subId);
+    case "P".code if (line.startsWith("PROG")):
+      // PROG,<prog>
+      var args = new MessageScanner(line, "PROG".length);
+      var prog = args.nextInt();
+      evtPROG(prog);
+    case "P".code if (line.startsWith("PROBE")):
+      evtPROBE();
+    case "R".code if (line.startsWith("REQOK")):
       // REQOK,<request id>
-      if (line == "REQOK") {
+      if (line.length == "REQOK".length) {
         evtREQOK_withoutReqId();
       } else {
-        var args = line.split(",");
-        var reqId = parseInt(args[1]);
+        var args = new MessageScanner(line, "REQOK".length);
+        var reqId = args.nextInt();
         evtREQOK(reqId);
       }
-    } else if (line.startsWith("PROBE")) {
-      evtPROBE();
-    } else if (line.startsWith("LOOP")) {
-      // LOOP,<delay [ms]>
-      var args = line.split(",");
-      var pollingMs = new Millis(parseInt(args[1]));
-      evtLOOP(pollingMs);
-    } else if (line.startsWith("CONOK")) {
+    case "R".code if (line.startsWith("REQERR")):
+      // REQERR,<request id>,<code>,<message>
+      var args = new MessageScanner(line, "REQERR".length);
+      var reqId = args.nextInt();
+      var code = args.nextInt();
+      var msg = args.nextString().unquote();
+      evtREQERR(reqId, code, msg);
+    case "S".code if (line.startsWith("SYNC")):
+      // SYNC,<elapsed time [sec]>
+      var args = new MessageScanner(line, "SYNC".length);
+      var seconds = args.nextInt();
+      evtSYNC(seconds);
+    case "S".code if (line.startsWith("SUBOK")):
+      // SUBOK,<subscription id>,<total items>,<total fields>
+      var args = new MessageScanner(line, "SUBOK".length);
+      var subId = args.nextInt();
+      var nItems = args.nextInt();
+      var nFields = args.nextInt();
+      evtSUBOK(subId, nItems, nFields);
+    case "S".code if (line.startsWith("SUBCMD")):
+      // SUBCMD,<subscription id>,<total items>,<total fields>,<key index>,<command index>
+      var args = new MessageScanner(line, "SUBCMD".length);
+      var subId = args.nextInt();
+      var nItems = args.nextInt();
+      var nFields = args.nextInt();
+      var keyIdx = args.nextInt();
+      var cmdIdx = args.nextInt();
+      evtSUBCMD(subId, nItems, nFields, keyIdx, cmdIdx);
+    case "S".code if (line.startsWith("SERVNAME")):
+      var args = new MessageScanner(line, "SERVNAME".length);
+      var serverName = args.nextString();
+      evtSERVNAME(serverName);
+    case "C".code if (line.startsWith("CONOK")):
       // CONOK,<session id>,<request limit>,<keepalive/idle timeout [ms]>,(*|<control link>)
-      var args = line.split(",");
-      var sessionId = args[1];
-      var reqLimit = parseInt(args[2]);
-      var keepalive = new Millis(parseInt(args[3]));
-      var clink = args[4];
+      var args = new MessageScanner(line, "CONOK".length);
+      var sessionId = args.nextString();
+      var reqLimit = args.nextInt();
+      var keepalive = new Millis(args.nextInt());
+      var clink = args.nextString();
       evtCONOK(sessionId, reqLimit, keepalive, clink);
-    } else if (line.startsWith("WSOK")) {
-      evtWSOK();
-    } else if (line.startsWith("SERVNAME")) {
-      var args = line.split(",");
-      var serverName = args[1];
-      evtSERVNAME(serverName);
-    } else if (line.startsWith("CLIENTIP")) {
-      var args = line.split(",");
-      var ip = args[1];
-      evtCLIENTIP(ip);
-    } else if (line.startsWith("CONS")) {
+    case "C".code if (line.startsWith("CONS")):
       // CONS,(unmanaged|unlimited|<bandwidth>)
-      var args = line.split(",");
-      var bw = args[1];
+      var args = new MessageScanner(line, "CONS".length);
+      var bw = args.nextString();
       switch bw {
       case "unlimited":
         evtCONS(BWUnlimited);
@@ -632,116 +703,89 @@ class ClientMachine {
         var n = parseFloat(bw);
         evtCONS(BWLimited(n));
       }
-    } else if (line.startsWith("MSGDONE")) {
+    case "C".code if (line.startsWith("CONF")):
+      // CONF,<subscription id>,(unlimited|<frequency>),(filtered|unfiltered)
+      var args = new MessageScanner(line, "CONF".length);
+      var subId = args.nextInt();
+      var freq = args.nextString();
+      if (freq == "unlimited") {
+        evtCONF(subId, RFreqUnlimited);
+      } else {
+        evtCONF(subId, RFreqLimited(parseFloat(freq)));
+      }
+    case "C".code if (line.startsWith("CONERR")):
+      // CONERR,<code>,<message>
+      var args = new MessageScanner(line, "CONERR".length);
+      var code = args.nextInt();
+      var msg = args.nextString().unquote();
+      evtCONERR(code, msg);
+    case "C".code if (line.startsWith("CLIENTIP")):
+      var args = new MessageScanner(line, "CLIENTIP".length);
+      var ip = args.nextString();
+      evtCLIENTIP(ip);
+    case "C".code if (line.startsWith("CS")):
+      // CS,<subscription id>,<item index>
+      var args = new MessageScanner(line, "CS".length);
+      var subId = args.nextInt();
+      var itemIdx = args.nextInt();
+      evtCS(subId, itemIdx);
+    case "M".code if (line.startsWith("MSGDONE")):
       // MSGDONE,(*|<sequence>),<prog>,<response>
-      var args = line.split(",");
-      var seq = args[1];
+      var args = new MessageScanner(line, "MSGDONE".length);
+      var seq = args.nextString();
       if (seq == "*") {
         seq = "UNORDERED_MESSAGES";
       }
-      var prog = parseInt(args[2]);
-      var rawResp = args[3];
+      var prog = args.nextInt();
+      var rawResp = args.nextString();
       var resp = rawResp == "" ? "" : rawResp.unquote();
       evtMSGDONE(seq, prog, resp);
-    } else if (line.startsWith("MSGFAIL")) {
+    case "M".code if (line.startsWith("MSGFAIL")):
       // MSGFAIL,(*|<sequence>),<prog>,<code>,<message>
-      var args = line.split(",");
-      var seq = args[1];
+      var args = new MessageScanner(line, "MSGFAIL".length);
+      var seq = args.nextString();
       if (seq == "*") {
         seq = "UNORDERED_MESSAGES";
       }
-      var prog = parseInt(args[2]);
-      var errorCode = parseInt(args[3]);
-      var errorMsg = args[4].unquote();
+      var prog = args.nextInt();
+      var errorCode = args.nextInt();
+      var errorMsg = args.nextString().unquote();
       evtMSGFAIL(seq, prog, errorCode, errorMsg);
-    } else if (line.startsWith("REQERR")) {
-      // REQERR,<request id>,<code>,<message>
-      var args = line.split(",");
-      var reqId = parseInt(args[1]);
-      var code = parseInt(args[2]);
-      var msg = args[3].unquote();
-      evtREQERR(reqId, code, msg);
-    } else if (line.startsWith("PROG")) {
-      // PROG,<prog>
-      var args = line.split(",");
-      var prog = parseInt(args[1]);
-      evtPROG(prog);
-    } else if (line.startsWith("SUBOK")) {
-      // SUBOK,<subscription id>,<total items>,<total fields>
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      var nItems = parseInt(args[2]);
-      var nFields = parseInt(args[3]);
-      evtSUBOK(subId, nItems, nFields);
-    } else if (line.startsWith("SUBCMD")) {
-      // SUBCMD,<subscription id>,<total items>,<total fields>,<key index>,<command index>
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      var nItems = parseInt(args[2]);
-      var nFields = parseInt(args[3]);
-      var keyIdx = parseInt(args[4]);
-      var cmdIdx = parseInt(args[5]);
-      evtSUBCMD(subId, nItems, nFields, keyIdx, cmdIdx);
-    } else if (line.startsWith("UNSUB")) {
-      // UNSUB,<subscription id>
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      evtUNSUB(subId);
-    } else if (line.startsWith("CONF")) {
-      // CONF,<subscription id>,(unlimited|<frequency>),(filtered|unfiltered)
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      if (args[2] == "unlimited") {
-        evtCONF(subId, RFreqUnlimited);
-      } else {
-        var freq = parseFloat(args[2]);
-        evtCONF(subId, RFreqLimited(freq));
-      }
-    } else if (line.startsWith("EOS")) {
+    case "E".code if (line.startsWith("EOS")):
       // EOS,<subscription id>,<item index>
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      var itemIdx = parseInt(args[2]);
+      var args = new MessageScanner(line, "EOS".length);
+      var subId = args.nextInt();
+      var itemIdx = args.nextInt();
       evtEOS(subId, itemIdx);
-    } else if (line.startsWith("CS")) {
-      // CS,<subscription id>,<item index>
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      var itemIdx = parseInt(args[2]);
-      evtCS(subId, itemIdx);
-    } else if (line.startsWith("OV")) {
-      // OV,<subscription id>,<item index>,<lost updates>
-      var args = line.split(",");
-      var subId = parseInt(args[1]);
-      var itemIdx = parseInt(args[2]);
-      var lostUpdates = parseInt(args[3]);
-      evtOV(subId, itemIdx, lostUpdates);
-    } else if (line.startsWith("NOOP")) {
-      evtNOOP();
-    } else if (line.startsWith("CONERR")) {
-      // CONERR,<code>,<message>
-      var args = line.split(",");
-      var code = parseInt(args[1]);
-      var msg = args[2].unquote();
-      evtCONERR(code, msg);
-    } else if (line.startsWith("END")) {
+    case "E".code if (line.startsWith("END")):
       // END,<code>,<message>
-      var args = line.split(",");
-      var code = parseInt(args[1]);
-      var msg = args[2].unquote();
+      var args = new MessageScanner(line, "END".length);
+      var code = args.nextInt();
+      var msg = args.nextString().unquote();
       evtEND(code, msg);
-    } else if (line.startsWith("ERROR")) {
+    case "E".code if (line.startsWith("ERROR")):
       // ERROR,<code>,<message>
-      var args = line.split(",");
-      var code = parseInt(args[1]);
-      var msg = args[2].unquote();
+      var args = new MessageScanner(line, "ERROR".length);
+      var code = args.nextInt();
+      var msg = args.nextString().unquote();
       evtERROR(code, msg);
-    } else if (line.startsWith("SYNC")) {
-      // SYNC,<elapsed time [sec]>
-      var args = line.split(",");
-      var seconds = parseInt(args[1]);
-      evtSYNC(seconds);
-    } else {
+    case "O".code if (line.startsWith("OV")):
+      // OV,<subscription id>,<item index>,<lost updates>
+      var args = new MessageScanner(line, "OV".length);
+      var subId = args.nextInt();
+      var itemIdx = args.nextInt();
+      var lostUpdates = args.nextInt();
+      evtOV(subId, itemIdx, lostUpdates);
+    case "L".code if (line.startsWith("LOOP")):
+      // LOOP,<delay [ms]>
+      var args = new MessageScanner(line, "LOOP".length);
+      var pollingMs = new Millis(args.nextInt());
+      evtLOOP(pollingMs);
+    case "W".code if (line.startsWith("WSOK")):
+      evtWSOK();
+    case "N".code if (line.startsWith("NOOP")):
+      evtNOOP();
+    case _:
       matched = false;
     }
     return matched;
@@ -750,25 +794,25 @@ class ClientMachine {
   function evtCtrlMessage(line: String) {
     if (line.startsWith("REQOK")) {
       // REQOK,<request id>
-      if (line == "REQOK") {
+      if (line.length == "REQOK".length) {
         evtREQOK_withoutReqId();
       } else {
-        var args = line.split(",");
-        var reqId = parseInt(args[1]);
+        var args = new MessageScanner(line, "REQOK".length);
+        var reqId = args.nextInt();
         evtREQOK(reqId);
       }
     } else if (line.startsWith("REQERR")) {
       // REQERR,<request id>,<code>,<message>
-      var args = line.split(",");
-      var reqId = parseInt(args[1]);
-      var code = parseInt(args[2]);
-      var msg = args[3].unquote();
+      var args = new MessageScanner(line, "REQERR".length);
+      var reqId = args.nextInt();
+      var code = args.nextInt();
+      var msg = args.nextString().unquote();
       evtREQERR(reqId, code, msg);
     } else if (line.startsWith("ERROR")) {
       // ERROR,<code>,<message>
-      var args = line.split(",");
-      var code = parseInt(args[1]);
-      var msg = args[2].unquote();
+      var args = new MessageScanner(line, "ERROR".length);
+      var code = args.nextInt();
+      var msg = args.nextString().unquote();
       evtERROR(code, msg);
     }
   }
@@ -1382,6 +1426,13 @@ class ClientMachine {
   }
 
   function evtKeepaliveTimeout() {
+    var remaining = keepaliveDeadline.remaining();
+    if (remaining > 0) {
+      // the keepalive has been restarted in the meantime (see `restartKeepalive`)
+      cancel_evtKeepaliveTimeout();
+      schedule_evtKeepaliveTimeout(remaining);
+      return;
+    }
     traceEvent("keepalive.timeout");
     if (state.s_w?.k == s310) {
       goto(state.s_w.k = s311);
@@ -1474,20 +1525,34 @@ class ClientMachine {
   function evtRestartKeepalive() {
     traceEvent("restart.keepalive");
     if (state.s_w?.k != null) {
+      var running = state.s_w.k == s310;
       goto(state.s_w.k = s310);
-      exit_keepalive_unit();
-      schedule_evtKeepaliveTimeout(keepaliveInterval.sure());
+      restartKeepalive(running);
     } else if (state.s_ws?.k != null) {
+      var running = state.s_ws.k == s520;
       goto(state.s_ws.k = s520);
-      exit_keepalive_unit();
-      schedule_evtKeepaliveTimeout(keepaliveInterval.sure());
+      restartKeepalive(running);
     } else if (state.s_hs?.k != null) {
+      var running = state.s_hs.k == s820;
       goto(state.s_hs.k = s820);
-      exit_keepalive_unit();
-      schedule_evtKeepaliveTimeout(keepaliveInterval.sure());
+      restartKeepalive(running);
     }
   }
 
+  /**
+   * Restarts the keepalive timer.
+   * 
+   * NB restarts happen on every message, so, when the keepalive timer is running, only its deadline is moved
+   * (see `evtKeepaliveTimeout`), unless the new deadline precedes the expiration of the timer.
+   */
+  function restartKeepalive(running: Bool) {
+    if (running && keepaliveTimer != null && keepaliveDeadline.postpone(keepaliveInterval.sure())) {
+      return;
+    }
+    exit_keepalive_unit();
+    schedule_evtKeepaliveTimeout(keepaliveInterval.sure());
+  }
+
   function evtWSOK() {
     traceEvent("WSOK");
     protocolLogger.logDebug("WSOK");
@@ -2506,7 +2571,7 @@ class ClientMachine {
     }
   }
 
-  function evtU(subId: Int, itemIdx: Pos, values: Map<Pos, FieldValue>, rawValue: String) {
+  function evtU(subId: Int, itemIdx: Pos, values: FieldVector<FieldValue>, rawValue: String) {
     traceEvent("U");
     protocolLogger.logDebug('$rawValue');
     if (state.inPushing()) {
@@ -2686,17 +2751,17 @@ class ClientMachine {
 
   function evtSendPendingMessages() {
     traceEvent("send.pending.messages");
-    if (state.s_w?.s == s340 && messageManagers.exists(msg -> msg.isPending())) {
+    if (state.s_w?.s == s340 && hasPendingMessages()) {
       sendPendingMessagesWS();
       goto(state.s_w.s = s340);
       genAckMessagesWS();
       evtRestartHeartbeat();
-    } else if (state.s_ws?.s == s550 && messageManagers.exists(msg -> msg.isPending())) {
+    } else if (state.s_ws?.s == s550 && hasPendingMessages()) {
       sendPendingMessagesWS();
       goto(state.s_ws.s = s550);
       genAckMessagesWS();
       evtRestartHeartbeat();
-    } else if (state.s_wp?.s == s630 && messageManagers.exists(msg -> msg.isPending())) {
+    } else if (state.s_wp?.s == s630 && hasPendingMessages()) {
       sendPendingMessagesWS();
       goto(state.s_wp.s = s630);
       genAckMessagesWS();
@@ -2765,12 +2830,10 @@ class ClientMachine {
       switch state.s_rhb {
       case s322:
         goto(state.s_rhb = s322);
-        cancel_evtRhbTimeout();
-        schedule_evtRhbTimeout(rhb_currentInterval.sure());
+        restartRhb();
       case s323:
         goto(state.s_rhb = s323);
-        cancel_evtRhbTimeout();
-        schedule_evtRhbTimeout(rhb_currentInterval.sure());
+        restartRhb();
       case s324:
         if (rhb_grantedInterval == 0) {
           if (options.reverseHeartbeatInterval != 0) {
@@ -2797,7 +2860,29 @@ class ClientMachine {
     }
   }
 
+  /**
+   * Restarts the reverse heartbeat timer.
+   * 
+   * NB restarts happen on every request, so, when the timer is running, only its deadline is moved
+   * (see `evtRhbTimeout`), unless the new deadline precedes the expiration of the timer
+   * (e.g. because the interval has been shortened).
+   */
+  function restartRhb() {
+    if (rhbTimer != null && rhbDeadline.postpone(rhb_currentInterval.sure())) {
+      return;
+    }
+    cancel_evtRhbTimeout();
+    schedule_evtRhbTimeout(rhb_currentInterval.sure());
+  }
+
   function evtRhbTimeout() {
+    var remaining = rhbDeadline.remaining();
+    if (remaining > 0) {
+      // the heartbeat has been restarted in the meantime (see `restartRhb`)
+      cancel_evtRhbTimeout();
+      schedule_evtRhbTimeout(remaining);
+      return;
+    }
     traceEvent("rhb.timeout");
     if (state.s_rhb == s322) {
       goto(state.s_rhb = s324);
@@ -2913,7 +2998,7 @@ class ClientMachine {
         goto(state.s_ctrl = s1102);
         evtRestartHeartbeat();
         schedule_evtCtrlTimeout(options.retryDelay);
-      } else if (messageManagers.exists(msg -> msg.isPending())) {
+      } else if (hasPendingMessages()) {
         sendPendingMessagesHTTP();
         goto(state.s_ctrl = s1102);
         evtRestartHeartbeat();
@@ -2982,6 +3067,15 @@ class ClientMachine {
 
   public function evtSendControl(request: Encodable) {
     traceEvent("send.control");
+    if (request is SubscriptionManager) {
+      var sub: SubscriptionManager = cast request;
+      pendingSubManagers[sub.subId] = sub;
+    }
+    var heldControls = this.heldControls;
+    if (heldControls != null) {
+      heldControls.push(request);
+      return;
+    }
     if (state.s_w?.s == s340) {
       sendControlWS(request);
       goto(state.s_w.s = s340);
@@ -2999,6 +3093,91 @@ class ClientMachine {
     }
   }
 
+  function evtSendControls(requests: Array<Encodable>) {
+    traceEvent("send.controls");
+    if (requests.length == 0) {
+      return;
+    }
+    if (state.s_w?.s == s340) {
+      sendPengingControlsWS(requests);
+      goto(state.s_w.s = s340);
+      evtRestartHeartbeat();
+    } else if (state.s_ws?.s == s550) {
+      sendPengingControlsWS(requests);
+      goto(state.s_ws.s = s550);
+      evtRestartHeartbeat();
+    } else if (state.s_wp?.s == s630) {
+      sendPengingControlsWS(requests);
+      goto(state.s_wp.s = s630);
+    } else if (state.s_ctrl == s1101) {
+      goto(state.s_ctrl = s1100);
+      evtCheckCtrlRequests();
+    }
+  }
+
+  function evtSendMessages(messages: Array<MessageManager>) {
+    traceEvent("send.messages");
+    if (messages.length == 0) {
+      return;
+    }
+    var linger = getMessageLinger();
+    if ((linger > 0 || lingerTimer != null) && (state.s_w?.s == s340 || state.s_ws?.s == s550 || state.s_wp?.s == s630)) {
+      for (msg in messages) {
+        pendingMessages.push(msg);
+        lingeringMessages.push(msg);
+      }
+      if (lingerTimer == null) {
+        schedule_evtLingerTimeout(linger);
+      }
+    } else if (state.s_w?.s == s340) {
+      sendMessagesWS(messages);
+      goto(state.s_w.s = s340);
+      genAckSentMessagesWS(messages, false);
+      evtRestartHeartbeat();
+    } else if (state.s_ws?.s == s550) {
+      sendMessagesWS(messages);
+      goto(state.s_ws.s = s550);
+      genAckSentMessagesWS(messages, false);
+      evtRestartHeartbeat();
+    } else if (state.s_wp?.s == s630) {
+      sendMessagesWS(messages);
+      goto(state.s_wp.s = s630);
+      genAckSentMessagesWS(messages, false);
+    } else if (state.s_ctrl == s1101) {
+      for (msg in messages) {
+        pendingMessages.push(msg);
+      }
+      goto(state.s_ctrl = s1100);
+      evtCheckCtrlRequests();
+    } else {
+      for (msg in messages) {
+        pendingMessages.push(msg);
+      }
+    }
+  }
+
+  function evtLingerTimeout() {
+    traceEvent("linger.timeout");
+    lingerTimer = null;
+    var messages = lingeringMessages.copy();
+    lingeringMessages.splice(0, lingeringMessages.length);
+    if (state.s_w?.s == s340) {
+      sendMessagesWS(messages);
+      goto(state.s_w.s = s340);
+      genAckSentMessagesWS(messages, true);
+      evtRestartHeartbeat();
+    } else if (state.s_ws?.s == s550) {
+      sendMessagesWS(messages);
+      goto(state.s_ws.s = s550);
+      genAckSentMessagesWS(messages, true);
+      evtRestartHeartbeat();
+    } else if (state.s_wp?.s == s630) {
+      sendMessagesWS(messages);
+      goto(state.s_wp.s = s630);
+      genAckSentMessagesWS(messages, true);
+    }
+  }
+
   function evtSendHeartbeat() {
     traceEvent("send.heartbeat");
     if (state.s_w?.s == s340) {
@@ -3214,23 +3393,59 @@ class ClientMachine {
 
   public function evtSendMessage(msg: MessageManager) {
     traceEvent("send.message");
-    if (state.s_w?.s == s340) {
+    var heldMessages = this.heldMessages;
+    if (heldMessages != null) {
+      heldMessages.push(msg);
+      return;
+    }
+    var linger = getMessageLinger();
+    if ((linger > 0 || lingerTimer != null) && (state.s_w?.s == s340 || state.s_ws?.s == s550 || state.s_wp?.s == s630)) {
+      // NB the message is sent together with the others issued within the linger window (see `evtLingerTimeout`);
+      // while the window is open, the messages are held even if the linger has been turned off, so as not to reorder them
+      pendingMessages.push(msg);
+      lingeringMessages.push(msg);
+      if (lingerTimer == null) {
+        schedule_evtLingerTimeout(linger);
+      }
+    } else if (state.s_w?.s == s340) {
       sendMsgWS(msg);
       goto(state.s_w.s = s340);
       msg.evtWSSent();
+      trackSentMessage(msg);
       evtRestartHeartbeat();
     } else if (state.s_ws?.s == s550) {
       sendMsgWS(msg);
       goto(state.s_ws.s = s550);
       msg.evtWSSent();
+      trackSentMessage(msg);
       evtRestartHeartbeat();
     } else if (state.s_wp?.s == s630) {
       sendMsgWS(msg);
       goto(state.s_wp.s = s630);
       msg.evtWSSent();
+      trackSentMessage(msg);
     } else if (state.s_ctrl == s1101) {
+      pendingMessages.push(msg);
       goto(state.s_ctrl = s1100);
       evtCheckCtrlRequests();
+    } else {
+      pendingMessages.push(msg);
+    }
+  }
+
+  function evtSendFireAndForgetMessage(txt: String) {
+    traceEvent("send.message");
+    if (state.s_w?.s == s340) {
+      sendFireAndForgetMsgWS(txt);
+      goto(state.s_w.s = s340);
+      evtRestartHeartbeat();
+    } else if (state.s_ws?.s == s550) {
+      sendFireAndForgetMsgWS(txt);
+      goto(state.s_ws.s = s550);
+      evtRestartHeartbeat();
+    } else if (state.s_wp?.s == s630) {
+      sendFireAndForgetMsgWS(txt);
+      goto(state.s_wp.s = s630);
     }
   }
 
@@ -3415,14 +3630,14 @@ class ClientMachine {
   function openWS(url: String, headers: Null<Map<String, String>>): IWsClient {
     return wsFactory(url, headers, 
       function onOpen(client) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtWSOpen();
-        }));
+        });
       },
       function onText(client, line) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           try {
@@ -3431,21 +3646,21 @@ class ClientMachine {
             sessionLogger.logErrorEx('${e.message}', e);
             evtExtDisconnect(TC_standardError(61, e.message));
           }
-        }));
+        });
       },
       function onError(client, error) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtTransportError();
-        }));
+        });
       },
       function onFatalError(client, code, error) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtTransportFatalError(code, error);
-        }));
+        });
       });
   }
 
@@ -3572,7 +3787,7 @@ class ClientMachine {
   function sendHttpRequest(url: String, req: RequestBuilder, headers: Null<Map<String, String>>): IHttpClient {
     return httpFactory(url, req.getEncodedString(), headers,
       function onText(client, line) {
-        sessionThread.submit(() -> lock.synchronized(() -> {   
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           try {
@@ -3581,21 +3796,21 @@ class ClientMachine {
             sessionLogger.logErrorEx('${e.message}', e);
             evtExtDisconnect(TC_standardError(61, e.message));
           }
-        }));
+        });
       },
       function onError(client, error) {
-        sessionThread.submit(() -> lock.synchronized(() -> {   
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtTransportError();
-        }));
+        });
       },
       function onFatalError(client, errCode, errMsg) {
-        sessionThread.submit(() -> lock.synchronized(() -> {   
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtTransportFatalError(errCode, errMsg);
-        }));
+        });
       },
       function onDone(client) {
         // ignore
@@ -3800,17 +4015,28 @@ class ClientMachine {
   }
 
   function disposeCtrl() {
-    if (ctrl_http != null) {
+    for (ctrl_http in ctrl_https) {
       ctrl_http.dispose();
-      ctrl_http = null;
     }
+    ctrl_https.splice(0, ctrl_https.length);
   }
 
   function closeCtrl() {
-    if (ctrl_http != null) {
+    for (ctrl_http in ctrl_https) {
       ctrl_http.dispose();
-      ctrl_http = null;
     }
+    ctrl_https.splice(0, ctrl_https.length);
+  }
+
+  /**
+   * Closes a control request that has been fully processed.
+   * Returns true if no other control request is in flight.
+   */
+  function closeCtrlRequest(client: IHttpClient): Bool {
+    if (ctrl_https.remove(client)) {
+      client.dispose();
+    }
+    return ctrl_https.length == 0;
   }
 
   function notifyStatus(newStatus: ClientStatus) {
@@ -4123,7 +4349,7 @@ class ClientMachine {
     }
   }
 
-  function doU(subId: Int, itemIdx: Pos, values: Map<Pos, FieldValue>) {
+  function doU(subId: Int, itemIdx: Pos, values: FieldVector<FieldValue>) {
     onFreshData();
     var sub = subscriptionManagers[subId];
     if (sub != null) {
@@ -4209,27 +4435,50 @@ class ClientMachine {
   }
 
   function doREQOK(reqId: Int) {
-    for (_ => sub in subscriptionManagers) {
+    // NB only the sender of the request is notified, so that the cost doesn't depend on the number of subscriptions and messages
+    var sub = takeSubRequest(reqId);
+    if (sub != null) {
       sub.evtREQOK(reqId);
+      subscriptionManagers.compact();
     }
-    subscriptionManagers.compact();
 
-    for (msg in messageManagers) {
+    var msg = takeMsgRequest(reqId);
+    if (msg != null) {
       msg.evtREQOK(reqId);
+      messageManagers.compact();
     }
-    messageManagers.compact();
   }
 
   function doREQERR(reqId: Int, errorCode: Int, errorMsg: String) {
-    for (_ => sub in subscriptionManagers) {
+    var sub = takeSubRequest(reqId);
+    if (sub != null) {
       sub.evtREQERR(reqId, errorCode, errorMsg);
+      subscriptionManagers.compact();
     }
-    subscriptionManagers.compact();
 
-    for (msg in messageManagers) {
+    var msg = takeMsgRequest(reqId);
+    if (msg != null) {
       msg.evtREQERR(reqId, errorCode, errorMsg);
+      messageManagers.compact();
     }
-    messageManagers.compact();
+  }
+
+  function takeSubRequest(reqId: Int): Null<SubscriptionManager> {
+    var subId = subRequests[reqId];
+    if (subId == null) {
+      return null;
+    }
+    subRequests.remove(reqId);
+    subRequestsCount--;
+    return subscriptionManagers[subId];
+  }
+
+  function takeMsgRequest(reqId: Int): Null<MessageManager> {
+    var msg = msgRequests[reqId];
+    if (msg != null) {
+      msgRequests.remove(reqId);
+    }
+    return msg;
   }
 
   function doSYNC(syncMs: TimerMillis) {
@@ -4317,7 +4566,12 @@ class ClientMachine {
     ctrlTimer = createTimer("ctrl.timeout", timeout, evtCtrlTimeout);
   }
 
+  function schedule_evtLingerTimeout(timeout: Millis) {
+    lingerTimer = createTimer("linger.timeout", timeout, evtLingerTimeout);
+  }
+
   function schedule_evtKeepaliveTimeout(timeout: Millis) {
+    keepaliveDeadline.schedule(timeout);
     keepaliveTimer = createTimer("keepalive.timeout", timeout, evtKeepaliveTimeout);
   }
 
@@ -4330,6 +4584,7 @@ class ClientMachine {
   }
 
   function schedule_evtRhbTimeout(timeout: Millis) {
+    rhbDeadline.schedule(timeout);
     rhbTimer = createTimer("rhb.timeout", timeout, evtRhbTimeout);
   }
 
@@ -4405,6 +4660,15 @@ class ClientMachine {
     }
   }
 
+  function cancel_evtLingerTimeout() {
+    if (lingerTimer != null) {
+      lingerTimer.cancel();
+      lingerTimer = null;
+    }
+    // NB the lingering messages are still pending, so they are sent on the next binding
+    lingeringMessages.splice(0, lingeringMessages.length);
+  }
+
   function cancel_evtRecoveryTimeout() {
     if (recoveryTimer != null) {
       recoveryTimer.cancel();
@@ -4455,6 +4719,7 @@ class ClientMachine {
     cancel_evtStalledTimeout();
     cancel_evtReconnectTimeout();
     cancel_evtRhbTimeout();
+    cancel_evtLingerTimeout();
   }
 
   function exit_ws() {
@@ -4463,12 +4728,14 @@ class ClientMachine {
     cancel_evtStalledTimeout();
     cancel_evtReconnectTimeout();
     cancel_evtRhbTimeout();
+    cancel_evtLingerTimeout();
   }
 
   function exit_wp() {
     cancel_evtTransportTimeout();
     cancel_evtIdleTimeout();
     cancel_evtPollingTimeout();
+    cancel_evtLingerTimeout();
   }
 
   function exit_hs() {
@@ -4560,6 +4827,35 @@ class ClientMachine {
     return m_nextReqId;
   }
 
+  /**
+   * Generates the reqId of a request of the subscription `subId`, so that the response is delivered only to the subscription.
+   */
+  public function generateFreshSubReqId(subId: Int): Int {
+    var reqId = generateFreshReqId();
+    subRequests[reqId] = subId;
+    subRequestsCount++;
+    if (subRequestsCount > subRequestsLimit) {
+      // NB some requests are never answered (e.g. the deletions without ack), so the requests of the released subscriptions 
+      // are dropped here, when their number doubles, and the cost of the check is amortized
+      var released = [for (reqId => subId in subRequests) if (subscriptionManagers[subId] == null) reqId];
+      for (reqId in released) {
+        subRequests.remove(reqId);
+      }
+      subRequestsCount -= released.length;
+      subRequestsLimit = MIN_SUB_REQUESTS_LIMIT + 2 * subRequestsCount;
+    }
+    return reqId;
+  }
+
+  /**
+   * Generates the reqId of a request of the message `msg`, so that the response is delivered only to the message.
+   */
+  public function generateFreshMsgReqId(msg: MessageManager): Int {
+    var reqId = generateFreshReqId();
+    msgRequests[reqId] = msg;
+    return reqId;
+  }
+
   public function generateFreshSubId(): Int {
     m_nextSubId += 1;
     return m_nextSubId;
@@ -4568,14 +4864,27 @@ class ClientMachine {
   function genAbortSubscriptions() {
     for (_ => sub in subscriptionManagers) {
       sub.evtExtAbort();
+      if (sub.isPending()) {
+        pendingSubManagers[sub.subId] = sub;
+      }
     }
     subscriptionManagers.compact();
   }
 
   function genAckMessagesWS() {
-    var messages = messageManagers.filter(msg -> msg.isPending());
+    genAckSentMessagesWS(getPendingMessages(), true);
+  }
+
+  /**
+   * Notifies the messages that they have been sent on the WebSocket.
+   * Unless they are already tracked as pending (as the lingering messages are), those still waiting for a response are tracked.
+   */
+  function genAckSentMessagesWS(messages: Array<MessageManager>, areTracked: Bool) {
     for (msg in messages) {
       msg.evtWSSent();
+      if (!areTracked) {
+        trackSentMessage(msg);
+      }
     }
   }
 
@@ -4633,14 +4942,61 @@ class ClientMachine {
     if (constrainRequest.sure().isPending()) {
       res.push(constrainRequest.sure());
     }
-    for (_ => sub in subscriptionManagers) {
+    // NB only the subscriptions that have been marked as pending are checked, so that the cost doesn't depend
+    // on the total number of subscriptions; the requests are still sent in the order of the subscription ids
+    var subs = new Array<SubscriptionManager>();
+    var done = new Array<Int>();
+    for (subId => sub in pendingSubManagers) {
       if (sub.isPending()) {
-        res.push(sub);
+        subs.push(sub);
+      } else {
+        done.push(subId);
       }
     }
+    for (subId in done) {
+      pendingSubManagers.remove(subId);
+    }
+    subs.sort((a, b) -> a.subId - b.subId);
+    for (sub in subs) {
+      res.push(sub);
+    }
     return res;
   }
 
+  /**
+   * Records a message sent on a WebSocket which still waits for a response, so that it is sent again
+   * on the next binding if the response doesn't come first (see `getPendingMessages`).
+   */
+  function trackSentMessage(msg: MessageManager) {
+    if (msg.isPending()) {
+      pendingMessages.push(msg);
+    }
+  }
+
+  /**
+   * Returns the pending messages in the order they were sent.
+   */
+  function getPendingMessages(): Array<MessageManager> {
+    forgetSentMessages();
+    return pendingMessages.copy();
+  }
+
+  function hasPendingMessages(): Bool {
+    forgetSentMessages();
+    return pendingMessages.length > 0;
+  }
+
+  function forgetSentMessages() {
+    var j = 0;
+    for (i in 0...pendingMessages.length) {
+      var msg = pendingMessages[i];
+      if (msg.isPending()) {
+        pendingMessages[j++] = msg;
+      }
+    }
+    pendingMessages.splice(j, pendingMessages.length - j);
+  }
+
   function sendControlWS(request: Encodable) {
     ws.sure().send(request.encodeWS());
   }
@@ -4649,13 +5005,21 @@ class ClientMachine {
     ws.sure().send(msg.encodeWS());
   }
 
+  function sendFireAndForgetMsgWS(txt: String) {
+    ws.sure().send(MessageManager.encodeFireAndForgetWS(generateFreshReqId(), txt));
+  }
+
   function sendPengingControlsWS(pendings: Array<Encodable>) {
       var batches = prepareBatchWS("control", pendings, requestLimit.sure());
       sendBatchWS(batches);
   }
 
   function sendPendingMessagesWS() {
-    var messages = [for (msg in messageManagers) if (msg.isPending()) (msg : Encodable)];
+    sendMessagesWS(getPendingMessages());
+  }
+
+  function sendMessagesWS(msgs: Array<MessageManager>) {
+    var messages = [for (msg in msgs) (msg : Encodable)];
     // ASSERT (for each i, j in DOMAIN messages :
     // i < j AND messages[i].sequence = messages[j].sequence => messages[i].prog < messages[j].prog)
     var batches = prepareBatchWS("msg", messages, requestLimit.sure());
@@ -4674,12 +5038,39 @@ class ClientMachine {
   }
 
   function sendPendingControlsHTTP(pendings: Array<Encodable>) {
-    var body = prepareBatchHTTP(pendings, requestLimit.sure());
-    sendBatchHTTP(body, "control");
+    // NB when the controls don't fit in a single request, several requests are sent in parallel,
+    // so that, over a multiplexed (HTTP/2) connection, they complete in a single round trip
+    var bodies = prepareBatchesHTTP(pendings, requestLimit.sure(), getMaxConcurrentCtrlRequests());
+    for (body in bodies) {
+      sendBatchHTTP(body, "control");
+    }
+  }
+
+  /**
+   * Whether a message would be sent right away on a WebSocket (see `evtSendMessage`).
+   */
+  function canSendMessageWS(): Bool {
+    return heldMessages == null && lingerTimer == null && !(getMessageLinger() > 0) && (state.s_w?.s == s340 || state.s_ws?.s == s550 || state.s_wp?.s == s630);
+  }
+
+  function getMessageLinger(): Millis {
+    #if java
+    return options.messageLingerMillis;
+    #else
+    return Millis.ZERO;
+    #end
+  }
+
+  function getMaxConcurrentCtrlRequests(): Int {
+    #if java
+    return options.maxConcurrentControlRequests;
+    #else
+    return 1;
+    #end
   }
 
   function sendPendingMessagesHTTP() {
-    var messages = [for (msg in messageManagers) if (msg.isPending()) (msg : Encodable)];
+    var messages = [for (msg in getPendingMessages()) (msg : Encodable)];
     // ASSERT (for each i, j in DOMAIN messages :
     // i < j AND messages[i].sequence = messages[j].sequence => messages[i].prog < messages[j].prog)
     var body = prepareBatchHTTP(messages, requestLimit.sure());
@@ -4695,35 +5086,38 @@ class ClientMachine {
     ctrl_connectTs = TimerStamp.now();
     var url = Url.build(serverInstanceAddress.sure(), '/lightstreamer/$reqType.txt?LS_protocol=$TLCP_VERSION&LS_session=$sessionId');
     var headers = getHeadersForRequestOtherThanCreate();
-    ctrl_http = ctrlFactory(url, body, headers,
+    var ctrl_http = ctrlFactory(url, body, headers,
       function onText(client, line) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtCtrlMessage(line);
-        }));
+        });
       },
       function onError(client, error) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtCtrlError();
-        }));
+        });
       },
       function onFatalError(client, errCode, errMsg) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
           evtCtrlFatalError(errCode, errMsg);
-        }));
+        });
       },
       function onDone(client) {
-        sessionThread.submit(() -> lock.synchronized(() -> {
+        inbox.post(() -> {
           if (client.isDisposed())
             return;
-          evtCtrlDone();
-        }));
+          if (closeCtrlRequest(client)) {
+            evtCtrlDone();
+          }
+        });
       });
+    ctrl_https.push(ctrl_http);
   }
 
   function prepareBatchWS(reqType: String, pendings: Array<Encodable>, requestLimit: Int): Array<String> {
@@ -4755,24 +5149,34 @@ class ClientMachine {
   }
 
   function prepareBatchHTTP(pendings: Array<Encodable>, requestLimit: Int) {
+    return prepareBatchesHTTP(pendings, requestLimit, 1)[0];
+  }
+
+  function prepareBatchesHTTP(pendings: Array<Encodable>, requestLimit: Int, maxBatches: Int): Array<String> {
     assert(pendings.length > 0);
     // NB $requestLimit must always be respected unless
     // one single request surpasses the limit: in that case the requests is sent on its own even if
     // we already know that the server will refuse it
-    var mainReq = new Request();
+    var out = [];
     var i = 0;
     var subReq = pendings[i].encode(false);
-    mainReq.addSubRequest(subReq);
-    i += 1;
-    while (i < pendings.length) {
-      subReq = pendings[i].encode(false);
-      if (mainReq.addSubRequestOnlyIfBodyIsLessThan(subReq, requestLimit)) {
-        i += 1;
-      } else {
-        break;
+    while (i < pendings.length && out.length < maxBatches) {
+      // prepare next batch
+      var mainReq = new Request();
+      mainReq.addSubRequest(subReq);
+      i += 1;
+      while (i < pendings.length) {
+        subReq = pendings[i].encode(false);
+        if (mainReq.addSubRequestOnlyIfBodyIsLessThan(subReq, requestLimit)) {
+          i += 1;
+        } else {
+          // batch is full: keep subReq for the next batch
+          break;
+        }
       }
+      out.push(mainReq.getBody());
     }
-    return mainReq.getBody();
+    return out;
   }
 
   function getHeadersForRequestOtherThanCreate() {
@@ -4791,10 +5195,13 @@ class ClientMachine {
 
   public function unrelateSubManager(subManager: SubscriptionManager) {
     subscriptionManagers.remove(subManager.subId);
+    if (pendingSubManagers[subManager.subId] == subManager) {
+      pendingSubManagers.remove(subManager.subId);
+    }
   }
 
   function isRelatedWithSubManager(subManager: SubscriptionManager): Bool {
-    return subscriptionManagers.containsValue(subManager);
+    return subscriptionManagers[subManager.subId] == subManager;
   }
 
   public function relateMsgManager(msgManager: MessageManager) {
@@ -4803,6 +5210,12 @@ class ClientMachine {
 
   public function unrelateMsgManager(msgManager: MessageManager) {
     messageManagers.remove(msgManager);
+    var reqId = msgManager.lastReqId;
+    if (reqId != null && msgRequests[reqId] == msgManager) {
+      msgRequests.remove(reqId);
+    }
+    pendingMessages.remove(msgManager);
+    lingeringMessages.remove(msgManager);
   }
 
   public function getAndSetNextMsgProg(sequence: String): Int {
@@ -4842,8 +5255,16 @@ class ClientMachine {
 
     var future = new NativeFuture(() -> {
       actionLogger.logInfo("Starting shutdown...");
+      #if java
+      com.lightstreamer.internal.Threads.sessionThread.stop();
+      SessionThreads.instance.stop();
+      #else
       sessionThread.stop();
+      #end
       userThread.stop();
+      #if java
+      UserThreads.instance.stop();
+      #end
       actionLogger.logInfo("Shutdown completed");
     });
     #if java
@@ -4880,13 +5301,23 @@ class ClientMachine {
       return;
     }
     if (sequence != null) {
-      #if python @:nullSafety(Off) #end
-      if (!~/^[a-zA-Z0-9_]*$/.match(sequence)) {
-        throw new IllegalArgumentException("The given sequence name is not valid. Use only alphanumeric characters plus underscore or null");
-      }
+      checkSequence(sequence);
       var msg = new MessageManager(message, sequence, delayTimeout, listener, enqueueWhileDisconnected, this);
       actionLogger.logInfo('Message sending requested: $msg');
       msg.evtExtSendMessage();
+    } else if (listener == null && canSendMessageWS()) {
+      // fire-and-forget: since the Server sends no response, the message is sent right away without a MessageManager
+      if (actionLogger.isInfoEnabled()) {
+        var map = [
+          "text" => message, 
+          "sequence" => "UNORDERED_MESSAGES",
+          "prog" => "-1",
+          "timeout" => Std.string(delayTimeout),
+          "enqueueWhileDisconnected" => Std.string(enqueueWhileDisconnected)
+        ];
+        actionLogger.logInfo('Message sending requested: $map');
+      }
+      evtSendFireAndForgetMessage(message);
     } else {
       var sequence = "UNORDERED_MESSAGES";
       var msg = new MessageManager(message, sequence, delayTimeout, listener, enqueueWhileDisconnected, this);
@@ -4895,7 +5326,31 @@ class ClientMachine {
     }
   }
 
-  public function subscribeExt(subscription: Subscription, isInternal: Bool = false) {
+  function checkSequence(sequence: String) {
+    #if python @:nullSafety(Off) #end
+    if (!~/^[a-zA-Z0-9_]*$/.match(sequence)) {
+      throw new IllegalArgumentException("The given sequence name is not valid. Use only alphanumeric characters plus underscore or null");
+    }
+  }
+
+  /**
+   * Sends several messages at once, with the same sequence, timeout and listener.
+   * 
+   * NB the messages are not sent one by one, but in as few batches as the request limit allows.
+   * The arguments are checked beforehand, so that either all the messages are sent or none.
+   */
+  public function sendMessages(messages: Array<String>, sequence: Null<String>, delayTimeout: Int, listener: Null<ClientMessageListener>, enqueueWhileDisconnected: Bool): Void {
+    if (sequence != null) {
+      checkSequence(sequence);
+    }
+    holdRequests(() -> {
+      for (message in messages) {
+        sendMessage(message, sequence, delayTimeout, listener, enqueueWhileDisconnected);
+      }
+    });
+  }
+
+  function checkSubscribable(subscription: Subscription) {
     if (subscription.isActive()) {
       throw new IllegalStateException("Cannot subscribe to an active Subscription");
     }
@@ -4905,22 +5360,95 @@ class ClientMachine {
     if (subscription.fetchFields() == null && subscription.getFieldSchema() == null) {
       throw new IllegalArgumentException("Specify property 'fields' or 'fieldSchema'");
     }
+  }
+
+  public function subscribeExt(subscription: Subscription, isInternal: Bool = false) {
+    checkSubscribable(subscription);
     var sm = new SubscriptionManagerLiving(subscription, this);
     actionLogger.logInfo('${isInternal ? "Internal subscription" : "Subscription"} requested: subId: ${sm.subId} $subscription');
     sm.evtExtSubscribe();
   }
 
+  function checkUnsubscribable(subscription: Subscription) {
+    var sm = subscription.fetch_subManager();
+    if (sm != null && !isRelatedWithSubManager(sm)) {
+      throw new IllegalArgumentException("The Subscription is not subscribed to this Client");
+    }
+  }
+
   public function unsubscribe(subscription: Subscription) {
+    checkUnsubscribable(subscription);
     var sm = subscription.fetch_subManager();
     if (sm != null) {
-      if (!isRelatedWithSubManager(sm)) {
-        throw new IllegalArgumentException("The Subscription is not subscribed to this Client");
-      }
       actionLogger.logInfo('Unsubscription requested: subId: ${sm.subId} $subscription');
       sm.evtExtUnsubscribe();
     }
   }
 
+  /**
+   * Subscribes to several subscriptions at once.
+   * 
+   * NB the subscription requests are not sent one by one, but in as few batches as the request limit allows.
+   * The subscriptions are checked beforehand, so that either all of them are subscribed or none.
+   */
+  public function subscribeAll(subscriptions: Array<Subscription>) {
+    var listed = new haxe.ds.ObjectMap<Subscription, Bool>();
+    for (subscription in subscriptions) {
+      checkSubscribable(subscription);
+      if (listed.exists(subscription)) {
+        // NB subscribing twice would fail anyway, because the Subscription would be active the second time
+        throw new IllegalStateException("Cannot subscribe to an active Subscription");
+      }
+      listed.set(subscription, true);
+    }
+    holdRequests(() -> {
+      for (subscription in subscriptions) {
+        subscribeExt(subscription);
+      }
+    });
+  }
+
+  /**
+   * Unsubscribes from several subscriptions at once.
+   * 
+   * NB the unsubscription requests are not sent one by one, but in as few batches as the request limit allows.
+   * The subscriptions are checked beforehand, so that either all of them are unsubscribed or none.
+   */
+  public function unsubscribeAll(subscriptions: Array<Subscription>) {
+    for (subscription in subscriptions) {
+      checkUnsubscribable(subscription);
+    }
+    holdRequests(() -> {
+      for (subscription in subscriptions) {
+        unsubscribe(subscription);
+      }
+    });
+  }
+
+  /**
+   * Runs the given operations collecting the controls and the messages they issue and then sends them together.
+   * If an operation fails unexpectedly, the requests issued by the previous operations are sent anyway, 
+   * because their managers are already waiting for them.
+   */
+  function holdRequests(operations: ()->Void) {
+    var controls = [];
+    var messages = [];
+    var ex: Null<haxe.Exception> = null;
+    heldControls = controls;
+    heldMessages = messages;
+    try {
+      operations();
+    } catch (e) {
+      ex = e;
+    }
+    heldControls = null;
+    heldMessages = null;
+    evtSendControls(controls);
+    evtSendMessages(messages);
+    if (ex != null)
+      throw ex;
+  }
+
   public function getSubscriptions(): Array<Subscription> {
     var ls = new Array<Subscription>();
     for (_ => sm in subscriptionManagers) {
@@ -21,6 +21,7 @@ import com.lightstreamer.client.internal.ClientRequests;
 import com.lightstreamer.internal.RequestBuilder;
 import com.lightstreamer.log.LoggerTools;
 using com.lightstreamer.log.LoggerTools;
+using StringTools;
 
 class MessageEventDispatcher extends EventDispatcher<ClientMessageListener> {}
 
@@ -40,7 +41,7 @@ class MessageManager implements Encodable {
   final delegate: Null<ClientMessageListener>;
   final enqueueWhileDisconnected: Bool;
   final client: ClientMachine;
-  var lastReqId: Null<Int>;
+  public var lastReqId(default, null): Null<Int>;
   var s_m: State_m;
 
   public function new(txt: String, sequence: String, maxWait: Int, delegate: Null<ClientMessageListener>, enqueueWhileDisconnected: Bool, client: ClientMachine) {
@@ -244,7 +245,7 @@ class MessageManager implements Encodable {
     var isOrdered = sequence != "UNORDERED_MESSAGES";
     var hasListener = delegate != null;
     var req = new RequestBuilder();
-    lastReqId = client.generateFreshReqId();
+    lastReqId = client.generateFreshMsgReqId(this);
     req.LS_reqId(lastReqId);
     req.LS_message(txt);
     if (isOrdered && hasListener) {
@@ -282,6 +283,19 @@ class MessageManager implements Encodable {
     return req.getEncodedString();
   }
 
+  /**
+   * Encodes a fire-and-forget message (i.e. an unordered message without listener) to be sent on a WebSocket.
+   * 
+   * NB the encoding is the same as `encodeMsg` in the fire-and-forget case, but no `MessageManager` is needed,
+   * since the Server sends no response to such a message (see `ClientMachine.evtSendFireAndForgetMessage`).
+   */
+  public static function encodeFireAndForgetWS(reqId: Int, txt: String): String {
+    if (protocolLogger.isInfoEnabled()) {
+      protocolLogger.logInfo('Sending message: LS_reqId=$reqId LS_message=$txt LS_outcome=false LS_ack=false');
+    }
+    return "msg\r\nLS_reqId=" + reqId + "&LS_message=" + txt.urlEncode() + "&LS_outcome=false&LS_ack=false";
+  }
+
   function fireOnProcessed(response: String) {
     messageLogger.logInfo('Message $sequence:$prog processed');
     eventDispatcher.onProcessed(txt, response);
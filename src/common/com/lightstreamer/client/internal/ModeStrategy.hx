@@ -92,7 +92,7 @@ class ModeStrategy {
     }
   }
 
-  public function evtUpdate(itemIdx: Pos, values: Map<Pos, FieldValue>) {
+  public function evtUpdate(itemIdx: Pos, values: FieldVector<FieldValue>) {
     traceEvent("update");
     if (s_m == s2) {
       doUpdate(itemIdx, values);
@@ -158,7 +158,7 @@ class ModeStrategy {
     assert(fields != null ? nFields == fields.length : true);
   }
 
-  function doUpdate(itemIdx: Pos, values: Map<Pos, FieldValue>) {
+  function doUpdate(itemIdx: Pos, values: FieldVector<FieldValue>) {
     var item = selectItem(itemIdx);
     item.evtUpdate(values);
   }
@@ -43,12 +43,73 @@ function parseLong(s: String): Long {
   #end
 }
 
+/**
+ * Reads in place the comma-separated arguments of a TLCP message (e.g. `SUBOK,<subscription id>,<total items>,<total fields>`),
+ * so that the numeric arguments are parsed without creating intermediate strings.
+ */
+class MessageScanner {
+  final line: String;
+  /**
+   * Index of the next argument.
+   */
+  public var pos(default, null): Int;
+
+  /**
+   * Scans the arguments of the message following the tag of the given length.
+   */
+  public function new(line: String, tagLength: Int) {
+    this.line = line;
+    this.pos = tagLength + 1;
+  }
+
+  /**
+   * Parses the next argument as a decimal integer.
+   */
+  public function nextInt(): Int {
+    var len = line.length;
+    var i = pos;
+    var negative = false;
+    if (i < len && line.fastCodeAt(i) == "-".code) {
+      negative = true;
+      i++;
+    }
+    var start = i;
+    var n = 0;
+    while (i < len) {
+      var c = line.fastCodeAt(i);
+      if (c < "0".code || c > "9".code) {
+        break;
+      }
+      n = n * 10 + (c - "0".code);
+      i++;
+    }
+    if (i == start || (i < len && line.fastCodeAt(i) != ",".code)) {
+      throw new IllegalStateException('Expected an integer at position $pos of $line');
+    }
+    pos = i + 1;
+    return negative ? -n : n;
+  }
+
+  /**
+   * Returns the next argument as a string.
+   */
+  public function nextString(): String {
+    var end = line.indexOf(",", pos);
+    if (end == -1) {
+      end = line.length;
+    }
+    var arg = line.substring(pos, end);
+    pos = end + 1;
+    return arg;
+  }
+}
+
 class UpdateInfo {
   public final subId: Int;
   public final itemIdx: Pos;
-  public final values: Map<Pos, FieldValue>;
+  public final values: FieldVector<FieldValue>;
 
-  public function new(subId: Int, itemIdx: Pos, values: Map<Pos, FieldValue>) {
+  public function new(subId: Int, itemIdx: Pos, values: FieldVector<FieldValue>) {
     this.subId = subId;
     this.itemIdx = itemIdx;
     this.values = values;
@@ -60,14 +121,21 @@ function parseUpdate(message: String): UpdateInfo {
   // or U,<table>,<item>,<field_1>|^<number of unchanged fields>|...|<field_N>
 
   /* parse table and item */
-  var tableIndex = message.checkedIndexOf(",") + 1;
-  var itemIndex = message.checkedIndexOf(",", tableIndex) + 1;
-  var fieldsIndex = message.checkedIndexOf(",", itemIndex) + 1;
-  var table = parseInt(message.substring(tableIndex, itemIndex - 1));
-  var item = parseInt(message.substring(itemIndex, fieldsIndex - 1));
-  
-  /* parse fields */
-  var values = new Map<Pos, FieldValue>();
+  var scanner = new MessageScanner(message, 1);
+  var table = scanner.nextInt();
+  var item = scanner.nextInt();
+  var fieldsIndex = scanner.pos;
+  if (fieldsIndex > message.length) {
+    throw new IllegalStateException("string not found");
+  }
+  return new UpdateInfo(table, item, parseFields(message, fieldsIndex));
+}
+
+/**
+ * Decodes the field values of a `U` message, which start at the given index.
+ */
+function parseFields(message: String, fieldsIndex: Int): FieldVector<FieldValue> {
+  var values = new FieldVector<FieldValue>();
   var fieldStart = fieldsIndex - 1; // index of the separator introducing the next field
   var nextFieldIndex = 1;
   while (fieldStart < message.length) {
@@ -140,15 +208,7 @@ function parseUpdate(message: String): UpdateInfo {
     }
     fieldStart = fieldEnd;
   }
-  return new UpdateInfo(table, item, values);
-}
-
-private function checkedIndexOf(s: String, needle: String, ?startIndex:Int): Int {
-  var i = s.indexOf(needle, startIndex);
-  if (i == -1) {
-    throw new IllegalStateException("string not found");
-  }
-  return i;
+  return values;
 }
 
 /**
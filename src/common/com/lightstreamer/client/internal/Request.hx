@@ -15,44 +15,75 @@
  */
 package com.lightstreamer.client.internal;
 
+/**
+ * Builds the body of a batch of requests.
+ * 
+ * NB the size of the body is tracked as the requests are added, so that building a batch takes linear time
+ * in the number of requests (see `ClientMachine.prepareBatchWS` and `ClientMachine.prepareBatchHTTP`).
+ */
 class Request {
   static final EOL_LEN =  lengthOfBytes("\r\n");
-  var body = "";
+  final buf = new StringBuf();
+  var byteSize = 0;
+  var body: Null<String> = "";
 
   public function new() {}
 
   public function getByteSize() {
-    return lengthOfBytes(body);
+    return byteSize;
   }
 
   public function getBody() {
+    var body = this.body;
+    if (body == null) {
+      body = this.body = buf.toString();
+    }
     return body;
   }
 
   public function addSubRequest(req: String) {
-    if (isEmpty(body))  {
-      body = req;
-    } else {
-      body += "\r\n" + req;
-    }
+    append(req, lengthOfBytes(req));
   }
 
   public function addSubRequestOnlyIfBodyIsLessThan(req: String, requestLimit: Int) {
-    if (isEmpty(body) && lengthOfBytes(req) <= requestLimit) {
-      body = req;
+    var reqSize = lengthOfBytes(req);
+    if (isEmpty() && reqSize <= requestLimit) {
+      append(req, reqSize);
       return true;
-    } else if (lengthOfBytes(body) + EOL_LEN + lengthOfBytes(req) <= requestLimit) {
-      body += "\r\n" + req;
+    } else if (byteSize + EOL_LEN + reqSize <= requestLimit) {
+      append(req, reqSize);
       return true;
     }
     return false;
   }
 
-  static function isEmpty(s: String) {
-    return s.length == 0;
+  function append(req: String, reqSize: Int) {
+    if (isEmpty()) {
+      byteSize = reqSize;
+    } else {
+      buf.add("\r\n");
+      byteSize += EOL_LEN + reqSize;
+    }
+    buf.add(req);
+    body = null;
+  }
+
+  inline function isEmpty() {
+    return buf.length == 0;
   }
 
+  /**
+   * Computes the length of the UTF-8 encoding of a string.
+   * 
+   * NB the requests are percent-encoded, hence almost always ASCII-only: in that case the length is computed 
+   * without encoding the string.
+   */
   static function lengthOfBytes(req: String) {
-    return haxe.io.Bytes.ofString(req, haxe.io.Encoding.UTF8).length;
+    for (i in 0...req.length) {
+      if (StringTools.unsafeCodeAt(req, i) >= 0x80) {
+        return haxe.io.Bytes.ofString(req, haxe.io.Encoding.UTF8).length;
+      }
+    }
+    return req.length;
   }
-}
\ No newline at end of file
+}
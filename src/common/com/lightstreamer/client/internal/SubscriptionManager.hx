@@ -28,7 +28,7 @@ using com.lightstreamer.internal.NullTools;
 interface SubscriptionManager extends Encodable {
   public final subId: Int;
 
-  public function evtU(itemIdx: Pos, values: Map<Pos, FieldValue>): Void;
+  public function evtU(itemIdx: Pos, values: FieldVector<FieldValue>): Void;
   public function evtSUBOK(nItems: Int, nFields: Int): Void;
   public function evtSUBCMD(nItems: Int, nFields: Int, keyIdx: Pos, cmdIdx: Pos): Void;
   public function evtUNSUB(): Void;
@@ -295,7 +295,7 @@ class SubscriptionManagerLiving implements SubscriptionManager {
     }
   }
 
-  public function evtU(itemIdx: Int, values: Map<Pos, FieldValue>) {
+  public function evtU(itemIdx: Int, values: FieldVector<FieldValue>) {
     traceEvent("U");
     if (state.s_s == s10) {
       doU(itemIdx, values);
@@ -386,7 +386,7 @@ class SubscriptionManagerLiving implements SubscriptionManager {
 
   function encodeAdd(isWS: Bool): String {
     var req = new RequestBuilder();
-    m_lastAddReqId = m_client.generateFreshReqId();
+    m_lastAddReqId = m_client.generateFreshSubReqId(subId);
     req.LS_reqId(m_lastAddReqId);
     req.LS_op("add");
     req.LS_subId(subId);
@@ -453,7 +453,7 @@ class SubscriptionManagerLiving implements SubscriptionManager {
 
   function encodeDelete(isWS: Bool): String {
     var req = new RequestBuilder();
-    m_lastDeleteReqId = m_client.generateFreshReqId();
+    m_lastDeleteReqId = m_client.generateFreshSubReqId(subId);
     req.LS_reqId(m_lastDeleteReqId);
     req.LS_subId(subId);
     req.LS_op("delete");
@@ -466,7 +466,7 @@ class SubscriptionManagerLiving implements SubscriptionManager {
 
   function encodeReconf(isWS: Bool): String {
     var req = new RequestBuilder();
-    m_lastReconfReqId = m_client.generateFreshReqId();
+    m_lastReconfReqId = m_client.generateFreshSubReqId(subId);
     req.LS_reqId(m_lastReconfReqId);
     req.LS_subId(subId);
     req.LS_op("reconf");
@@ -558,7 +558,7 @@ class SubscriptionManagerLiving implements SubscriptionManager {
     m_strategy.evtOnUNSUB();
   }
 
-  function doU(itemIdx: Int, values: Map<Pos, FieldValue>) {
+  function doU(itemIdx: Int, values: FieldVector<FieldValue>) {
     assert(itemIdx <= m_subscription.fetch_nItems().sure());
     m_strategy.evtUpdate(itemIdx, values);
   }
@@ -93,7 +93,7 @@ class SubscriptionManagerZombie implements SubscriptionManager {
     }
   }
   
-  public function evtU(itemIdx: Pos, values: Map<Pos, FieldValue>) {
+  public function evtU(itemIdx: Pos, values: FieldVector<FieldValue>) {
     traceEvent("U");
     if (s_m == s1) {
       goto(s2);
@@ -155,7 +155,7 @@ class SubscriptionManagerZombie implements SubscriptionManager {
 
   function encodeDelete(isWS: Bool): String {
     var req = new RequestBuilder();
-    m_lastDeleteReqId = m_client.generateFreshReqId();
+    m_lastDeleteReqId = m_client.generateFreshSubReqId(subId);
     req.LS_reqId(m_lastDeleteReqId);
     req.LS_subId(subId);
     req.LS_op("delete");
@@ -26,7 +26,7 @@ using com.lightstreamer.client.internal.update.UpdateUtils.CurrFieldValTools;
 class ItemBase {
   public final m_subId: Int;
   public final itemIdx: Pos;
-  var currValues: Null<Map<Pos, Null<CurrFieldVal>>>;
+  var currValues: Null<FieldVector<Null<CurrFieldVal>>>;
   public final subscription: Subscription;
   final client: ClientMachine;
   public final lock: RLock;
@@ -43,7 +43,7 @@ class ItemBase {
     // nothing to do
   }
 
-  public function evtUpdate(values: Map<Pos, FieldValue>) {
+  public function evtUpdate(values: FieldVector<FieldValue>) {
     fatalError();
   }
   
@@ -71,26 +71,26 @@ class ItemBase {
     throw new IllegalStateException("Unsupported operation");
   }
 
-  function doFirstUpdate(values: Map<Pos, FieldValue>) {
+  function doFirstUpdate(values: FieldVector<FieldValue>) {
     doUpdate(values, false);
   }
   
-  function doUpdate0(values: Map<Pos, FieldValue>) {
+  function doUpdate0(values: FieldVector<FieldValue>) {
     doUpdate(values, false);
   }
   
-  function doFirstSnapshot(values: Map<Pos, FieldValue>) {
+  function doFirstSnapshot(values: FieldVector<FieldValue>) {
     doUpdate(values, true);
   }
   
-  function doSnapshot(values: Map<Pos, FieldValue>) {
+  function doSnapshot(values: FieldVector<FieldValue>) {
     doUpdate(values, true);
   }
   
-  function doUpdate(values: Map<Pos, FieldValue>, snapshot: Bool) {
+  function doUpdate(values: FieldVector<FieldValue>, snapshot: Bool) {
     var prevValues = currValues;
     currValues = applyUpatesToCurrentFields(prevValues, values);
-    var changedFields = findChangedFields(prevValues, currValues);
+    var changedFields = findChangedFieldsByIncomingValues(prevValues, currValues, values);
     #if LS_JSON_PATCH
     var jsonPatches = computeJsonPatches(prevValues, values);
     #end
@@ -46,7 +46,7 @@ class ItemCommand extends ItemBase {
     keys.remove(keyName);
   }
 
-  override public function evtUpdate(values: Map<Pos, FieldValue>) {
+  override public function evtUpdate(values: FieldVector<FieldValue>) {
     traceEvent("update");
     switch s_m {
     case s1:
@@ -108,12 +108,12 @@ class ItemCommand extends ItemBase {
     throw new IllegalStateException("Abstract method");
   }
 
-  override function doUpdate(values: Map<Pos, FieldValue>, snapshot: Bool) {
+  override function doUpdate(values: FieldVector<FieldValue>, snapshot: Bool) {
     var prevValues = currValues;
     currValues = applyUpatesToCurrentFields(prevValues, values);
     var key = selectKey();
     
-    key.evtUpdate(currValues, snapshot);
+    key.evtUpdate(currValues, prevValues, values, snapshot);
   }
 
   function genDisposeKeys() {
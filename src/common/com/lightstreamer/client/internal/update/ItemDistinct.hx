@@ -32,7 +32,7 @@ class ItemDistinct extends ItemBase {
     this.s_m = sub.hasSnapshot() ? s3 : s1;
   }
 
-  override public function evtUpdate(values: Map<Pos, FieldValue>) {
+  override public function evtUpdate(values: FieldVector<FieldValue>) {
     traceEvent("update");
     switch s_m {
     case s1:
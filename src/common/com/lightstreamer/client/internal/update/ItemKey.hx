@@ -16,10 +16,15 @@
 package com.lightstreamer.client.internal.update;
 
 import com.lightstreamer.internal.Types.Pos;
+import com.lightstreamer.internal.Types.FieldVector;
 import com.lightstreamer.client.internal.update.UpdateUtils;
 
 interface ItemKey {
-  function evtUpdate(keyValue: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool): Void;
+  /**
+   * `prevItemValues` and `incomingValues` are the values of the item before the update and the values of the update,
+   * from which `keyValue` has been computed (see `findChangedKeyFields`).
+   */
+  function evtUpdate(keyValue: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, snapshot: Bool): Void;
   function evtSetRequestedMaxFrequency(): Void;
   function evtDispose(): Void;
   function getCommandValue(fieldIdx: Pos): Null<String>;
@@ -27,7 +27,7 @@ private  enum abstract State_m(Int) {
 class ItemRaw extends ItemBase {
   var s_m: State_m = s1;
 
-  override public function evtUpdate(values: Map<Pos, FieldValue>) {
+  override public function evtUpdate(values: FieldVector<FieldValue>) {
     traceEvent("update");
     switch s_m {
     case s1:
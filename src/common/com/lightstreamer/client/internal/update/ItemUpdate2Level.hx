@@ -17,7 +17,7 @@ package com.lightstreamer.client.internal.update;
 
 import com.lightstreamer.internal.NativeTypes;
 import com.lightstreamer.internal.Types;
-import com.lightstreamer.internal.Set;
+import com.lightstreamer.internal.FieldBitSet;
 import com.lightstreamer.client.internal.update.UpdateUtils;
 import com.lightstreamer.internal.MacroTools;
 import com.lightstreamer.log.LoggerTools;
@@ -35,30 +35,31 @@ String;
 #end
 #end
 
+/**
+ * NB the update doesn't copy its arguments, which therefore must not be modified after its creation.
+ */
 class ItemUpdate2Level extends AbstractItemUpdate {
   final m_itemIdx: Pos;
-  final m_items: Null<Map<Pos, String>>;
+  final m_items: Null<NameTable>;
   final m_nFields: Int;
-  final m_fields: Null<Map<Pos, String>>;
-  final m_fields2: Null<Map<Pos, String>>;
-  final m_newValues: Map<Pos, Null<CurrFieldVal>>;
-  final m_changedFields: Set<Pos>;
+  final m_fields: Null<NameTable>;
+  final m_fields2: Null<NameTable>;
+  final m_newValues: FieldVector<Null<CurrFieldVal>>;
+  final m_changedFields: FieldBitSet;
   final m_isSnapshot: Bool;
   #if LS_JSON_PATCH
   final m_jsonPatches: Map<Pos, JsonPatchTypeAsReturnedByGetPatch>;
   #end
 
-  public function new(itemIdx: Pos, sub: Subscription, newValues: Map<Pos, Null<CurrFieldVal>>, changedFields: Set<Pos>, isSnapshot: Bool#if LS_JSON_PATCH, jsonPatches: Map<Pos, JsonPatchTypeAsReturnedByGetPatch>#end) {
-    var items = sub.fetch_items();
-    var fields = sub.fetch_fields();
-    var fields2 = sub.fetch_fields2();
+  public function new(itemIdx: Pos, sub: Subscription, newValues: FieldVector<Null<CurrFieldVal>>, changedFields: FieldBitSet, isSnapshot: Bool#if LS_JSON_PATCH, jsonPatches: Map<Pos, JsonPatchTypeAsReturnedByGetPatch>#end) {
+    var schema = sub.fetch_schema().sure();
     this.m_itemIdx = itemIdx;
-    this.m_items = toMap(items);
-    this.m_nFields = sub.fetch_nFields().sure();
-    this.m_fields = toMap(fields);
-    this.m_fields2 = toMap(fields2);
-    this.m_newValues = newValues.copy();
-    this.m_changedFields = changedFields.copy();
+    this.m_items = schema.items;
+    this.m_nFields = schema.nFields;
+    this.m_fields = schema.fields;
+    this.m_fields2 = schema.fields2;
+    this.m_newValues = newValues;
+    this.m_changedFields = changedFields;
     this.m_isSnapshot = isSnapshot;
     #if LS_JSON_PATCH
     this.m_jsonPatches = jsonPatches;
@@ -66,7 +67,7 @@ class ItemUpdate2Level extends AbstractItemUpdate {
   }
 
   public function getItemName(): Null<String> {
-    return m_items != null ? m_items[m_itemIdx] : null;
+    return m_items != null ? m_items.get(m_itemIdx) : null;
   }
 
   public function getItemPos(): Int {
@@ -123,6 +124,25 @@ class ItemUpdate2Level extends AbstractItemUpdate {
     var val = m_jsonPatches[fieldPos];
     return val != null ? val.toString() : null;
   }
+  #if java
+  overload public function getValueAsJSONNode(fieldName: String): Null<com.fasterxml.jackson.databind.JsonNode> {
+    if (m_fields == null && m_fields2 == null) {
+      throw new IllegalStateException(ItemUpdateBase.NO_FIELDS);
+    }
+    var fieldPos = getFieldIdxFromName(fieldName);
+    if (fieldPos == null) {
+      throw new IllegalArgumentException(ItemUpdateBase.UNKNOWN_FIELD_NAME);
+    }
+    return toJsonNode(m_newValues[fieldPos]);
+  }
+  overload public function getValueAsJSONNode(fieldPos: Int): Null<com.fasterxml.jackson.databind.JsonNode> {
+    // NB the positions of the second-level fields follow the first-level ones
+    if (!(1 <= fieldPos && fieldPos <= m_newValues.length)) {
+      throw new IllegalArgumentException(ItemUpdateBase.POS_OUT_BOUNDS);
+    }
+    return toJsonNode(m_newValues[fieldPos]);
+  }
+  #end
   #end
   #end
   #else
@@ -268,17 +288,17 @@ class ItemUpdate2Level extends AbstractItemUpdate {
 
   function getFieldNameFromIdx(fieldIdx: Pos): Null<String> {
     if (fieldIdx <= m_nFields) {
-      return m_fields != null ? m_fields[fieldIdx] : null;
+      return m_fields != null ? m_fields.get(fieldIdx) : null;
     } else {
-      return m_fields2 != null ? m_fields2[fieldIdx - m_nFields] : null;
+      return m_fields2 != null ? m_fields2.get(fieldIdx - m_nFields) : null;
     }
   }
 
   function getFieldIdxFromName(fieldName: String): Null<Pos> {
     var fields; var fields2; var fieldPos;
-    if ((fields = m_fields) != null && (fieldPos = findFirstIndex(fields.sure(), fieldName)) != null) {
+    if ((fields = m_fields) != null && (fieldPos = fields.sure().indexOf(fieldName)) != null) {
       return fieldPos;
-    } else if ((fields2 = m_fields2) != null && (fieldPos = findFirstIndex(fields2.sure(), fieldName)) != null) {
+    } else if ((fields2 = m_fields2) != null && (fieldPos = fields2.sure().indexOf(fieldName)) != null) {
       return m_nFields + fieldPos.sure();
     } else {
       return null;
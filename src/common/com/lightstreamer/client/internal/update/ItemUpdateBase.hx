@@ -17,7 +17,7 @@ package com.lightstreamer.client.internal.update;
 
 import com.lightstreamer.internal.NativeTypes;
 import com.lightstreamer.internal.Types;
-import com.lightstreamer.internal.Set;
+import com.lightstreamer.internal.FieldBitSet;
 import com.lightstreamer.client.internal.update.UpdateUtils;
 import com.lightstreamer.log.LoggerTools;
 
@@ -29,38 +29,65 @@ final NO_FIELDS = "The Subscription was initiated using a Field Schema: the fiel
 final POS_OUT_BOUNDS = "The field position is out of bounds";
 final UNKNOWN_FIELD_NAME = "The field name is unknown";
 
+/**
+ * NB the update doesn't copy its arguments, which therefore must not be modified after its creation.
+ */
 class ItemUpdateBase extends AbstractItemUpdate {
   final m_itemIdx: Pos;
-  final m_items: Null<Map<Pos, String>>;
+  final m_items: Null<NameTable>;
   final m_nFields: Int;
-  final m_fields: Null<Map<Pos, String>>;
-  final m_newValues: Map<Pos, Null<CurrFieldVal>>;
-  final m_changedFields: Set<Pos>;
+  final m_fields: Null<NameTable>;
+  final m_newValues: FieldVector<Null<CurrFieldVal>>;
+  final m_changedFields: FieldBitSet;
   final m_isSnapshot: Bool;
   #if LS_JSON_PATCH
   final m_jsonPatches: Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch>;
   #end
 
-  public function new(itemIdx: Pos, sub: Subscription, newValues: Map<Pos, Null<CurrFieldVal>>, changedFields: Set<Pos>, isSnapshot: Bool#if LS_JSON_PATCH, jsonPatches: Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch>#end) {
-    var items = sub.fetch_items();
-    var fields = sub.fetch_fields();
+  public function new(itemIdx: Pos, sub: Subscription, newValues: FieldVector<Null<CurrFieldVal>>, changedFields: FieldBitSet, isSnapshot: Bool#if LS_JSON_PATCH, jsonPatches: Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch>#end) {
+    var schema = sub.fetch_schema().sure();
     this.m_itemIdx = itemIdx;
-    this.m_items = toMap(items);
-    this.m_nFields = sub.fetch_nFields().sure();
-    this.m_fields = toMap(fields);
-    if (fields != null && fields.length != m_nFields) {
-      subscriptionLogger.logError('Expected $m_nFields field names but got ${fields.length}: $fields');
-    }
-    this.m_newValues = newValues.copy();
-    this.m_changedFields = changedFields.copy();
+    this.m_items = schema.items;
+    this.m_nFields = schema.nFields;
+    this.m_fields = schema.fields;
+    this.m_newValues = newValues;
+    this.m_changedFields = changedFields;
     this.m_isSnapshot = isSnapshot;
     #if LS_JSON_PATCH
     this.m_jsonPatches = jsonPatches;
     #end
   }
 
+  /**
+   * Returns an update with the values of `next`, a later update of the same item, and the fields changed by either update.
+   * NB the JSON patches of the fields changed by both updates are dropped, since they cannot be combined.
+   */
+  public function conflate(next: ItemUpdateBase, sub: Subscription): ItemUpdateBase {
+    var changedFields = new FieldBitSet(m_nFields);
+    for (fieldPos in m_changedFields) {
+      changedFields.insert(fieldPos);
+    }
+    for (fieldPos in next.m_changedFields) {
+      changedFields.insert(fieldPos);
+    }
+    #if LS_JSON_PATCH
+    var jsonPatches = new Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch>();
+    for (fieldPos => patch in m_jsonPatches) {
+      if (!next.m_changedFields.contains(fieldPos)) {
+        jsonPatches[fieldPos] = patch;
+      }
+    }
+    for (fieldPos => patch in next.m_jsonPatches) {
+      if (!m_changedFields.contains(fieldPos)) {
+        jsonPatches[fieldPos] = patch;
+      }
+    }
+    #end
+    return new ItemUpdateBase(m_itemIdx, sub, next.m_newValues, changedFields, next.m_isSnapshot#if LS_JSON_PATCH, jsonPatches#end);
+  }
+
   public function getItemName(): Null<String> {
-    return m_items != null ? m_items[m_itemIdx] : null;
+    return m_items != null ? m_items.get(m_itemIdx) : null;
   }
 
   public function getItemPos(): Int {
@@ -114,6 +141,18 @@ class ItemUpdateBase extends AbstractItemUpdate {
     var val = m_jsonPatches[fieldPos];
     return val != null ? val.toString() : null;
   }
+  #if java
+  overload public function getValueAsJSONNode(fieldName: String): Null<com.fasterxml.jackson.databind.JsonNode> {
+    var fieldPos = getFieldIdxFromName(fieldName);
+    return toJsonNode(m_newValues[fieldPos]);
+  }
+  overload public function getValueAsJSONNode(fieldPos: Int): Null<com.fasterxml.jackson.databind.JsonNode> {
+    if (!(1 <= fieldPos && fieldPos <= m_nFields)) {
+      throw new IllegalArgumentException(POS_OUT_BOUNDS);
+    }
+    return toJsonNode(m_newValues[fieldPos]);
+  }
+  #end
   #end
   #end
   #else
@@ -165,7 +204,7 @@ class ItemUpdateBase extends AbstractItemUpdate {
   public function forEachChangedField(iterator: (fieldName: Null<String>, fieldPos: Int, value: Null<String>) -> Void): Void {
     for (fieldPos in m_changedFields) {
       try {
-        var fieldName = m_fields != null ? m_fields[fieldPos] : null;
+        var fieldName = m_fields != null ? m_fields.get(fieldPos) : null;
         iterator(fieldName, fieldPos, m_newValues[fieldPos].toString());
       } catch(e) {
         actionLogger.logErrorEx("An exception was thrown while executing the Function passed to the forEachChangedField method", e);
@@ -176,7 +215,7 @@ class ItemUpdateBase extends AbstractItemUpdate {
   public function forEachField(iterator: (fieldName: Null<String>, fieldPos: Int, value: Null<String>) -> Void): Void {
     for (fieldPos => fieldVal in m_newValues) {
       try {
-        var fieldName = m_fields != null ? m_fields[fieldPos] : null;
+        var fieldName = m_fields != null ? m_fields.get(fieldPos) : null;
         iterator(fieldName, fieldPos, fieldVal.toString());
       } catch(e) {
         actionLogger.logErrorEx("An exception was thrown while executing the Function passed to the forEachField method", e);
@@ -191,7 +230,7 @@ class ItemUpdateBase extends AbstractItemUpdate {
     }
     var res = new Map<String, Null<String>>();
     for (fieldPos in m_changedFields) {
-      var fieldName = m_fields[fieldPos];
+      var fieldName = m_fields.get(fieldPos);
       if (fieldName != null) {
         res[fieldName] = m_newValues[fieldPos].toString();
       } // else branch should never happen: see the check in the ctor
@@ -249,14 +288,14 @@ class ItemUpdateBase extends AbstractItemUpdate {
   }
 
   function getFieldNameOrNullFromIdx(fieldIdx: Pos) {
-    return m_fields != null ? m_fields[fieldIdx] : null;
+    return m_fields != null ? m_fields.get(fieldIdx) : null;
   }
 
   function getFieldIdxFromName(fieldName: String): Pos {
     if (m_fields == null) {
       throw new IllegalStateException(NO_FIELDS);
     }
-    var fieldPos = findFirstIndex(m_fields, fieldName);
+    var fieldPos = m_fields.indexOf(fieldName);
     if (fieldPos == null) {
         throw new IllegalArgumentException(UNKNOWN_FIELD_NAME);
     }
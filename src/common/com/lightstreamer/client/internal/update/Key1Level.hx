@@ -15,7 +15,7 @@
  */
 package com.lightstreamer.client.internal.update;
 
-import com.lightstreamer.internal.Set;
+import com.lightstreamer.internal.FieldBitSet;
 import com.lightstreamer.internal.Types;
 import com.lightstreamer.internal.RLock;
 import com.lightstreamer.log.LoggerTools;
@@ -33,7 +33,7 @@ private  enum abstract State_m(Int) {
 class Key1Level implements ItemKey {
   final keyName: String;
   final item: ItemCommand1Level;
-  var currKeyValues: Null<Map<Pos, Null<CurrFieldVal>>>;
+  var currKeyValues: Null<FieldVector<Null<CurrFieldVal>>>;
   var s_m: State_m = s1;
   final lock: RLock;
   
@@ -48,7 +48,7 @@ class Key1Level implements ItemKey {
     item.unrelate(keyName);
   }
 
-  public function evtUpdate(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  public function evtUpdate(keyValues: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, snapshot: Bool) {
     traceEvent("update");
     switch s_m {
     case s1:
@@ -62,7 +62,7 @@ class Key1Level implements ItemKey {
       }
     case s2:
       if (!isDelete(keyValues)) {
-        doUpdate(keyValues, snapshot);
+        doUpdate(keyValues, prevItemValues, incomingValues, snapshot);
         goto(s2);
       } else {
         doDelete(keyValues, snapshot);
@@ -93,48 +93,49 @@ class Key1Level implements ItemKey {
     return currKeyValues != null ? currKeyValues[fieldIdx].toString() : null;
   }
 
-  function doFirstUpdate(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doFirstUpdate(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     var nFields = item.subscription.fetch_nFields().sure();
     var cmdIdx = item.subscription.getCommandPosition();
     currKeyValues = keyValues;
     currKeyValues[cmdIdx] = StringVal("ADD");
-    var changedFields = new Set(1...nFields + 1);
+    var changedFields = FieldBitSet.all(nFields);
     var update = new ItemUpdateBase(item.itemIdx, item.subscription, currKeyValues, changedFields, snapshot#if LS_JSON_PATCH, []#end);
     
     fireOnItemUpdate(update);
   }
 
-  function doUpdate(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doUpdate(keyValues: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, snapshot: Bool) {
     var cmdIdx = item.subscription.getCommandPosition();
     var prevKeyValues = currKeyValues;
     currKeyValues = keyValues;
     currKeyValues[cmdIdx] = StringVal("UPDATE");
-    var changedFields = findChangedFields(prevKeyValues, currKeyValues);
+    var changedFields = findChangedKeyFields(prevKeyValues, currKeyValues, prevItemValues, incomingValues, cmdIdx);
     var update = new ItemUpdateBase(item.itemIdx, item.subscription, currKeyValues, changedFields, snapshot#if LS_JSON_PATCH, []#end);
     
     fireOnItemUpdate(update);
   }
 
-  function doLightDelete(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doLightDelete(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     currKeyValues = null;
-    var changedFields = new Set(keyValues.keys());
+    var changedFields = FieldBitSet.all(keyValues.length);
     var update = new ItemUpdateBase(item.itemIdx, item.subscription, nullify(keyValues), changedFields, snapshot#if LS_JSON_PATCH, []#end);
     item.unrelate(keyName);
     
     fireOnItemUpdate(update);
   }
 
-  function doDelete(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doDelete(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     currKeyValues = null;
-    var changedFields = new Set(keyValues.keys()).subtracting([item.subscription.getKeyPosition()]);
+    var changedFields = FieldBitSet.all(keyValues.length);
+    changedFields.remove(item.subscription.getKeyPosition());
     var update = new ItemUpdateBase(item.itemIdx, item.subscription, nullify(keyValues), changedFields, snapshot#if LS_JSON_PATCH, []#end);
     item.unrelate(keyName);
     
     fireOnItemUpdate(update);
   }
 
-  function nullify(keyValues: Map<Pos, Null<CurrFieldVal>>): Map<Pos, Null<CurrFieldVal>> {
-    var values = new Map<Pos, Null<CurrFieldVal>>();
+  function nullify(keyValues: FieldVector<Null<CurrFieldVal>>): FieldVector<Null<CurrFieldVal>> {
+    var values: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(keyValues.length);
     for (p => val in keyValues) {
       var newVal = p == item.subscription.getCommandPosition() || p == item.subscription.getKeyPosition() ? val : null;
       values[p] = newVal;
@@ -142,7 +143,7 @@ class Key1Level implements ItemKey {
     return values;
   }
 
-  function isDelete(keyValues: Map<Pos, Null<CurrFieldVal>>): Bool {
+  function isDelete(keyValues: FieldVector<Null<CurrFieldVal>>): Bool {
     return keyValues[item.subscription.getCommandPosition()].toString() == "DELETE";
   }
 
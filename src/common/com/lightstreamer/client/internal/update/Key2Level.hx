@@ -15,7 +15,7 @@
  */
 package com.lightstreamer.client.internal.update;
 
-import com.lightstreamer.internal.Set;
+import com.lightstreamer.internal.FieldBitSet;
 import com.lightstreamer.client.internal.update.UpdateUtils;
 import com.lightstreamer.internal.Types;
 import com.lightstreamer.internal.NativeTypes.NativeArray;
@@ -37,7 +37,7 @@ private enum abstract State_m(Int) {
 class Key2Level implements ItemKey {
   final keyName: String;
   final item: ItemCommand2Level;
-  var currKeyValues: Null<Map<Pos, Null<CurrFieldVal>>>;
+  var currKeyValues: Null<FieldVector<Null<CurrFieldVal>>>;
   var currKey2Values: Null<Map<Pos, Null<String>>>;
   var listener2Level: Null<Sub2LevelDelegate>;
   var subscription2Level: Null<Subscription>;
@@ -57,7 +57,7 @@ class Key2Level implements ItemKey {
     item.unrelate(keyName);
   }
 
-  public function evtUpdate(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  public function evtUpdate(keyValues: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, snapshot: Bool) {
     traceEvent("update");
     switch s_m {
     case s1:
@@ -81,7 +81,7 @@ class Key2Level implements ItemKey {
       }
     case s3:
       if (!isDelete(keyValues)) {
-        doUpdate(keyValues, snapshot);
+        doUpdate(keyValues, prevItemValues, incomingValues, snapshot);
         goto(s3);
       } else {
         doDelete1LevelOnly(keyValues, snapshot);
@@ -91,7 +91,7 @@ class Key2Level implements ItemKey {
       }
     case s4:
       if (!isDelete(keyValues)) {
-        doUpdate(keyValues, snapshot);
+        doUpdate(keyValues, prevItemValues, incomingValues, snapshot);
         goto(s4);
       } else {
         doDelete(keyValues, snapshot);
@@ -101,7 +101,7 @@ class Key2Level implements ItemKey {
       }
     case s5:
       if (!isDelete(keyValues)) {
-        doUpdate1Level(keyValues, snapshot);
+        doUpdate1Level(keyValues, prevItemValues, incomingValues, snapshot);
         goto(s5);
       } else {
         doDeleteExt(keyValues, snapshot);
@@ -212,7 +212,7 @@ class Key2Level implements ItemKey {
     }
   }
 
-  function doFirstUpdate(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doFirstUpdate(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     var cmdIdx = item.subscription.getCommandPosition();
     currKeyValues = keyValues;
     currKeyValues[cmdIdx] = StringVal("ADD");
@@ -222,12 +222,12 @@ class Key2Level implements ItemKey {
     fireOnItemUpdate(update);
   }
 
-  function doUpdate(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doUpdate(keyValues: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, snapshot: Bool) {
     var cmdIdx = item.subscription.getCommandPosition();
     var prevKeyValues = currKeyValues;
     currKeyValues = keyValues;
     currKeyValues[cmdIdx] = StringVal("UPDATE");
-    var changedFields = findChangedFields(prevKeyValues, currKeyValues);
+    var changedFields = findChangedKeyFields(prevKeyValues, currKeyValues, prevItemValues, incomingValues, cmdIdx);
     var update = new ItemUpdate2Level(item.itemIdx, item.subscription, currKeyValues, changedFields, snapshot#if LS_JSON_PATCH, []#end);
     
     fireOnItemUpdate(update);
@@ -236,15 +236,17 @@ class Key2Level implements ItemKey {
   function doUpdate2Level(update: ItemUpdate) {
     var cmdIdx = item.subscription.getCommandPosition();
     var nFields = item.subscription.fetch_nFields().sure();
-    var prevKeyValues = currKeyValues.sure().copy();
-    @:nullSafety(Off)
-    currKeyValues[cmdIdx] = StringVal("UPDATE");
+    var prevKeyValues = currKeyValues.sure();
+    // NB the current values are shared with the updates already delivered, so they must be copied before being modified
+    var keyValues = prevKeyValues.copy();
+    keyValues[cmdIdx] = StringVal("UPDATE");
+    currKeyValues = keyValues;
     currKey2Values = getFieldsByPosition(update);
-    var extKeyValues = currKeyValues.sure().copy();
+    var extKeyValues = keyValues.copy();
     for (f => v in currKey2Values) {
       extKeyValues[f + nFields] = (v == null ? null : StringVal(v));
     }
-    var changedFields = new Set<Pos>();
+    var changedFields = new FieldBitSet(nFields);
     @:nullSafety(Off)
     if (prevKeyValues[cmdIdx].toString() != currKeyValues[cmdIdx].toString()) {
       changedFields.insert(cmdIdx);
@@ -267,7 +269,7 @@ class Key2Level implements ItemKey {
     fireOnItemUpdate(extUpdate);
   }
 
-  function doUpdate1Level(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doUpdate1Level(keyValues: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, snapshot: Bool) {
     var cmdIdx = item.subscription.getCommandPosition();
     var nFields = item.subscription.fetch_nFields().sure();
     var prevKeyValues = currKeyValues.sure();
@@ -277,27 +279,21 @@ class Key2Level implements ItemKey {
     for (f => v in currKey2Values.sure()) {
       extKeyValues[f + nFields] = (v == null ? null : StringVal(v));
     }
-    var changedFields = new Set<Pos>();
-    for (f in 1...nFields + 1) {
-      if (prevKeyValues[f].toString() != extKeyValues[f].toString()) {
-        changedFields.insert(f);
-      }
-    }
+    // NB the second-level fields are unchanged
+    var changedFields = findChangedKeyFields(prevKeyValues, currKeyValues.sure(), prevItemValues, incomingValues, cmdIdx);
     var extUpdate = new ItemUpdate2Level(item.itemIdx, item.subscription, extKeyValues, changedFields, snapshot#if LS_JSON_PATCH, []#end);
     
     fireOnItemUpdate(extUpdate);
   }
 
-  function doDelete(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doDelete(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     var n = item.subscription.fetch_nFields().sure();
     var keyIdx = item.subscription.getKeyPosition();
     var cmdIdx = item.subscription.getCommandPosition();
     currKeyValues = null;
-    var changedFields = new Set(1...n+1).subtracting([keyIdx]);
-    var extKeyValues = new Map<Pos, Null<CurrFieldVal>>();
-    for (f in 1...n+1) {
-      extKeyValues[f] = null;
-    }
+    var changedFields = FieldBitSet.all(n);
+    changedFields.remove(keyIdx);
+    var extKeyValues: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(n);
     extKeyValues[keyIdx] = StringVal(keyName);
     extKeyValues[cmdIdx] = StringVal("DELETE");
     var update = new ItemUpdate2Level(item.itemIdx, item.subscription, extKeyValues, changedFields, snapshot#if LS_JSON_PATCH, []#end);
@@ -314,18 +310,16 @@ class Key2Level implements ItemKey {
     fireOnItemUpdate(update);
   }
 
-  function doDeleteExt(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doDeleteExt(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     var nFields = item.subscription.fetch_nFields().sure();
     var keyIdx = item.subscription.getKeyPosition();
     var cmdIdx = item.subscription.getCommandPosition();
     var n = nFields + currKey2Values.sure().count();
     currKeyValues = null;
     currKey2Values = null;
-    var changedFields = new Set(1...n+1).subtracting([keyIdx]);
-    var extKeyValues = new Map<Pos, Null<CurrFieldVal>>();
-    for (f in 1...n+1) {
-      extKeyValues[f] = null;
-    }
+    var changedFields = FieldBitSet.all(n);
+    changedFields.remove(keyIdx);
+    var extKeyValues: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(n);
     extKeyValues[keyIdx] = StringVal(keyName);
     extKeyValues[cmdIdx] = StringVal("DELETE");
     var update = new ItemUpdate2Level(item.itemIdx, item.subscription, extKeyValues, changedFields, snapshot#if LS_JSON_PATCH, []#end);
@@ -342,16 +336,13 @@ class Key2Level implements ItemKey {
     fireOnItemUpdate(update);
   }
 
-  function doLightDelete(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doLightDelete(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     var nFields = item.subscription.fetch_nFields().sure();
     var keyIdx = item.subscription.getKeyPosition();
     var cmdIdx = item.subscription.getCommandPosition();
     currKeyValues = null;
-    var changedFields = new Set(1...nFields+1);
-    var values = new Map<Pos, Null<CurrFieldVal>>();
-    for (f in 1...nFields+1) {
-      values[f] = null;
-    }
+    var changedFields = FieldBitSet.all(nFields);
+    var values: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(nFields);
     values[keyIdx] = keyValues[keyIdx];
     values[cmdIdx] = keyValues[cmdIdx];
     var update = new ItemUpdate2Level(item.itemIdx, item.subscription, values, changedFields, snapshot#if LS_JSON_PATCH, []#end);
@@ -359,16 +350,14 @@ class Key2Level implements ItemKey {
     fireOnItemUpdate(update);
   }
 
-  function doDelete1LevelOnly(keyValues: Map<Pos, Null<CurrFieldVal>>, snapshot: Bool) {
+  function doDelete1LevelOnly(keyValues: FieldVector<Null<CurrFieldVal>>, snapshot: Bool) {
     var nFields = item.subscription.fetch_nFields().sure();
     var keyIdx = item.subscription.getKeyPosition();
     var cmdIdx = item.subscription.getCommandPosition();
     currKeyValues = null;
-    var changedFields = new Set(1...nFields+1).subtracting([keyIdx]);
-    var values = new Map<Pos, Null<CurrFieldVal>>();
-    for (f in 1...nFields+1) {
-      values[f] = null;
-    }
+    var changedFields = FieldBitSet.all(nFields);
+    changedFields.remove(keyIdx);
+    var values: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(nFields);
     values[keyIdx] = keyValues[keyIdx];
     values[cmdIdx] = keyValues[cmdIdx];
     var update = new ItemUpdate2Level(item.itemIdx, item.subscription, values, changedFields, snapshot#if LS_JSON_PATCH, []#end);
@@ -454,7 +443,7 @@ class Key2Level implements ItemKey {
     return sub2;
   }
 
-  function isDelete(keyValues: Map<Pos, Null<CurrFieldVal>>): Bool {
+  function isDelete(keyValues: FieldVector<Null<CurrFieldVal>>): Bool {
     return keyValues[item.subscription.getCommandPosition()].toString() == "DELETE";
   }
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.client.internal.update;
+
+import com.lightstreamer.internal.Types;
+import com.lightstreamer.log.LoggerTools;
+
+using com.lightstreamer.log.LoggerTools;
+
+/**
+ * Names of the items and of the fields of a subscription.
+ * 
+ * The schema is built once, when the subscription is subscribed, and it is shared by all the updates of the subscription.
+ */
+class UpdateSchema {
+  public final nFields: Int;
+  public final items: Null<NameTable>;
+  public final fields: Null<NameTable>;
+  /**
+   * Names of the second-level fields (only for two-level COMMAND subscriptions).
+   */
+  public final fields2: Null<NameTable>;
+
+  public function new(nFields: Int, items: Null<Array<String>>, fields: Null<Array<String>>, fields2: Null<Array<String>>) {
+    this.nFields = nFields;
+    this.items = items != null ? new NameTable(items) : null;
+    this.fields = fields != null ? new NameTable(fields) : null;
+    this.fields2 = fields2 != null ? new NameTable(fields2) : null;
+    if (fields != null && fields.length != nFields) {
+      subscriptionLogger.logError('Expected $nFields field names but got ${fields.length}: $fields');
+    }
+  }
+}
+
+/**
+ * Table of names indexed by position (starting from 1).
+ */
+class NameTable {
+  final names: Array<String>;
+  final positions = new Map<String, Pos>();
+
+  public function new(names: Array<String>) {
+    this.names = names.copy();
+    // NB when a name is repeated, the first position wins
+    for (i in 0...names.length) {
+      var name = names[i];
+      if (!positions.exists(name)) {
+        positions[name] = i + 1;
+      }
+    }
+  }
+
+  public function get(pos: Pos): Null<String> {
+    return 1 <= pos && pos <= names.length ? names[pos - 1] : null;
+  }
+
+  /**
+   * Returns the position of the name or null if the name is unknown.
+   */
+  public function indexOf(name: String): Null<Pos> {
+    return positions[name];
+  }
+
+  public function keyValueIterator(): KeyValueIterator<Pos, String> {
+    var i = 0;
+    return {
+      hasNext: () -> i < names.length,
+      next: () -> { var name = names[i++]; return {key: i, value: name}; }
+    };
+  }
+}
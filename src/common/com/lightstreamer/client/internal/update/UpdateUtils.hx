@@ -17,7 +17,7 @@ package com.lightstreamer.client.internal.update;
 
 import com.lightstreamer.internal.NativeTypes.IllegalStateException;
 import com.lightstreamer.internal.Types;
-import com.lightstreamer.internal.Set;
+import com.lightstreamer.internal.FieldBitSet;
 import com.lightstreamer.log.LoggerTools;
 
 using com.lightstreamer.log.LoggerTools;
@@ -28,10 +28,35 @@ using com.lightstreamer.internal.NullTools;
 enum CurrFieldVal {
   StringVal(string: String);
   #if LS_JSON_PATCH
-  JsonVal(json: com.lightstreamer.internal.patch.Json);
+  JsonVal(json: JsonFieldVal);
   #end
 }
 
+#if LS_JSON_PATCH
+/**
+ * JSON value of a field.
+ * Its serialized form is computed only when needed (e.g. when the user asks for the value of the field) and then cached.
+ */
+class JsonFieldVal {
+  public final json: com.lightstreamer.internal.patch.Json;
+  var serialized: Null<String>;
+
+  public function new(json: com.lightstreamer.internal.patch.Json) {
+    this.json = json;
+  }
+
+  public function toString(): String {
+    var str = serialized;
+    if (str == null) {
+      // NB the value is immutable, so a concurrent caller can at worst serialize it twice
+      str = json.toString();
+      serialized = str;
+    }
+    return str;
+  }
+}
+#end
+
 class CurrFieldValTools {
   public static function toString(val: Null<CurrFieldVal>): Null<String> {
     return switch val {
@@ -44,9 +69,32 @@ class CurrFieldValTools {
   }
 }
 
-function applyUpatesToCurrentFields(currentValues: Null<Map<Pos, Null<CurrFieldVal>>>, incomingValues: Map<Pos, FieldValue>): Map<Pos, Null<CurrFieldVal>> {
+#if (java && LS_JSON_PATCH)
+/**
+ * Returns the value of a field as a JSON tree.
+ * The values obtained by applying JSON patches are already trees, while the others must be parsed.
+ * NB the trees held by the library are copied, since they are the bases of the next patches and they may be shared by several updates.
+ */
+function toJsonNode(val: Null<CurrFieldVal>): Null<com.fasterxml.jackson.databind.JsonNode> {
+  switch val {
+  case null:
+    return null;
+  case JsonVal(json):
+    var node: com.fasterxml.jackson.databind.JsonNode = json.json;
+    return node.deepCopy();
+  case StringVal(str):
+    try {
+      return new com.lightstreamer.internal.patch.Json(str);
+    } catch(e) {
+      throw new IllegalStateException("The value of the field is not valid JSON");
+    }
+  }
+}
+#end
+
+function applyUpatesToCurrentFields(currentValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>): FieldVector<Null<CurrFieldVal>> {
   if (currentValues != null) {
-    var newValues = new Map<Pos, Null<CurrFieldVal>>();
+    var newValues: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(incomingValues.length);
     for (f => fieldValue in incomingValues) {
       switch fieldValue {
       case unchanged:
@@ -62,7 +110,7 @@ function applyUpatesToCurrentFields(currentValues: Null<Map<Pos, Null<CurrFieldV
         switch currentValues[f] {
         case JsonVal(json):
           try {
-            newValues[f] = JsonVal(json.apply(patch));
+            newValues[f] = JsonVal(new JsonFieldVal(json.json.apply(patch)));
           } catch(e) {
             sessionLogger.logErrorEx('${e.message}', e);
             throw new IllegalStateException('Cannot apply the JSON Patch to the field $f');
@@ -77,7 +125,7 @@ function applyUpatesToCurrentFields(currentValues: Null<Map<Pos, Null<CurrFieldV
             throw new IllegalStateException('Cannot convert the field $f to JSON');
           }
           try {
-            newValues[f] = JsonVal(json.sure().apply(patch));
+            newValues[f] = JsonVal(new JsonFieldVal(json.sure().apply(patch)));
           } catch(e) {
             sessionLogger.logErrorEx('${e.message}', e);
             throw new IllegalStateException('Cannot apply the JSON Patch to the field $f');
@@ -103,7 +151,7 @@ function applyUpatesToCurrentFields(currentValues: Null<Map<Pos, Null<CurrFieldV
     }
     return newValues;
   } else {
-    var newValues = new Map<Pos, Null<CurrFieldVal>>();
+    var newValues: FieldVector<Null<CurrFieldVal>> = FieldVector.ofSize(incomingValues.length);
     for (f => fieldValue in incomingValues) {
       switch fieldValue {
       case changed(var value):
@@ -128,26 +176,70 @@ function applyUpatesToCurrentFields(currentValues: Null<Map<Pos, Null<CurrFieldV
   }
 }
 
-function findChangedFields(prev: Null<Map<Pos, Null<CurrFieldVal>>>, curr: Map<Pos, Null<CurrFieldVal>>): Set<Pos> {
+/**
+ * Finds the fields changed by an update, looking at the incoming values, so that the fields left unchanged
+ * or changed by a JSON patch don't need to be compared (and, in the case of JSON, serialized).
+ * 
+ * NB a field changed by a non-empty JSON patch is deemed changed, even if the patch happens to leave the value as it was.
+ */
+function findChangedFieldsByIncomingValues(prev: Null<FieldVector<Null<CurrFieldVal>>>, curr: FieldVector<Null<CurrFieldVal>>, incomingValues: FieldVector<FieldValue>): FieldBitSet {
+  if (prev == null) {
+    return FieldBitSet.all(curr.length);
+  }
+  var changedFields = new FieldBitSet(curr.length);
+  for (f => fieldValue in incomingValues) {
+    switch fieldValue {
+    case unchanged:
+      // nothing to do
+    #if LS_JSON_PATCH
+    case jsonPatch(patch):
+      if (!patch.isEmpty()) {
+        changedFields.insert(f);
+      }
+    #end
+    case _:
+      if (prev[f].toString() != curr[f].toString()) {
+        changedFields.insert(f);
+      }
+    }
+  }
+  return changedFields;
+}
+
+/**
+ * Finds the fields of a key of a COMMAND item changed by an update.
+ * 
+ * NB the incoming values are relative to the previous values of the item, so they are looked at only if these are also
+ * the previous values of the key (i.e. the previous update of the item was for the same key); otherwise the values are compared.
+ * The command field is always compared, because the keys overwrite it.
+ */
+function findChangedKeyFields(prevKeyValues: Null<FieldVector<Null<CurrFieldVal>>>, currKeyValues: FieldVector<Null<CurrFieldVal>>, prevItemValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>, cmdIdx: Pos): FieldBitSet {
+  if (prevKeyValues == null || prevKeyValues != prevItemValues) {
+    return findChangedFields(prevKeyValues, currKeyValues);
+  }
+  var changedFields = findChangedFieldsByIncomingValues(prevKeyValues, currKeyValues, incomingValues);
+  if (prevKeyValues[cmdIdx].toString() != currKeyValues[cmdIdx].toString()) {
+    changedFields.insert(cmdIdx);
+  }
+  return changedFields;
+}
+
+function findChangedFields(prev: Null<FieldVector<Null<CurrFieldVal>>>, curr: FieldVector<Null<CurrFieldVal>>): FieldBitSet {
   if (prev != null) {
-    var changedFields = new Set<Pos>();
-    for (i => _ in curr) {
+    var changedFields = new FieldBitSet(curr.length);
+    for (i in curr.keys()) {
       if (prev[i].toString() != curr[i].toString()) {
         changedFields.insert(i);
       }
     }
     return changedFields;
   } else {
-    var changedFields = new Set<Pos>();
-    for (i => _ in curr) {
-      changedFields.insert(i);
-    }
-    return changedFields;
+    return FieldBitSet.all(curr.length);
   }
 }
 
 #if LS_JSON_PATCH
-function computeJsonPatches(currentValues: Null<Map<Pos, Null<CurrFieldVal>>>, incomingValues: Map<Pos, FieldValue>): Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch> {
+function computeJsonPatches(currentValues: Null<FieldVector<Null<CurrFieldVal>>>, incomingValues: FieldVector<FieldValue>): Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch> {
   if (currentValues != null) {
     var res: Map<Pos, com.lightstreamer.internal.patch.Json.JsonPatch> = [];
     for (f => value in incomingValues) {
@@ -169,26 +261,6 @@ function computeJsonPatches(currentValues: Null<Map<Pos, Null<CurrFieldVal>>>, i
 }
 #end
 
-function toMap(array: Null<Array<String>>): Null<Map<Pos, String>> {
-  if (array != null) {
-    var map = new Map<Pos, String>();
-    for (i => v in array) {
-      map[i + 1] = v;
-    }
-    return map;
-  }
-  return null;
-}
-
-function findFirstIndex(map: Map<Pos, String>, value: String): Null<Pos> {
-  for (i in 1...map.count()+1) {
-    if (map[i] == value) {
-      return i;
-    }
-  }
-  return null;
-}
-
 #if js
 function getFieldsByPosition(update: ItemUpdate): Map<Int, Null<String>> {
   var res: Map<Int, Null<String>> = [];
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import com.lightstreamer.log.LoggerTools;
+
+using com.lightstreamer.log.LoggerTools;
+
+/**
+ * Hands the events notified by the transports of a client (e.g. the lines received by a WebSocket)
+ * over to the session thread in batches.
+ * 
+ * Instead of submitting a task per event, the events are queued and a single task processes all the queued events
+ * under a single acquisition of the lock of the client. So a burst of events (e.g. the lines of a WebSocket frame)
+ * costs one task and one lock acquisition.
+ * 
+ * The events are processed in the order they are posted. A batch contains at most `maxBatchSize` events,
+ * so that a long burst does not delay the other tasks of the session thread (e.g. the timers or the API calls) for too long.
+ */
+class EventBatcher {
+  public static inline final DEFAULT_MAX_BATCH_SIZE = 64;
+
+  final executor: Executor;
+  final lock: RLock;
+  final maxBatchSize: Int;
+  final queueLock = new RLock();
+  var queue: Array<()->Void> = [];
+  var scheduled = false;
+
+  public function new(executor: Executor, lock: RLock, maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE) {
+    this.executor = executor;
+    this.lock = lock;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Queues an event, which will be run by the session thread while holding the lock of the client.
+   */
+  public function post(event: ()->Void) {
+    var mustSchedule = queueLock.synchronized(() -> {
+      queue.push(event);
+      if (scheduled) {
+        return false;
+      }
+      scheduled = true;
+      return true;
+    });
+    if (mustSchedule) {
+      executor.submit(drain);
+    }
+  }
+
+  function drain() {
+    var batch = queueLock.synchronized(() -> {
+      if (queue.length <= maxBatchSize) {
+        var batch = queue;
+        queue = [];
+        return batch;
+      }
+      return queue.splice(0, maxBatchSize);
+    });
+    lock.synchronized(() -> {
+      for (event in batch) {
+        try {
+          event();
+        } catch(e) {
+          internalLogger.logErrorEx("Uncaught exception", e);
+        }
+      }
+    });
+    var mustSchedule = queueLock.synchronized(() -> {
+      if (queue.length == 0) {
+        scheduled = false;
+        return false;
+      }
+      return true;
+    });
+    if (mustSchedule) {
+      // the rest of the events are processed after the tasks submitted in the meantime
+      executor.submit(drain);
+    }
+  }
+}
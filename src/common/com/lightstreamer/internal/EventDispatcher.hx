@@ -49,7 +49,14 @@ class EventDispatcher<T> {
   }
 
   function dispatchToOne(listener: T, func: T->Void) {
+    #if java
+    var userThread = UserThreads.instance.select(listener);
+    var submitTime = DispatchStats.onSubmit();
+    #end
     userThread.submit(() -> {
+      #if java
+      DispatchStats.onRun(submitTime);
+      #end
       try {
         func(listener);
       } catch(e) {
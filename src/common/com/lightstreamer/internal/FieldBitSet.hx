@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import haxe.ds.Vector;
+import com.lightstreamer.internal.Types.Pos;
+
+/**
+ * Set of field positions (starting from 1) backed by a bitmap.
+ * 
+ * Unlike `Set`, membership tests and insertions take constant time, and the positions are iterated in ascending order.
+ * NB the words are 32-bit wide, because it is the size of the integers on all the targets.
+ */
+class FieldBitSet {
+  var words: Vector<Int>;
+
+  /**
+   * Creates an empty set. The hint is the greatest position expected, but the set grows as needed.
+   */
+  public function new(nFields: Int = 31) {
+    words = newWords(nFields);
+  }
+
+  /**
+   * Creates a set containing the positions from 1 to `nFields`.
+   */
+  public static function all(nFields: Int): FieldBitSet {
+    var set = new FieldBitSet(nFields);
+    for (pos in 1...nFields + 1) {
+      set.insert(pos);
+    }
+    return set;
+  }
+
+  public function insert(pos: Pos): Void {
+    var i = pos >>> 5;
+    if (i >= words.length) {
+      grow(pos);
+    }
+    words[i] |= 1 << (pos & 31);
+  }
+
+  public function remove(pos: Pos): Void {
+    var i = pos >>> 5;
+    if (i < words.length) {
+      words[i] &= ~(1 << (pos & 31));
+    }
+  }
+
+  public function contains(pos: Pos): Bool {
+    var i = pos >>> 5;
+    return pos >= 0 && i < words.length && (words[i] & (1 << (pos & 31))) != 0;
+  }
+
+  public function count(): Int {
+    var n = 0;
+    for (i in 0...words.length) {
+      var w = words[i];
+      while (w != 0) {
+        w &= w - 1;
+        n++;
+      }
+    }
+    return n;
+  }
+
+  inline public function iterator(): FieldBitSetIterator {
+    return new FieldBitSetIterator(words);
+  }
+
+  public function toString(): String {
+    return "{" + [for (pos in this) pos].join(", ") + "}";
+  }
+
+  function grow(pos: Pos) {
+    var newWords = newWords(pos);
+    for (i in 0...words.length) {
+      newWords[i] = words[i];
+    }
+    words = newWords;
+  }
+
+  static function newWords(maxPos: Int): Vector<Int> {
+    var v = new Vector<Int>((maxPos >>> 5) + 1);
+    // NB on some targets the elements of a new vector are not initialized
+    for (i in 0...v.length) {
+      v[i] = 0;
+    }
+    return v;
+  }
+}
+
+class FieldBitSetIterator {
+  final words: Vector<Int>;
+  var wordIdx = 0;
+  var word: Int;
+
+  inline public function new(words: Vector<Int>) {
+    this.words = words;
+    this.word = words[0];
+  }
+
+  inline public function hasNext(): Bool {
+    while (word == 0 && wordIdx < words.length - 1) {
+      word = words[++wordIdx];
+    }
+    return word != 0;
+  }
+
+  inline public function next(): Pos {
+    var lowest = word & -word;
+    word ^= lowest;
+    var bit = 0;
+    while (lowest != 1) {
+      lowest >>>= 1;
+      bit++;
+    }
+    return (wordIdx << 5) + bit;
+  }
+}
@@ -19,6 +19,7 @@ import com.lightstreamer.client.ConnectionOptions;
 import com.lightstreamer.client.ConnectionDetails;
 import com.lightstreamer.client.LightstreamerClient.LSLightstreamerClient;
 import com.lightstreamer.internal.Types.Millis;
+import com.lightstreamer.internal.Timer.TimerDeadline;
 
 interface IHttpClient {
   function dispose(): Void;
@@ -92,6 +93,7 @@ interface IFactory {
     onDone: IHttpClient->Void): IHttpClient;
   public function createReachabilityManager(host: String): IReachability;  
   public function createTimer(id: String, delay: Millis, callback: ITimer->Void): ITimer;
+  public function createTimerDeadline(): TimerDeadline;
   public function randomMillis(max: Millis): Millis;
   public function createPageLifecycleFactory(onEvent: PageState -> Void): IPageLifecycle;
 }
@@ -99,10 +101,18 @@ interface IFactory {
 class Factory implements IFactory {
 	final connectionOptions: LSConnectionOptions;
   final connectionDetails: LSConnectionDetails;
+  #if java
+  final timerFactory: ITimerFactory;
+  final wsTraffic: WsTraffic;
+  #end
 
   public function new(client: LSLightstreamerClient) {
     this.connectionOptions = client.connectionOptions;
     this.connectionDetails = client.connectionDetails;
+    #if java
+    this.timerFactory = com.lightstreamer.internal.Threads.SessionThreads.instance.createTimerFactory(client.sessionThread);
+    this.wsTraffic = client.wsTraffic;
+    #end
   }
 
   public function createWsClient(url: String, headers: Null<Map<String, String>>, 
@@ -114,7 +124,8 @@ class Factory implements IFactory {
     var proxy = connectionOptions.getProxy();
     var trustManager = com.lightstreamer.internal.Globals.instance.getTrustManagerFactory();
     var certificates = connectionDetails.getCertificatePins();
-    return new com.lightstreamer.internal.WsClient(url, headers, proxy, trustManager, certificates, onOpen, onText, onError, onFatalError);
+    var compression = connectionOptions.isWebSocketCompressionEnabled();
+    return new com.lightstreamer.internal.WsClient(url, headers, proxy, trustManager, certificates, compression, wsTraffic, onOpen, onText, onError, onFatalError);
     #elseif cs
     var proxy = connectionOptions.getProxy();
     var trustManager = com.lightstreamer.internal.Globals.instance.getTrustManagerFactory();
@@ -174,9 +185,17 @@ class Factory implements IFactory {
   }
   
   public function createTimer(id: String, delay: Millis, callback: ITimer->Void): ITimer {
+    #if java
+    return timerFactory(id, delay, callback);
+    #else
     return new com.lightstreamer.internal.Timer(id, delay, callback);
+    #end
   }
   
+  public function createTimerDeadline(): TimerDeadline {
+    return new TimerDeadline();
+  }
+
   public function randomMillis(max: Millis): Millis {
     return new Millis(Std.random(max.toInt()));
   }
@@ -15,6 +15,11 @@
  */
 package com.lightstreamer.internal;
 
+import com.lightstreamer.internal.NativeTypes;
+#if java
+import com.lightstreamer.internal.Executor.VirtualThreads;
+#end
+
 private function createExecutor() {
   #if python
   // workaround for python: see issue https://github.com/HaxeFoundation/haxe/issues/10562
@@ -27,4 +32,241 @@ private function createExecutor() {
 }
 
 final userThread = createExecutor();
-final sessionThread = createExecutor();
\ No newline at end of file
+final sessionThread = createExecutor();
+
+#if java
+/**
+ * Assigns the executors running the session work of the clients.
+ * 
+ * By default all the clients share the global `sessionThread`. Alternatively the clients can be spread over
+ * a pool of single-threaded executors (each client is pinned to one of them, so the order of the events of a client is preserved)
+ * or they can run on an executor supplied by the user.
+ * On Java 21+ each client can also get a mailbox drained by virtual threads (see `Executor.newVirtual`),
+ * so that the clients neither share a thread nor need a platform thread each.
+ */
+@:build(com.lightstreamer.internal.Macros.synchronizeClass())
+class SessionThreads {
+  static public final instance = new SessionThreads();
+  var poolSize: Int = 1;
+  var userExecutor: Null<java.util.concurrent.ScheduledExecutorService>;
+  final pool: Array<Executor> = [];
+  var nextIdx: Int = 0;
+  var acquired: Bool = false;
+  var virtual: Bool = false;
+  @:volatile var timerWheel: Bool = false;
+  var maxBatchSize: Int = EventBatcher.DEFAULT_MAX_BATCH_SIZE;
+
+  function new() {}
+
+  public function setPoolSize(size: Int) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("value must be greater than zero");
+    }
+    checkNotAcquired();
+    poolSize = size;
+    userExecutor = null;
+    virtual = false;
+  }
+
+  public function setVirtual(enabled: Bool) {
+    if (enabled && !VirtualThreads.isSupported()) {
+      throw new java.lang.UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+    checkNotAcquired();
+    virtual = enabled;
+    if (enabled) {
+      userExecutor = null;
+    }
+  }
+
+  /**
+   * Makes the clients use the shared timing wheel (see `TimerWheel`) instead of the scheduler of their executor.
+   */
+  public function setTimerWheel(enabled: Bool) {
+    checkNotAcquired();
+    timerWheel = enabled;
+  }
+
+  /**
+   * Returns the timer service of a client whose events are run by the given executor:
+   * either the shared timing wheel or the scheduler of the executor.
+   */
+  @:unsynchronized
+  public function createTimerFactory(executor: Executor): PlatformApi.ITimerFactory {
+    if (timerWheel) {
+      return TimerWheel.shared().timerFactory(executor);
+    }
+    return (id, delay, callback) -> new Timer(id, delay, callback, executor);
+  }
+
+  /**
+   * Sets the maximum number of events of the transports that a client processes in a single task (see `EventBatcher`).
+   */
+  public function setMaxBatchSize(size: Int) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("value must be greater than zero");
+    }
+    checkNotAcquired();
+    maxBatchSize = size;
+  }
+
+  public function getMaxBatchSize(): Int {
+    return maxBatchSize;
+  }
+
+  public function setExecutor(executor: java.util.concurrent.ScheduledExecutorService) {
+    if (executor == null) {
+      throw new java.lang.NullPointerException("Expected a non-null ScheduledExecutorService");
+    }
+    checkNotAcquired();
+    userExecutor = executor;
+    virtual = false;
+  }
+
+  /**
+   * Returns the executor of a new client.
+   */
+  public function acquire(): Executor {
+    acquired = true;
+    if (virtual) {
+      return Executor.newVirtual();
+    }
+    var executor = userExecutor;
+    if (executor != null) {
+      return new Executor(executor);
+    }
+    if (poolSize == 1) {
+      return sessionThread;
+    }
+    if (pool.length < poolSize) {
+      pool.push(new Executor());
+      return pool[pool.length - 1];
+    }
+    var exec = pool[nextIdx];
+    nextIdx = (nextIdx + 1) % poolSize;
+    return exec;
+  }
+
+  /**
+   * Stops the executors created by the library. NB the executor supplied by the user is not stopped.
+   */
+  public function stop() {
+    for (exec in pool) {
+      exec.stop();
+    }
+    if (virtual) {
+      VirtualThreads.stop();
+    }
+    if (timerWheel) {
+      TimerWheel.stopShared();
+    }
+  }
+
+  function checkNotAcquired() {
+    if (acquired) {
+      throw new IllegalStateException("The session threads must be configured before creating any LightstreamerClient instance");
+    }
+  }
+}
+
+/**
+ * Assigns the executors delivering the events to the listeners.
+ * 
+ * By default all the events are delivered by the global `userThread`. Alternatively the events can be spread over
+ * a pool of single-threaded executors: each listener is pinned to one of them, so a listener receives its events
+ * in order and it is never invoked concurrently, while distinct listeners can run in parallel.
+ * On Java 21+ each listener can instead get its own mailbox drained by virtual threads (see `Executor.newVirtual`).
+ */
+@:build(com.lightstreamer.internal.Macros.synchronizeClass())
+class UserThreads {
+  static public final instance = new UserThreads();
+  @:volatile var pool: Null<java.NativeArray<Executor>>;
+  @:volatile var acquired: Bool = false;
+  /**
+   * The mailboxes of the listeners, when virtual threads are enabled.
+   * NB the keys are weak, so that the mailboxes of the discarded listeners can be collected.
+   */
+  @:volatile var mailboxes: Null<java.util.WeakHashMap<Any, Executor>>;
+
+  function new() {}
+
+  public function setVirtual(enabled: Bool) {
+    if (enabled && !VirtualThreads.isSupported()) {
+      throw new java.lang.UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+    checkNotAcquired();
+    mailboxes = enabled ? new java.util.WeakHashMap() : null;
+    if (enabled) {
+      pool = null;
+    }
+  }
+
+  public function setPoolSize(size: Int) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("value must be greater than zero");
+    }
+    checkNotAcquired();
+    mailboxes = null;
+    if (size == 1) {
+      pool = null;
+    } else {
+      var execs = new java.NativeArray<Executor>(size);
+      // NB the first stripe is the default user thread
+      execs[0] = userThread;
+      for (i in 1...size) {
+        execs[i] = new Executor();
+      }
+      pool = execs;
+    }
+  }
+
+  /**
+   * Returns the executor delivering the events to the given listener.
+   */
+  @:unsynchronized
+  public function select(listener: Any): Executor {
+    if (!acquired) {
+      // NB the flag is set under the lock, so that a concurrent configuration either fails or is seen by this selection
+      lock.synchronized(() -> acquired = true);
+    }
+    var boxes = mailboxes;
+    if (boxes != null) {
+      return lock.synchronized(() -> {
+        var exec = boxes.get(listener);
+        if (exec == null) {
+          exec = Executor.newVirtual();
+          boxes.put(listener, exec);
+        }
+        return exec;
+      });
+    }
+    var execs = pool;
+    if (execs == null) {
+      return userThread;
+    }
+    var hash = java.lang.System.identityHashCode(listener);
+    return execs[(hash & 0x7FFFFFFF) % execs.length];
+  }
+
+  /**
+   * Stops the executors of the pool but the default user thread.
+   */
+  public function stop() {
+    var execs = pool;
+    if (execs != null) {
+      for (i in 1...execs.length) {
+        execs[i].stop();
+      }
+    }
+    if (mailboxes != null) {
+      VirtualThreads.stop();
+    }
+  }
+
+  function checkNotAcquired() {
+    if (acquired) {
+      throw new IllegalStateException("The listener threads must be configured before adding any listener");
+    }
+  }
+}
+#end
@@ -76,4 +76,62 @@ abstract TimerStamp(Float) {
   }
 }
 
+/**
+ * The deadline of a timer that is postponed far more often than it expires (e.g. the keepalive timer,
+ * which is postponed whenever a message is received).
+ * 
+ * Postponing the timer only moves the deadline; when the timer expires, the owner checks the deadline
+ * and, if it has not been reached, schedules the timer again for the time left.
+ * So the timer is rescheduled at most once per interval, instead of once per postponement.
+ * 
+ * NB a deadline earlier than the expiration of the pending timer (e.g. because the interval has been shortened)
+ * can't be handled by moving the deadline: in that case `postpone` fails and the owner must reschedule the timer.
+ */
+class TimerDeadline {
+  final clock: ()->TimerStamp;
+  var deadline: TimerMillis;
+  var expiration: TimerMillis;
+
+  /**
+   * @param clock the source of the current time (by default `TimerStamp.now`)
+   */
+  public function new(?clock: ()->TimerStamp) {
+    this.clock = clock ?? () -> TimerStamp.now();
+    this.deadline = this.expiration = this.clock() + Millis.ZERO;
+  }
+
+  /**
+   * Records that a timer expiring after `delay` has been scheduled.
+   */
+  public function schedule(delay: Millis) {
+    this.deadline = this.expiration = clock() + delay;
+  }
+
+  /**
+   * Moves the deadline `delay` ahead of the current time.
+   * 
+   * Returns false, leaving the deadline unchanged, when the new deadline precedes the expiration of the pending timer:
+   * in that case the timer must be scheduled again.
+   */
+  public function postpone(delay: Millis): Bool {
+    var newDeadline = clock() + delay;
+    if (newDeadline < expiration) {
+      return false;
+    }
+    this.deadline = newDeadline;
+    return true;
+  }
+
+  /**
+   * The time left before the deadline, or zero if the deadline has been reached.
+   */
+  public function remaining(): Millis {
+    var left = deadline - (clock() + Millis.ZERO);
+    if (left > new TimerMillis(0)) {
+      return left;
+    }
+    return Millis.ZERO;
+  }
+}
+
 typedef Timer = TimerImpl;
@@ -22,8 +22,8 @@ import com.lightstreamer.internal.Executor.TaskHandle;
 class TimerImpl implements ITimer {
   final task: TaskHandle;
 
-  public function new(id: String, delay: Types.Millis, callback: ITimer->Void) {
-    task = sessionThread.schedule(() -> callback(this), delay);
+  public function new(id: String, delay: Types.Millis, callback: ITimer->Void, ?executor: Executor) {
+    task = (executor ?? sessionThread).schedule(() -> callback(this), delay);
   }
 
   inline public function cancel(): Void {
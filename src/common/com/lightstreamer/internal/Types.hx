@@ -32,6 +32,85 @@ enum FieldValue {
   #end
 }
 
+/**
+ * Values of the fields of an item, indexed by the field positions (starting from 1).
+ * 
+ * Since the positions of the fields are dense, the values are kept in an array instead of a `Map<Pos, T>`.
+ * Reading a position out of bounds returns null.
+ */
+abstract FieldVector<T>(Array<T>) {
+
+  inline public function new() {
+    this = [];
+  }
+
+  /**
+   * Creates a vector with the given number of fields, all set to null.
+   */
+  public static function ofSize<T>(size: Int): FieldVector<T> {
+    var values: Array<T> = [];
+    values.resize(size);
+    return cast values;
+  }
+
+  public var length(get, never): Int;
+
+  inline function get_length(): Int {
+    return this.length;
+  }
+
+  @:arrayAccess
+  inline public function get(pos: Pos): T {
+    return @:nullSafety(Off) (1 <= pos && pos <= this.length ? this[pos - 1] : null);
+  }
+
+  @:arrayAccess
+  inline public function set(pos: Pos, value: T): T {
+    return this[pos - 1] = value;
+  }
+
+  inline public function copy(): FieldVector<T> {
+    return cast this.copy();
+  }
+
+  /**
+   * Iterates over the positions of the fields.
+   */
+  inline public function keys(): IntIterator {
+    return 1...this.length + 1;
+  }
+
+  inline public function keyValueIterator(): FieldVectorIterator<T> {
+    return new FieldVectorIterator(this);
+  }
+
+  public function toMap(): Map<Pos, T> {
+    var map = new Map<Pos, T>();
+    for (i => v in this) {
+      map[i + 1] = v;
+    }
+    return map;
+  }
+}
+
+class FieldVectorIterator<T> {
+  final values: Array<T>;
+  var idx = 0;
+
+  inline public function new(values: Array<T>) {
+    this.values = values;
+  }
+
+  inline public function hasNext(): Bool {
+    return idx < values.length;
+  }
+
+  inline public function next(): {key: Pos, value: T} {
+    var value = values[idx++];
+    return {key: idx, value: value};
+  }
+}
+
 enum abstract ClientStatus(String) to String {
   var CONNECTING = "CONNECTING";
   var CONNECTED_STREAM_SENSING = "CONNECTED:STREAM-SENSING";
@@ -36,6 +36,10 @@ abstract JsonPatch(cs.system.Object) {
     this = JsonHelper.ParseJsonPatch(str);
   }
 
+  public function isEmpty(): Bool {
+    return JsonHelper.IsEmptyPatch(this);
+  }
+
   public function toString(): String {
     return JsonHelper.Stringify(this);
   }
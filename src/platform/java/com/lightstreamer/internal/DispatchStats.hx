@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+import com.lightstreamer.internal.NativeTypes.Long;
+
+/**
+ * Counts the callbacks dispatched to the listeners (see `EventDispatcher.dispatchToOne`), so that a slow listener 
+ * can be detected by the growth of the callbacks waiting to run and of the time they wait.
+ * 
+ * NB the counters are global, since the listener threads are shared among the LightstreamerClient instances.
+ */
+class DispatchStats {
+  static final queued = new LongAdder();
+  static final run = new LongAdder();
+  static final waitNanos = new LongAdder();
+
+  /**
+   * Returns the number of the callbacks submitted but not yet run.
+   */
+  public static function getQueueDepth(): Long {
+    return queued.sum() - run.sum();
+  }
+
+  /**
+   * Returns the number of the callbacks run so far.
+   */
+  public static function getRunCount(): Long {
+    return run.sum();
+  }
+
+  /**
+   * Returns the time, in nanoseconds, that the callbacks run so far waited between their submission and their run.
+   */
+  public static function getWaitNanos(): Long {
+    return waitNanos.sum();
+  }
+
+  /**
+   * Records the submission of a callback and returns the timestamp to pass to `onRun`.
+   */
+  inline public static function onSubmit(): Long {
+    queued.increment();
+    return java.lang.System.nanoTime();
+  }
+
+  inline public static function onRun(submitTime: Long) {
+    waitNanos.add(java.lang.System.nanoTime() - submitTime);
+    run.increment();
+  }
+}
@@ -17,23 +17,66 @@ package com.lightstreamer.internal;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.lang.Runnable;
+import com.lightstreamer.log.LoggerTools;
+using com.lightstreamer.log.LoggerTools;
 
 class Executor {
   final exec: ScheduledExecutorService;
+  /**
+   * Where the tasks are run. It is `exec` itself, unless the executor is backed by virtual threads:
+   * in that case `exec` is only used as a timer.
+   */
+  final runner: java.util.concurrent.Executor;
 
-  inline public function new() {
-    this.exec = Executors.newSingleThreadScheduledExecutor();
+  public function new(?exec: ScheduledExecutorService, ?runner: java.util.concurrent.Executor) {
+    this.exec = exec != null ? exec : newSingleThreadScheduledExecutor();
+    this.runner = runner != null ? runner : this.exec;
+  }
+
+  /**
+   * Creates an executor running its tasks one at a time, in order, each on a virtual thread.
+   * 
+   * The executor has no thread of its own: it is a mailbox drained by a virtual thread whenever it is not empty.
+   * Scheduled tasks are timed by a shared timer and then moved into the mailbox.
+   * 
+   * NB it requires Java 21+.
+   */
+  public static function newVirtual(): Executor {
+    return new Executor(VirtualThreads.timer(), new SerialExecutor(VirtualThreads.carrier()));
+  }
+
+  /**
+   * Like `Executors.newSingleThreadScheduledExecutor`, but the canceled tasks are removed from the queue right away.
+   * 
+   * NB otherwise the timers that are canceled before expiring (e.g. the control request timeouts)
+   * would stay in the queue until their expiration.
+   */
+  @:allow(com.lightstreamer.internal.VirtualThreads)
+  static function newSingleThreadScheduledExecutor(): ScheduledExecutorService {
+    var exec = new ScheduledThreadPoolExecutor(1);
+    exec.setRemoveOnCancelPolicy(true);
+    return exec;
   }
 
   inline public function submit(callback: ()->Void): Void {
-    exec.execute((cast callback: Runnable));
+    runner.execute((cast callback: Runnable));
   }
 
   public function schedule(callback: ()->Void, delay: Types.Millis): TaskHandle {
+    if (runner != exec) {
+      // NB the timer only moves the task into the mailbox, so the handle must be the task itself:
+      // otherwise a task canceled while waiting in the mailbox (e.g. behind the event that cancels it) would still run
+      var runner = this.runner;
+      var task = new MailboxTask((cast callback: Runnable));
+      task.timer = exec.schedule((cast () -> runner.execute(task): Runnable), delay, TimeUnit.MILLISECONDS);
+      return task;
+    }
     // workaround for issue https://github.com/HaxeFoundation/haxe/issues/11236
     if (callback is Runnable) {
       return exec.schedule((cast callback: Runnable), delay, TimeUnit.MILLISECONDS);
@@ -43,12 +86,147 @@ class Executor {
   }
 
   public function stop() {
+    if (runner != exec) {
+      // the shared resources of the virtual executors are released by `VirtualThreads.stop`
+      return;
+    }
     exec.shutdown();
     exec.awaitTermination(java.lang.Long.MAX_VALUE, TimeUnit.MILLISECONDS);
   }
 }
 
-abstract TaskHandle(ScheduledFuture) from ScheduledFuture {
+/**
+ * A scheduled task of an executor backed by virtual threads.
+ * 
+ * Canceling the task also cancels its timer; if the timer has already expired, the task is skipped when the mailbox reaches it.
+ */
+private class MailboxTask extends java.util.concurrent.FutureTask<Dynamic> {
+  @:volatile public var timer: Null<ScheduledFuture<Dynamic>>;
+
+  public function new(callback: Runnable) {
+    super(callback, null);
+  }
+
+  override public function cancel(mayInterruptIfRunning: Bool): Bool {
+    var timer = this.timer;
+    if (timer != null) {
+      timer.cancel(false);
+    }
+    return super.cancel(mayInterruptIfRunning);
+  }
+}
+
+/**
+ * Runs the submitted tasks sequentially on the carrier executor, without dedicating a thread to them.
+ */
+private class SerialExecutor implements java.util.concurrent.Executor implements Runnable {
+  final queue = new ConcurrentLinkedQueue<Runnable>();
+  final scheduled = new AtomicBoolean(false);
+  final carrier: java.util.concurrent.Executor;
+
+  public function new(carrier: java.util.concurrent.Executor) {
+    this.carrier = carrier;
+  }
+
+  public function execute(task: Runnable): Void {
+    queue.add(task);
+    trySchedule();
+  }
+
+  public function run(): Void {
+    var task = queue.poll();
+    while (task != null) {
+      try {
+        task.run();
+      } catch(e) {
+        internalLogger.logErrorEx("Uncaught exception", e);
+      }
+      task = queue.poll();
+    }
+    scheduled.set(false);
+    // a task may have been added after the last poll but before the flag was reset
+    if (!queue.isEmpty()) {
+      trySchedule();
+    }
+  }
+
+  function trySchedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      carrier.execute(this);
+    }
+  }
+}
+
+/**
+ * Shared resources of the executors backed by virtual threads.
+ * 
+ * NB virtual threads are obtained by reflection, so that the library can still be compiled and run on Java 8.
+ * 
+ * NB on Java 21-23 a virtual thread that blocks inside a `synchronized` block pins its carrier thread.
+ * The locks of the library (see `RLock`) are backed by a `ReentrantLock`, so a task waiting in `lock.synchronized`
+ * releases its carrier, but the `synchronized` blocks run by the listeners still pin it: if they block, 
+ * fewer carriers are left to all the virtual executors.
+ */
+class VirtualThreads {
+  static final lock = new RLock();
+  static var carrierExec: Null<java.util.concurrent.ExecutorService>;
+  static var timerExec: Null<ScheduledExecutorService>;
+
+  /**
+   * Tells whether the JVM supports virtual threads.
+   */
+  public static function isSupported(): Bool {
+    try {
+      java.lang.Class.forName("java.util.concurrent.Executors").getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch(e) {
+      return false;
+    }
+  }
+
+  public static function carrier(): java.util.concurrent.Executor {
+    return lock.synchronized(() -> {
+      var exec = carrierExec;
+      if (exec == null) {
+        var factory = java.lang.Class.forName("java.util.concurrent.Executors").getMethod("newVirtualThreadPerTaskExecutor");
+        exec = (cast factory.invoke(null): java.util.concurrent.ExecutorService);
+        carrierExec = exec;
+      }
+      return exec;
+    });
+  }
+
+  public static function timer(): ScheduledExecutorService {
+    return lock.synchronized(() -> {
+      var exec = timerExec;
+      if (exec == null) {
+        // NB the timer thread only moves the expired tasks into the mailboxes, so a platform thread is enough
+        exec = Executor.newSingleThreadScheduledExecutor();
+        timerExec = exec;
+      }
+      return exec;
+    });
+  }
+
+  public static function stop() {
+    lock.synchronized(() -> {
+      var timer = timerExec;
+      if (timer != null) {
+        timer.shutdown();
+        timer.awaitTermination(java.lang.Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        timerExec = null;
+      }
+      var exec = carrierExec;
+      if (exec != null) {
+        exec.shutdown();
+        exec.awaitTermination(java.lang.Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        carrierExec = null;
+      }
+    });
+  }
+}
+
+abstract TaskHandle(java.util.concurrent.Future<Dynamic>) from java.util.concurrent.Future<Dynamic> {
 
   inline public function cancel(): Void {
     this.cancel(false);
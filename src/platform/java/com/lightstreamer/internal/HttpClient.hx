@@ -18,12 +18,10 @@ package com.lightstreamer.internal;
 import com.lightstreamer.internal.PlatformApi.IHttpClient;
 import okhttp3.*;
 import com.lightstreamer.client.Proxy.LSProxy as Proxy;
-import com.lightstreamer.internal.NativeTypes.IllegalStateException;
-import com.lightstreamer.internal.MacroTools.assert;
 import com.lightstreamer.log.LoggerTools;
 using com.lightstreamer.log.LoggerTools;
 
-class HttpClient implements Callback implements Authenticator implements IHttpClient {
+class HttpClient implements Callback implements IHttpClient {
   static final TXT = MediaType.get("text/plain; charset=utf-8");
   // OkHttp performs best when you create a single OkHttpClient instance and reuse it for all of your HTTP calls 
   // (see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-ok-http-client/#okhttpclients-should-be-shared)
@@ -32,7 +30,6 @@ class HttpClient implements Callback implements Authenticator implements IHttpCl
   // (see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-ok-http-client/#shutdown-isnt-necessary)
   public static final client = new OkHttpClient();
   final call: Call;
-  final proxy: Null<Proxy>;
   final onText: (HttpClient, String)->Void;
   final onError: (HttpClient, String)->Void;
   final onDone: HttpClient->Void;
@@ -49,7 +46,6 @@ class HttpClient implements Callback implements Authenticator implements IHttpCl
     onFatalError: (HttpClient, Int, String)->Void,
     onDone: HttpClient->Void) {
     streamLogger.logDebug('HTTP sending: $url $body headers($headers) proxy($proxy) trustManager($trustManagerFactory) certificatePins($certificatePins)');
-    this.proxy = proxy;
     this.onText = onText;
     this.onError = onError;
     this.onFatalErrorCb = onFatalError;
@@ -63,46 +59,7 @@ class HttpClient implements Callback implements Authenticator implements IHttpCl
     }
     // set url and url body
     var request = reqBuilder.url(url).post(RequestBody.create(body, TXT)).build();
-    var clientBuilder = client.newBuilder();
-    // set cookies
-    var cookieHandler = CookieHelper.instance.getCookieHandler();
-    if (cookieHandler != null) {
-      clientBuilder.cookieJar(new JavaNetCookieJar(cookieHandler));
-    }
-    // set proxy
-    if (proxy != null) {
-      var inet = new java.net.InetSocketAddress(proxy.host, proxy.port);
-      var javaProxy = new java.net.Proxy(switch proxy.type {
-        case HTTP: java.net.Proxy.Proxy_Type.HTTP;
-        case SOCKS4 | SOCKS5: java.net.Proxy.Proxy_Type.SOCKS;
-      }, inet);
-      clientBuilder.proxy(javaProxy).proxyAuthenticator(@:nullSafety(Off) this);
-    }
-    // set trust manager
-    if (trustManagerFactory != null) {
-      // see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-ok-http-client/-builder/ssl-socket-factory/
-      var trustManagers = trustManagerFactory.getTrustManagers();
-      var x509TrustManager;
-      @:nullSafety(Off)
-      if (trustManagers.length != 1 || (x509TrustManager = Std.downcast(trustManagers[0], java.javax.net.ssl.X509TrustManager)) == null) {
-        throw new IllegalStateException("Unexpected default trust managers:" + java.util.Arrays.toString(trustManagers));
-      }
-      var sslContext = java.javax.net.ssl.SSLContext.getInstance("TLS");
-      @:nullSafety(Off)
-      sslContext.init(null, java.NativeArray.make((x509TrustManager:java.javax.net.ssl.TrustManager)), null);
-      var sslSocketFactory = sslContext.getSocketFactory();
-      clientBuilder.sslSocketFactory(sslSocketFactory, x509TrustManager);
-    }
-    // set certificate pins
-    if (certificatePins.length > 0) {
-      var hostname = new java.net.URL(url).getHost();
-      var certificatePinner = new CertificatePinner.CertificatePinner_Builder();
-      for (pin in certificatePins) {
-        certificatePinner.add(hostname, pin);
-      }
-      clientBuilder.certificatePinner(certificatePinner.build());
-    }
-    this.call = clientBuilder.build().newCall(request);
+    this.call = OkHttpClients.get(url, proxy, trustManagerFactory, certificatePins).newCall(request);
     call.enqueue(this);
   }
 
@@ -166,17 +123,4 @@ class HttpClient implements Callback implements Authenticator implements IHttpCl
     }
     response.close();
   }
-
-  // Authenticator.authenticate
-  public function authenticate(route: Null<Route>, response: Response): Null<Request> {
-    assert(proxy != null);
-    // see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-authenticator/
-    var user = proxy.user == null ? "" : proxy.user;
-    var password = proxy.password == null ? "" : proxy.password;
-    if (response.request().header("Proxy-Authorization") != null) {
-      return null; // Give up, we’ve already failed to authenticate
-    }
-    var credential = Credentials.basic(user, password);
-    return response.request().newBuilder().header("Proxy-Authorization", credential).build();
-  }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+/**
+ * Iterates over the non-empty lines of a WebSocket frame, which are separated by CRLF.
+ * 
+ * The lines are cut out of the frame in place, one at a time:
+ * splitting the frame would allocate an array and an empty trailing line for every frame.
+ */
+class LineIterator {
+  final frame: String;
+  var start = 0;
+  var end = 0;
+
+  public function new(frame: String) {
+    this.frame = frame;
+    seek();
+  }
+
+  public function hasNext(): Bool {
+    return start < frame.length;
+  }
+
+  public function next(): String {
+    var line = frame.substring(start, end);
+    start = end + 2;
+    seek();
+    return line;
+  }
+
+  /**
+   * Moves to the next non-empty line, if any.
+   */
+  function seek() {
+    var len = frame.length;
+    while (start < len) {
+      end = frame.indexOf("\r\n", start);
+      if (end == -1) {
+        end = len;
+      }
+      if (end > start) {
+        return;
+      }
+      start = end + 2;
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import okhttp3.*;
+import com.lightstreamer.client.Proxy.LSProxy as Proxy;
+import com.lightstreamer.internal.NativeTypes.IllegalStateException;
+import com.lightstreamer.log.LoggerTools;
+using com.lightstreamer.log.LoggerTools;
+
+/**
+ * Provides the OkHttp clients used by the transports (see `HttpClient` and `WsClient`).
+ * 
+ * A client is configured for a connection profile, i.e. a combination of proxy, trust manager, certificate pins
+ * and cookie handler, and it is reused by all the requests with the same profile, so that they share
+ * the connection pool and the TLS sessions instead of paying a new TLS context (and a full handshake) each time.
+ * 
+ * NB all the clients derive from `HttpClient.client`, so they also share its dispatcher and its threads.
+ */
+class OkHttpClients {
+  static final lock = new RLock();
+  /**
+   * The number of profiles kept in the cache. Usually an application needs a single profile,
+   * but the profile changes whenever the application sets a different proxy, trust manager and so on.
+   */
+  static inline final MAX_PROFILES = 16;
+  static final profiles: Array<ClientProfile> = [];
+
+  public static function get(url: String,
+    proxy: Null<Proxy>,
+    trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
+    certificatePins: Array<String>): OkHttpClient {
+    return lock.synchronized(() -> getProfile(url, proxy, trustManagerFactory, certificatePins).client);
+  }
+
+  /**
+   * Gets the client of the WebSocket connections, which derives from the client of the same profile,
+   * but counts the received bytes (see `WsTraffic`) and possibly does not offer the `permessage-deflate` compression.
+   * 
+   * NB the clients have a socket factory of their own, which keeps their connections apart from the ones of the HTTP requests.
+   * This costs nothing: OkHttp opens the WebSocket connections with HTTP/1.1 only, so they never match the pooled connections
+   * of the HTTP requests anyway, and a connection upgraded to WebSocket is never pooled. On the other hand, the TLS sessions
+   * are still shared, since they are cached by the SSL socket factory, which is the same.
+   */
+  public static function getWebSocket(url: String,
+    proxy: Null<Proxy>,
+    trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
+    certificatePins: Array<String>,
+    compression: Bool): OkHttpClient {
+    return lock.synchronized(() -> {
+      var profile = getProfile(url, proxy, trustManagerFactory, certificatePins);
+      var client = compression ? profile.wsClient : profile.wsPlainClient;
+      if (client == null) {
+        var clientBuilder = profile.client.newBuilder()
+          .socketFactory(WsTraffic.socketFactory)
+          .addNetworkInterceptor(WsTraffic.interceptor);
+        if (!compression) {
+          clientBuilder.addNetworkInterceptor(new NoCompressionInterceptor());
+        }
+        client = clientBuilder.build();
+        if (compression) {
+          profile.wsClient = client;
+        } else {
+          profile.wsPlainClient = client;
+        }
+      }
+      return client;
+    });
+  }
+
+  static function getProfile(url: String,
+    proxy: Null<Proxy>,
+    trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
+    certificatePins: Array<String>): ClientProfile {
+    var cookieHandler = CookieHelper.instance.getCookieHandler();
+    // NB the pins are bound to the host
+    var pinnedHost = certificatePins.length > 0 ? new java.net.URL(url).getHost() : null;
+    var key = certificatePins.join(" ");
+    for (p in profiles) {
+      if (p.sameAs(proxy, trustManagerFactory, key, pinnedHost, cookieHandler)) {
+        return p;
+      }
+    }
+    var client = build(proxy, trustManagerFactory, certificatePins, pinnedHost, cookieHandler);
+    var profile = new ClientProfile(proxy, trustManagerFactory, key, pinnedHost, cookieHandler, client);
+    profiles.push(profile);
+    if (profiles.length > MAX_PROFILES) {
+      profiles.shift();
+    }
+    streamLogger.logDebug('New HTTP client: proxy($proxy) trustManager($trustManagerFactory) certificatePins($certificatePins)');
+    return profile;
+  }
+
+  static function build(proxy: Null<Proxy>,
+    trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
+    certificatePins: Array<String>,
+    pinnedHost: Null<String>,
+    cookieHandler: Null<java.net.CookieHandler>): OkHttpClient {
+    var clientBuilder = HttpClient.client.newBuilder();
+    // set cookies
+    if (cookieHandler != null) {
+      clientBuilder.cookieJar(new JavaNetCookieJar(cookieHandler));
+    }
+    // set proxy
+    if (proxy != null) {
+      var inet = new java.net.InetSocketAddress(proxy.host, proxy.port);
+      var javaProxy = new java.net.Proxy(switch proxy.type {
+        case HTTP: java.net.Proxy.Proxy_Type.HTTP;
+        case SOCKS4 | SOCKS5: java.net.Proxy.Proxy_Type.SOCKS;
+      }, inet);
+      clientBuilder.proxy(javaProxy).proxyAuthenticator(new ProxyAuthenticator(proxy));
+    }
+    // set trust manager
+    if (trustManagerFactory != null) {
+      // see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-ok-http-client/-builder/ssl-socket-factory/
+      var trustManagers = trustManagerFactory.getTrustManagers();
+      var x509TrustManager;
+      @:nullSafety(Off)
+      if (trustManagers.length != 1 || (x509TrustManager = Std.downcast(trustManagers[0], java.javax.net.ssl.X509TrustManager)) == null) {
+        throw new IllegalStateException("Unexpected default trust managers:" + java.util.Arrays.toString(trustManagers));
+      }
+      var sslContext = java.javax.net.ssl.SSLContext.getInstance("TLS");
+      @:nullSafety(Off)
+      sslContext.init(null, java.NativeArray.make((x509TrustManager:java.javax.net.ssl.TrustManager)), null);
+      var sslSocketFactory = sslContext.getSocketFactory();
+      clientBuilder.sslSocketFactory(sslSocketFactory, x509TrustManager);
+    }
+    // set certificate pins
+    if (pinnedHost != null) {
+      var certificatePinner = new CertificatePinner.CertificatePinner_Builder();
+      for (pin in certificatePins) {
+        certificatePinner.add(pinnedHost, pin);
+      }
+      clientBuilder.certificatePinner(certificatePinner.build());
+    }
+    return clientBuilder.build();
+  }
+}
+
+private class ClientProfile {
+  final proxy: Null<Proxy>;
+  final trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>;
+  final certificatePins: String;
+  final pinnedHost: Null<String>;
+  final cookieHandler: Null<java.net.CookieHandler>;
+  public final client: OkHttpClient;
+  public var wsClient: Null<OkHttpClient>;
+  public var wsPlainClient: Null<OkHttpClient>;
+
+  public function new(proxy: Null<Proxy>,
+    trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
+    certificatePins: String,
+    pinnedHost: Null<String>,
+    cookieHandler: Null<java.net.CookieHandler>,
+    client: OkHttpClient) {
+    this.proxy = proxy;
+    this.trustManagerFactory = trustManagerFactory;
+    this.certificatePins = certificatePins;
+    this.pinnedHost = pinnedHost;
+    this.cookieHandler = cookieHandler;
+    this.client = client;
+  }
+
+  /**
+   * NB the trust manager and the cookie handler are compared by identity, since they are opaque objects supplied by the application.
+   */
+  public function sameAs(proxy: Null<Proxy>,
+    trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
+    certificatePins: String,
+    pinnedHost: Null<String>,
+    cookieHandler: Null<java.net.CookieHandler>): Bool {
+    return sameProxy(this.proxy, proxy)
+      && this.trustManagerFactory == trustManagerFactory
+      && this.certificatePins == certificatePins
+      && this.pinnedHost == pinnedHost
+      && this.cookieHandler == cookieHandler;
+  }
+
+  static function sameProxy(a: Null<Proxy>, b: Null<Proxy>): Bool {
+    if (a == null || b == null) {
+      return a == b;
+    }
+    return a.type == b.type && a.host == b.host && a.port == b.port && a.user == b.user && a.password == b.password;
+  }
+}
+
+/**
+ * Supplies the credentials of the proxy, when it asks for them.
+ */
+private class ProxyAuthenticator implements Authenticator {
+  final proxy: Proxy;
+
+  public function new(proxy: Proxy) {
+    this.proxy = proxy;
+  }
+
+  // Authenticator.authenticate
+  public function authenticate(route: Null<Route>, response: Response): Null<Request> {
+    // see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-authenticator/
+    var user = proxy.user == null ? "" : proxy.user;
+    var password = proxy.password == null ? "" : proxy.password;
+    if (response.request().header("Proxy-Authorization") != null) {
+      return null; // Give up, we’ve already failed to authenticate
+    }
+    var credential = Credentials.basic(user, password);
+    return response.request().newBuilder().header("Proxy-Authorization", credential).build();
+  }
+}
+
+/**
+ * Withdraws the offer of the `permessage-deflate` compression, which OkHttp adds to every WebSocket handshake.
+ * 
+ * NB OkHttp refuses the handshakes whose request already carries the `Sec-WebSocket-Extensions` header,
+ * so the header can only be removed on the network.
+ */
+private class NoCompressionInterceptor implements Interceptor {
+
+  public function new() {}
+
+  // Interceptor.intercept
+  public function intercept(chain: Interceptor.Interceptor_Chain): Response {
+    var request = chain.request().newBuilder().removeHeader("Sec-WebSocket-Extensions").build();
+    return chain.proceed(request);
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import java.lang.Runnable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import com.lightstreamer.internal.NativeTypes.Long;
+import com.lightstreamer.internal.PlatformApi.ITimer;
+import com.lightstreamer.internal.PlatformApi.ITimerFactory;
+import com.lightstreamer.log.LoggerTools;
+
+using com.lightstreamer.log.LoggerTools;
+
+/**
+ * A hashed timing wheel, i.e. a timer service where starting and canceling a timer cost O(1),
+ * at the price of a coarse resolution (the timers expire on the first tick after their deadline).
+ * 
+ * A single wheel is shared by all the clients (see `TimerWheel.shared`). Its thread only finds the expired timers:
+ * the callbacks are run by the executors of the clients which started the timers.
+ * 
+ * The buckets are owned by the thread of the wheel: the timers that are started or canceled are queued
+ * and moved into (or out of) the buckets at the next tick, so the callers never contend for a lock.
+ * When the wheel is empty, its thread is parked until a timer is started.
+ */
+class TimerWheel implements Runnable {
+  static final lock = new RLock();
+  static var instance: Null<TimerWheel>;
+
+  static inline final TICK_MILLIS = 10;
+  static inline final WHEEL_SIZE = 512;
+  static inline final MAX_TRANSFERS_PER_TICK = 100000;
+
+  final tickNanos: Long;
+  final buckets: java.NativeArray<WheelBucket>;
+  final started = new ConcurrentLinkedQueue<WheelTimer>();
+  final canceled = new ConcurrentLinkedQueue<WheelTimer>();
+  final startTime: Long;
+  final thread: java.lang.Thread;
+  var tick: Long = 0;
+  // the number of timers in the buckets (only accessed by the thread of the wheel)
+  var size = 0;
+  @:volatile var idle = false;
+  @:volatile var stopped = false;
+
+  /**
+   * The wheel shared by all the clients. It is created on first use.
+   */
+  public static function shared(): TimerWheel {
+    return lock.synchronized(() -> {
+      var wheel = instance;
+      if (wheel == null) {
+        wheel = new TimerWheel();
+        instance = wheel;
+      }
+      return wheel;
+    });
+  }
+
+  /**
+   * Stops the shared wheel, if any. The pending timers never expire.
+   */
+  public static function stopShared() {
+    lock.synchronized(() -> {
+      var wheel = instance;
+      if (wheel != null) {
+        wheel.stop();
+        instance = null;
+      }
+    });
+  }
+
+  function new(tickMillis: Int = TICK_MILLIS) {
+    tickNanos = tickMillis * 1000000;
+    buckets = new java.NativeArray(WHEEL_SIZE);
+    for (i in 0...WHEEL_SIZE) {
+      buckets[i] = new WheelBucket();
+    }
+    startTime = java.lang.System.nanoTime();
+    thread = new java.lang.Thread(this, "Lightstreamer timer wheel");
+    // NB the wheel only serves the session threads, which keep the JVM alive as long as they are needed
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * The timer service of a client whose events are run by the given executor.
+   */
+  public function timerFactory(executor: Executor): ITimerFactory {
+    return (id, delay, callback) -> newTimer(delay, callback, executor);
+  }
+
+  /**
+   * Starts a timer which, when expired, runs the callback on the given executor.
+   */
+  public function newTimer(delay: Types.Millis, callback: ITimer->Void, executor: Executor): ITimer {
+    var deadline: Long = java.lang.System.nanoTime() - startTime + (delay : Long) * 1000000;
+    var timer = new WheelTimer(this, deadline, callback, executor);
+    started.add(timer);
+    if (idle) {
+      LockSupport.unpark(thread);
+    }
+    return timer;
+  }
+
+  function stop() {
+    stopped = true;
+    LockSupport.unpark(thread);
+  }
+
+  @:allow(com.lightstreamer.internal)
+  function cancel(timer: WheelTimer) {
+    canceled.add(timer);
+  }
+
+  public function run() {
+    while (!stopped) {
+      if (size == 0 && started.isEmpty()) {
+        waitForTimers();
+      }
+      waitForNextTick();
+      if (stopped) {
+        break;
+      }
+      removeCanceled();
+      transferStarted();
+      var bucket = buckets[cast (tick % WHEEL_SIZE)];
+      size -= bucket.expire();
+      tick++;
+    }
+  }
+
+  /**
+   * Parks the thread until a timer is started.
+   */
+  function waitForTimers() {
+    removeCanceled();
+    idle = true;
+    // NB the queue is checked again after raising the flag, so that a timer started in the meantime is not missed
+    while (started.isEmpty() && !stopped) {
+      LockSupport.park(this);
+    }
+    idle = false;
+    // the wheel is empty, so the ticks elapsed in the meantime can be skipped
+    tick = (java.lang.System.nanoTime() - startTime) / tickNanos;
+  }
+
+  /**
+   * Sleeps until the end of the current tick.
+   */
+  function waitForNextTick() {
+    var deadline: Long = tickNanos * (tick + 1);
+    while (true) {
+      var now: Long = java.lang.System.nanoTime() - startTime;
+      var sleepMillis: Long = (deadline - now + 999999) / 1000000;
+      if (sleepMillis <= 0 || stopped) {
+        return;
+      }
+      try {
+        java.lang.Thread.sleep(sleepMillis);
+      } catch(e: java.lang.InterruptedException) {
+        // checks the deadline again
+      }
+    }
+  }
+
+  function removeCanceled() {
+    var timer = canceled.poll();
+    while (timer != null) {
+      var bucket = timer.bucket;
+      if (bucket != null) {
+        bucket.remove(timer);
+        size--;
+      }
+      timer = canceled.poll();
+    }
+  }
+
+  function transferStarted() {
+    // NB the transfers are bounded, so that a burst of timers cannot starve the expiration of the others
+    for (_ in 0...MAX_TRANSFERS_PER_TICK) {
+      var timer = started.poll();
+      if (timer == null) {
+        break;
+      }
+      if (timer.isCanceled()) {
+        continue;
+      }
+      var expiryTick: Long = timer.deadline / tickNanos;
+      timer.remainingRounds = (expiryTick - tick) / WHEEL_SIZE;
+      // a timer whose deadline is already past expires at the current tick
+      var targetTick: Long = expiryTick > tick ? expiryTick : tick;
+      buckets[cast (targetTick % WHEEL_SIZE)].add(timer);
+      size++;
+    }
+  }
+}
+
+@:allow(com.lightstreamer.internal)
+private class WheelTimer implements ITimer {
+  final wheel: TimerWheel;
+  final deadline: Long;
+  final callback: ITimer->Void;
+  final executor: Executor;
+  @:volatile var canceledFlag = false;
+  // the fields below are only accessed by the thread of the wheel
+  var remainingRounds: Long = 0;
+  var bucket: Null<WheelBucket>;
+  var prev: Null<WheelTimer>;
+  var next: Null<WheelTimer>;
+
+  function new(wheel: TimerWheel, deadline: Long, callback: ITimer->Void, executor: Executor) {
+    this.wheel = wheel;
+    this.deadline = deadline;
+    this.callback = callback;
+    this.executor = executor;
+  }
+
+  public function cancel(): Void {
+    if (!canceledFlag) {
+      canceledFlag = true;
+      wheel.cancel(this);
+    }
+  }
+
+  public function isCanceled(): Bool {
+    return canceledFlag;
+  }
+
+  function fire() {
+    executor.submit(() -> {
+      try {
+        callback(this);
+      } catch(e) {
+        internalLogger.logErrorEx("Uncaught exception", e);
+      }
+    });
+  }
+}
+
+/**
+ * A doubly linked list of timers, so that a canceled timer can be removed in O(1).
+ */
+@:allow(com.lightstreamer.internal)
+private class WheelBucket {
+  var head: Null<WheelTimer>;
+  var tail: Null<WheelTimer>;
+
+  function new() {}
+
+  function add(timer: WheelTimer) {
+    timer.bucket = this;
+    if (head == null) {
+      head = tail = timer;
+    } else {
+      @:nullSafety(Off) tail.next = timer;
+      timer.prev = tail;
+      tail = timer;
+    }
+  }
+
+  function remove(timer: WheelTimer) {
+    var next = timer.next;
+    var prev = timer.prev;
+    if (prev != null) {
+      prev.next = next;
+    } else {
+      head = next;
+    }
+    if (next != null) {
+      next.prev = prev;
+    } else {
+      tail = prev;
+    }
+    timer.prev = null;
+    timer.next = null;
+    timer.bucket = null;
+  }
+
+  /**
+   * Fires the timers whose deadline has been reached and returns how many timers have been removed.
+   */
+  function expire(): Int {
+    var expired = 0;
+    var timer = head;
+    while (timer != null) {
+      var next = timer.next;
+      if (timer.remainingRounds <= 0) {
+        // NB the timer is in the bucket of the tick of its deadline, so the deadline has been reached
+        remove(timer);
+        expired++;
+        if (!timer.isCanceled()) {
+          timer.fire();
+        }
+      } else {
+        timer.remainingRounds--;
+      }
+      timer = next;
+    }
+    return expired;
+  }
+}
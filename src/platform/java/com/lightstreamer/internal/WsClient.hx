@@ -18,36 +18,38 @@ package com.lightstreamer.internal;
 import com.lightstreamer.internal.PlatformApi.IWsClient;
 import okhttp3.*;
 import com.lightstreamer.client.Proxy.LSProxy as Proxy;
-import com.lightstreamer.internal.NativeTypes.IllegalStateException;
-import com.lightstreamer.internal.MacroTools.assert;
 import com.lightstreamer.log.LoggerTools;
 using com.lightstreamer.log.LoggerTools;
 
-class WsClient extends WebSocketListener implements Authenticator implements IWsClient {
+class WsClient extends WebSocketListener implements IWsClient {
   final ws: WebSocket;
-  final proxy: Null<Proxy>;
   final onOpenCb: WsClient->Void;
   final onTextCb: (WsClient, String)->Void;
   final onErrorCb: (WsClient, String)->Void;
   final onFatalErrorCb: (WsClient, Int, String)->Void;
+  final traffic: WsTraffic;
   @:volatile var isCanceled: Bool = false;
+  // the response to the handshake
+  @:volatile var handshake: Null<Response>;
 
   public function new(url: String,
     headers: Null<Map<String, String>>, 
     proxy: Null<Proxy>,
     trustManagerFactory: Null<java.javax.net.ssl.TrustManagerFactory>,
     certificatePins: Array<String>,
+    compression: Bool,
+    traffic: WsTraffic,
     onOpen: WsClient->Void,
     onText: (WsClient, String)->Void, 
     onError: (WsClient, String)->Void,
     onFatalError: (WsClient, Int, String)->Void) {
     super();
-    streamLogger.logDebug('WS connecting: $url headers($headers) proxy($proxy) trustManager($trustManagerFactory) certificatePins($certificatePins)');
-    this.proxy = proxy;
+    streamLogger.logDebug('WS connecting: $url headers($headers) proxy($proxy) trustManager($trustManagerFactory) certificatePins($certificatePins) compression($compression)');
     this.onOpenCb = onOpen;
     this.onTextCb = onText;
     this.onErrorCb = onError;
     this.onFatalErrorCb = onFatalError;
+    this.traffic = traffic;
     var reqBuilder = new Request.Request_Builder();
     // set headers
     if (headers != null) {
@@ -59,47 +61,10 @@ class WsClient extends WebSocketListener implements Authenticator implements IWs
     reqBuilder.header("Sec-WebSocket-Protocol", Constants.FULL_TLCP_VERSION);
     // set url
     reqBuilder.url(url);
+    // NB the tag binds the connection to the traffic counters of the client (see `WsTraffic.interceptor`)
+    reqBuilder.tag(traffic);
     var request = reqBuilder.build();
-    var clientBuilder = HttpClient.client.newBuilder();
-    // set cookies
-    var cookieHandler = CookieHelper.instance.getCookieHandler();
-    if (cookieHandler != null) {
-      clientBuilder.cookieJar(new JavaNetCookieJar(cookieHandler));
-    }
-    // set proxy
-    if (proxy != null) {
-      var inet = new java.net.InetSocketAddress(proxy.host, proxy.port);
-      var javaProxy = new java.net.Proxy(switch proxy.type {
-        case HTTP: java.net.Proxy.Proxy_Type.HTTP;
-        case SOCKS4 | SOCKS5: java.net.Proxy.Proxy_Type.SOCKS;
-      }, inet);
-      clientBuilder.proxy(javaProxy).proxyAuthenticator(@:nullSafety(Off) this);
-    }
-    // set trust manager
-    if (trustManagerFactory != null) {
-      // see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-ok-http-client/-builder/ssl-socket-factory/
-      var trustManagers = trustManagerFactory.getTrustManagers();
-      var x509TrustManager;
-      @:nullSafety(Off)
-      if (trustManagers.length != 1 || (x509TrustManager = Std.downcast(trustManagers[0], java.javax.net.ssl.X509TrustManager)) == null) {
-        throw new IllegalStateException("Unexpected default trust managers:" + java.util.Arrays.toString(trustManagers));
-      }
-      var sslContext = java.javax.net.ssl.SSLContext.getInstance("TLS");
-      @:nullSafety(Off)
-      sslContext.init(null, java.NativeArray.make((x509TrustManager:java.javax.net.ssl.TrustManager)), null);
-      var sslSocketFactory = sslContext.getSocketFactory();
-      clientBuilder.sslSocketFactory(sslSocketFactory, x509TrustManager);
-    }
-    // set certificate pins
-    if (certificatePins.length > 0) {
-      var hostname = new java.net.URL(url).getHost();
-      var certificatePinner = new CertificatePinner.CertificatePinner_Builder();
-      for (pin in certificatePins) {
-        certificatePinner.add(hostname, pin);
-      }
-      clientBuilder.certificatePinner(certificatePinner.build());
-    }
-    this.ws = clientBuilder.build().newWebSocket(request, this);
+    this.ws = OkHttpClients.getWebSocket(url, proxy, trustManagerFactory, certificatePins, compression).newWebSocket(request, this);
   }
 
   public function send(txt: String) {
@@ -133,6 +98,7 @@ class WsClient extends WebSocketListener implements Authenticator implements IWs
       return;
     }
     streamLogger.logDebug('WS event: open');
+    handshake = response;
     onOpenCb(this);
   }
 
@@ -141,11 +107,11 @@ class WsClient extends WebSocketListener implements Authenticator implements IWs
     if (isDisposed()) {
       return;
     }
-    for (line in text.split("\r\n")) {
+    traffic.addPayload(text);
+    for (line in new LineIterator(text)) {
       if (isDisposed()) {
         return;
       }
-      if (line == "") continue;
       streamLogger.logDebug('WS event: text($line)');
       onTextCb(this, line);
     }
@@ -177,17 +143,4 @@ class WsClient extends WebSocketListener implements Authenticator implements IWs
     onErrorCb(this, msg);
     webSocket.cancel();
   }
-
-  // Authenticator.authenticate
-  public function authenticate(route: Null<Route>, response: Response): Null<Request> {
-    assert(proxy != null);
-    // see https://square.github.io/okhttp/4.x/okhttp/okhttp3/-authenticator/
-    var user = proxy.user == null ? "" : proxy.user;
-    var password = proxy.password == null ? "" : proxy.password;
-    if (response.request().header("Proxy-Authorization") != null) {
-      return null; // Give up, we’ve already failed to authenticate
-    }
-    var credential = Credentials.basic(user, password);
-    return response.request().newBuilder().header("Proxy-Authorization", credential).build();
-  }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
+import com.lightstreamer.internal.NativeTypes.Long;
+
+/**
+ * Counts the traffic received by the WebSocket connections of a client, so that the effect of the `permessage-deflate` 
+ * compression can be assessed (see `ConnectionOptions.setWebSocketCompressionEnabled`).
+ * 
+ * The payload bytes are the UTF-8 bytes of the messages, once inflated. The wire bytes are counted on the sockets 
+ * created by `WsTraffic.socketFactory`, from the end of the handshake on: they are the compressed messages 
+ * along with their framing and, for secure connections, the overhead of the TLS records.
+ * 
+ * NB the sockets are bound to the clients by `WsTraffic.interceptor` when the handshake succeeds.
+ * Since a WebSocket connection is never reused, each socket counts for a single client.
+ */
+class WsTraffic {
+  /**
+   * The factory of the sockets of the WebSocket connections.
+   * 
+   * NB the sockets of the SOCKS proxies are created by OkHttp directly, hence their traffic is not counted.
+   */
+  public static final socketFactory: java.javax.net.SocketFactory = new CountingSocketFactory();
+  /**
+   * The network interceptor that binds the socket of a WebSocket handshake to the client which tagged the request.
+   */
+  public static final interceptor: okhttp3.Interceptor = new TrafficInterceptor();
+  /**
+   * The connected sockets, by address. NB the secure sockets are layered over these ones, and expose the same address.
+   */
+  static final sockets = new ConcurrentHashMap<String, CountingSocket>();
+
+  final wireBytes = new AtomicLong();
+  final payloadBytes = new AtomicLong();
+
+  public function new() {}
+
+  public function getWireBytes(): Long {
+    return wireBytes.get();
+  }
+
+  public function getPayloadBytes(): Long {
+    return payloadBytes.get();
+  }
+
+  public function addPayload(text: String) {
+    payloadBytes.addAndGet(utf8Length(text));
+  }
+
+  inline function addWire(bytes: Int) {
+    wireBytes.addAndGet(bytes);
+  }
+
+  static function utf8Length(text: String): Int {
+    var len = 0;
+    var i = 0;
+    var n = text.length;
+    while (i < n) {
+      var c = StringTools.fastCodeAt(text, i++);
+      if (c < 0x80) {
+        len += 1;
+      } else if (c < 0x800) {
+        len += 2;
+      } else if (c >= 0xD800 && c < 0xDC00 && i < n) {
+        // a surrogate pair
+        len += 4;
+        i++;
+      } else {
+        len += 3;
+      }
+    }
+    return len;
+  }
+
+  static function addressOf(socket: java.net.Socket): String {
+    return socket.getLocalPort() + " " + socket.getInetAddress() + " " + socket.getPort();
+  }
+
+  static function bind(socket: java.net.Socket, traffic: WsTraffic) {
+    var counting = sockets.get(addressOf(socket));
+    if (counting != null) {
+      counting.traffic = traffic;
+    }
+  }
+}
+
+@:access(com.lightstreamer.internal.WsTraffic)
+private class TrafficInterceptor implements okhttp3.Interceptor {
+
+  public function new() {}
+
+  // Interceptor.intercept
+  public function intercept(chain: okhttp3.Interceptor.Interceptor_Chain): okhttp3.Response {
+    var request = chain.request();
+    var response = chain.proceed(request);
+    var tag = request.tag();
+    var connection = chain.connection();
+    // NB 101 means that the handshake has succeeded, so the next bytes are WebSocket frames
+    if (response.code() == 101 && tag is WsTraffic && connection != null) {
+      WsTraffic.bind(connection.socket(), cast tag);
+    }
+    return response;
+  }
+}
+
+private class CountingSocketFactory extends java.javax.net.SocketFactory {
+
+  public function new() {
+    super();
+  }
+
+  // NB OkHttp only uses the unconnected variant
+  override public overload function createSocket(): java.net.Socket {
+    return new CountingSocket();
+  }
+
+  override public overload function createSocket(host: String, port: Int): java.net.Socket {
+    var socket = new CountingSocket();
+    socket.connect(new java.net.InetSocketAddress(host, port));
+    return socket;
+  }
+
+  override public overload function createSocket(host: String, port: Int, localHost: java.net.InetAddress, localPort: Int): java.net.Socket {
+    var socket = new CountingSocket();
+    socket.bind(new java.net.InetSocketAddress(localHost, localPort));
+    socket.connect(new java.net.InetSocketAddress(host, port));
+    return socket;
+  }
+
+  override public overload function createSocket(address: java.net.InetAddress, port: Int): java.net.Socket {
+    var socket = new CountingSocket();
+    socket.connect(new java.net.InetSocketAddress(address, port));
+    return socket;
+  }
+
+  override public overload function createSocket(address: java.net.InetAddress, port: Int, localAddress: java.net.InetAddress, localPort: Int): java.net.Socket {
+    var socket = new CountingSocket();
+    socket.bind(new java.net.InetSocketAddress(localAddress, localPort));
+    socket.connect(new java.net.InetSocketAddress(address, port));
+    return socket;
+  }
+}
+
+@:access(com.lightstreamer.internal.WsTraffic)
+private class CountingSocket extends java.net.Socket {
+  var input: Null<java.io.InputStream>;
+  var address: Null<String>;
+  // the client which the traffic counts for, once the handshake has succeeded
+  @:volatile public var traffic: Null<WsTraffic>;
+
+  public function new() {
+    super();
+  }
+
+  override public overload function connect(endpoint: java.net.SocketAddress, timeout: Int) {
+    super.connect(endpoint, timeout);
+    var address = this.address = WsTraffic.addressOf(this);
+    WsTraffic.sockets.put(address, this);
+  }
+
+  override public function close() {
+    var address = this.address;
+    if (address != null) {
+      WsTraffic.sockets.remove(address, this);
+    }
+    super.close();
+  }
+
+  override public function getInputStream(): java.io.InputStream {
+    var input = this.input;
+    if (input == null) {
+      input = this.input = new CountingInputStream(this, super.getInputStream());
+    }
+    return input;
+  }
+}
+
+@:access(com.lightstreamer.internal.WsTraffic)
+private class CountingInputStream extends java.io.FilterInputStream {
+  final socket: CountingSocket;
+
+  public function new(socket: CountingSocket, input: java.io.InputStream) {
+    super(input);
+    this.socket = socket;
+  }
+
+  override public overload function read(): Int {
+    var b = super.read();
+    var traffic = socket.traffic;
+    if (b != -1 && traffic != null) {
+      traffic.addWire(1);
+    }
+    return b;
+  }
+
+  override public overload function read(b: java.NativeArray<java.StdTypes.Int8>, off: Int, len: Int): Int {
+    var n = super.read(b, off, len);
+    var traffic = socket.traffic;
+    if (n > 0 && traffic != null) {
+      traffic.addWire(n);
+    }
+    return n;
+  }
+}
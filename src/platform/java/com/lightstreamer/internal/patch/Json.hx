@@ -30,6 +30,13 @@ abstract Json(JsonNode) to JsonNode from JsonNode {
     return com.flipkart.zjsonpatch.JsonPatch.apply(patch, this);
   }
 
+  /**
+   * Tells whether the value is an empty array, i.e. an empty patch.
+   */
+  public function isEmpty(): Bool {
+    return this.isArray() && this.size() == 0;
+  }
+
   public function toString(): String {
     return mapper.writeValueAsString(this);
   }
@@ -27,6 +27,13 @@ abstract Json(Dynamic) {
     return JsonPatcher.apply_patch(this, patch);
   }
 
+  /**
+   * Tells whether the value is an empty array, i.e. an empty patch.
+   */
+  public function isEmpty(): Bool {
+    return Std.isOfType(this, Array) && this.length == 0;
+  }
+
   public function toString(): String {
     return haxe.Json.stringify(this);
   }
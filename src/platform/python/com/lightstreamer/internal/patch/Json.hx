@@ -24,6 +24,13 @@ abstract Json(Dynamic) {
     return JsonPatcher.apply_patch(this, patch);
   }
 
+  /**
+   * Tells whether the value is an empty array, i.e. an empty patch.
+   */
+  public function isEmpty(): Bool {
+    return python.Syntax.code("isinstance({0}, list) and len({0}) == 0", this);
+  }
+
   public function toString(): String {
     // NB python_lib_Json was imported by `python.lib.Json.loads` in ctor
     return python.Syntax.code("python_lib_Json.dumps({0}, separators=(',', ':'))", this);
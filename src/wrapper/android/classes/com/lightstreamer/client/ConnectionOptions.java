@@ -249,6 +249,35 @@ public class ConnectionOptions {
   public boolean isSlowingEnabled() {
     return delegate.isSlowingEnabled();
   }
+  /**
+   * Inquiry method that checks if the client offers the Server the compression of the WebSocket messages.
+   *
+   * @return Whether the compression of the WebSocket messages is offered or not.
+   * @see #setWebSocketCompressionEnabled(boolean)
+   */
+  public boolean isWebSocketCompressionEnabled() {
+    return delegate.isWebSocketCompressionEnabled();
+  }
+  /**
+   * Inquiry method that gets the maximum number of control requests that can be in flight at the same time
+   * when an HTTP transport is in use.
+   *
+   * @return The maximum number of concurrent control requests.
+   * @see #setMaxConcurrentControlRequests(int)
+   */
+  public int getMaxConcurrentControlRequests() {
+    return delegate.getMaxConcurrentControlRequests();
+  }
+  /**
+   * Inquiry method that gets the time the client waits in order to group the messages to be sent
+   * on a WebSocket transport.
+   *
+   * @return The linger time (in milliseconds) of the messages.
+   * @see #setMessageLingerMillis(long)
+   */
+  public long getMessageLingerMillis() {
+    return delegate.getMessageLingerMillis();
+  }
   /**
    * Setter method that sets the length in bytes to be used by the Server for the response body on a stream connection 
    * (a minimum length, however, is ensured by the server). After the content length exhaustion, the connection will
@@ -694,6 +723,83 @@ public class ConnectionOptions {
   public void setSlowingEnabled(boolean slowingEnabled) {
     delegate.setSlowingEnabled(slowingEnabled);
   }
+  /**
+   * Setter method that turns on or off the offer of the "permessage-deflate" extension (RFC 7692) in the WebSocket 
+   * handshake. If the Server (or an intermediary) accepts the extension, the WebSocket messages are compressed. <BR>
+   * As the update streams are mostly repetitive text, the compression usually shrinks them considerably, which 
+   * increases the update throughput on thin links, at the cost of some CPU time on both sides. Turning the 
+   * compression off may be preferable when the client is CPU-bound or the network bandwidth is plentiful. <BR>
+   * The traffic received by the WebSocket connections, before and after the decompression, is reported by 
+   * {@link LightstreamerClient#getWebSocketWireBytes()} and {@link LightstreamerClient#getWebSocketPayloadBytes()}.
+   * 
+   * @default true.
+   * 
+   * @lifecycle This method can be called at any time. If called while connected, it will be applied when the 
+   * next WebSocket connection is opened.
+   * 
+   * @notification A change to this setting will be notified through a call to 
+   * {@link ClientListener#onPropertyChange} with argument "webSocketCompressionEnabled" on any 
+   * ClientListener listening to the related LightstreamerClient.
+   * 
+   * @param webSocketCompressionEnabled true or false, to offer or not the compression of the WebSocket messages.
+   */
+  public void setWebSocketCompressionEnabled(boolean webSocketCompressionEnabled) {
+    delegate.setWebSocketCompressionEnabled(webSocketCompressionEnabled);
+  }
+  /**
+   * Setter method that sets the maximum number of control requests (e.g. subscription and unsubscription requests)
+   * that can be in flight at the same time when an HTTP transport (HTTP-STREAMING or HTTP-POLLING) is in use. <BR>
+   * The pending requests are always grouped together, but each control request cannot exceed the request limit
+   * established by the Server. With the default value, when the pending requests exceed the limit, they are sent 
+   * one group after the other, each after the response to the previous one. With a higher value, up to the given 
+   * number of groups are sent in parallel; this is worthwhile when the Server (or an intermediary) supports HTTP/2, 
+   * so that the concurrent requests share a single connection and many subscription changes complete in a single 
+   * round trip. On the other hand, on HTTP/1.1 each concurrent request requires a connection of its own. <BR>
+   * Note that the messages (see {@link LightstreamerClient#sendMessage}) are still sent one request at a time, 
+   * in order not to reorder them. The setting has no effect on the WebSocket transports.
+   * 
+   * @default 1.
+   * 
+   * @lifecycle This method can be called at any time. The supplied value will be used the next time the pending
+   * control requests are sent.
+   * 
+   * @notification A change to this setting will be notified through a call to 
+   * {@link ClientListener#onPropertyChange} with argument "maxConcurrentControlRequests" on any 
+   * ClientListener listening to the related LightstreamerClient.
+   * 
+   * @param maxConcurrentControlRequests The maximum number of concurrent control requests.
+   * 
+   * @throws IllegalArgumentException if a negative or zero value is configured
+   */
+  public void setMaxConcurrentControlRequests(int maxConcurrentControlRequests) {
+    delegate.setMaxConcurrentControlRequests(maxConcurrentControlRequests);
+  }
+  /**
+   * Setter method that sets the time (in milliseconds) the client waits, after a message is issued through 
+   * {@link LightstreamerClient#sendMessage}, before sending it, so that the other messages issued in the meantime 
+   * can be sent along with it. <BR>
+   * The messages collected in this interval are grouped into WebSocket frames, each not exceeding the request limit 
+   * established by the Server. When many small messages are sent in a burst, this reduces the number of frames and 
+   * the related overhead, at the cost of a delay of up to the configured time on the delivery of each message. <BR>
+   * With the default value, each message is sent as soon as possible. The setting has no effect on the HTTP 
+   * transports, where the messages are already grouped in the control requests.
+   * 
+   * @default 0 (i.e. no linger).
+   * 
+   * @lifecycle This method can be called at any time. The supplied value will be used for the next message
+   * that is not already waiting to be sent.
+   * 
+   * @notification A change to this setting will be notified through a call to 
+   * {@link ClientListener#onPropertyChange} with argument "messageLingerMillis" on any 
+   * ClientListener listening to the related LightstreamerClient.
+   * 
+   * @param messageLingerMillis The linger time (in milliseconds) of the messages.
+   * 
+   * @throws IllegalArgumentException if a negative value is configured
+   */
+  public void setMessageLingerMillis(long messageLingerMillis) {
+    delegate.setMessageLingerMillis(messageLingerMillis);
+  }
   /**
    * Setter method that sets the extra time the client is allowed to wait when an expected keepalive packet has not been 
    * received on a stream connection (and no actual data has arrived), before entering the "STALLED" status.
@@ -303,6 +303,56 @@ public class LightstreamerClient {
     delegate.unsubscribe(subscription.delegate);
   }
   
+  /**
+   * Operation method that adds several Subscriptions to the list of "active" Subscriptions at once. <BR>
+   * The effect is the same as calling {@link #subscribe(Subscription)} for each Subscription, in iteration order,
+   * but the related requests are forwarded to the server together, grouped in as few requests as possible,
+   * rather than one by one. This makes a difference when thousands of Subscriptions are activated together.
+   * 
+   * @lifecycle Subscriptions can be given to the LightstreamerClient at any time. All the Subscriptions are checked
+   * before any of them is activated: if one of them cannot be activated (see {@link #subscribe(Subscription)}), 
+   * the method throws the related exception and none of the Subscriptions is activated.
+   * 
+   * @param subscriptions A collection of Subscription objects, none of which can be already "active".
+   * 
+   * @throws IllegalStateException if one of the Subscriptions is already "active" or appears more than once.
+   * @throws IllegalArgumentException if one of the Subscriptions lacks its items or its fields.
+   * 
+   * @see #unsubscribeAll(Collection)
+   */
+  public void subscribeAll(@Nonnull final Collection<Subscription> subscriptions) {
+    delegate.subscribeAll(toDelegates(subscriptions));
+  }
+  
+  /**
+   * Operation method that removes several Subscriptions that are currently in the "active" state at once. <BR>
+   * The effect is the same as calling {@link #unsubscribe(Subscription)} for each Subscription, in iteration order,
+   * but the related requests are forwarded to the server together, grouped in as few requests as possible,
+   * rather than one by one.
+   * 
+   * @lifecycle Subscriptions can be unsubscribed from at any time. All the Subscriptions are checked before any of 
+   * them is unsubscribed: if one of them was activated by another LightstreamerClient instance, the method throws 
+   * the related exception and none of the Subscriptions is unsubscribed.
+   * 
+   * @param subscriptions A collection of "active" Subscription objects that were activated by this 
+   * LightstreamerClient instance.
+   * 
+   * @throws IllegalArgumentException if one of the Subscriptions was activated by another LightstreamerClient instance.
+   * 
+   * @see #subscribeAll(Collection)
+   */
+  public void unsubscribeAll(@Nonnull final Collection<Subscription> subscriptions) {
+    delegate.unsubscribeAll(toDelegates(subscriptions));
+  }
+  
+  private static List<LSSubscription> toDelegates(Collection<Subscription> subscriptions) {
+    List<LSSubscription> delegates = new ArrayList<>(subscriptions.size());
+    for (Subscription subscription : subscriptions) {
+      delegates.add(subscription.delegate);
+    }
+    return delegates;
+  }
+  
   /**
    * Inquiry method that returns a list containing all the Subscription instances that are 
    * currently "active" on this LightstreamerClient. <BR>
@@ -405,6 +455,79 @@ public class LightstreamerClient {
     delegate.sendMessage(message, sequence, delayTimeout, listener, enqueueWhileDisconnected);
   }
 
+  /**
+   * A simplified version of the {@link #sendMessages(Collection,String,int,ClientMessageListener,boolean)}.
+   * The internal implementation will call
+   * <code>
+   *   sendMessages(messages,null,-1,null,false);
+   * </code>
+   * Note that this invocation involves no sequence and no listener, hence an optimized
+   * fire-and-forget behavior will be applied.
+   * 
+   * @param messages a collection of text messages, whose interpretation is entirely demanded to the Metadata Adapter
+   * associated to the current connection.
+   */
+  public void sendMessages(@Nonnull Collection<String> messages) {
+    delegate.sendMessages(new ArrayList<>(messages), null, -1, null, false);
+  }
+
+  /**
+   * Operation method that sends several messages to the Server at once. <BR>
+   * The effect is the same as calling {@link #sendMessage(String,String,int,ClientMessageListener,boolean)} for each 
+   * message, in iteration order, with the same sequence, timeout, listener and flag, but the messages are forwarded 
+   * to the server together, grouped in as few requests as possible, rather than one by one. This makes a difference 
+   * when thousands of messages are sent together, for instance when a backlog of messages is replayed after a reconnection.
+   * 
+   * @lifecycle See {@link #sendMessage(String,String,int,ClientMessageListener,boolean)}. The sequence identifier is 
+   * checked before any message is sent: if it is not valid, the method throws the related exception and no message 
+   * is sent.
+   * 
+   * @param messages a collection of text messages, whose interpretation is entirely demanded to the Metadata Adapter
+   * associated to the current connection.
+   * @param sequence an alphanumeric identifier, used to identify a subset of messages to be managed in sequence; 
+   * underscore characters are also allowed. The messages are assigned to the sequence in iteration order. 
+   * The parameter is optional; if set to null, "UNORDERED_MESSAGES" is used as the sequence name. 
+   * @param delayTimeout a timeout, expressed in milliseconds, which applies to each message 
+   * (see {@link #sendMessage(String,String,int,ClientMessageListener,boolean)}).
+   * @param listener an object suitable for receiving notifications about the processing outcome of each message.
+   * The parameter is optional; if not supplied, no notification will be available.
+   * @param enqueueWhileDisconnected if this flag is set to true, and the client is in a disconnected status when
+   * the provided messages are handled, then the messages are not aborted right away but are queued waiting for a new
+   * session.
+   * 
+   * @throws IllegalArgumentException if the sequence identifier is not valid.
+   */
+  public void sendMessages(@Nonnull final Collection<String> messages, @Nullable String sequence, final int delayTimeout, @Nullable final ClientMessageListener listener, final boolean enqueueWhileDisconnected) {
+    delegate.sendMessages(new ArrayList<>(messages), sequence, delayTimeout, listener, enqueueWhileDisconnected);
+  }
+
+  /**
+   * Inquiry method that gets the number of bytes received so far, on the network, by the WebSocket connections 
+   * of this LightstreamerClient instance. <BR>
+   * The bytes are counted once the WebSocket handshake is over, hence they are the messages, as compressed by the 
+   * "permessage-deflate" extension if in place (see {@link ConnectionOptions#setWebSocketCompressionEnabled(boolean)}), 
+   * along with the WebSocket framing and, for secure connections, the TLS overhead. The connections through a 
+   * SOCKS proxy are not counted. <BR>
+   * The ratio between this value and {@link #getWebSocketPayloadBytes()} gives an estimate of the effectiveness 
+   * of the compression.
+   * 
+   * @return the number of bytes received by the WebSocket connections.
+   */
+  public long getWebSocketWireBytes() {
+    return delegate.getWebSocketWireBytes();
+  }
+
+  /**
+   * Inquiry method that gets the number of bytes of the messages received so far by the WebSocket connections 
+   * of this LightstreamerClient instance, once decompressed, that is the length of their UTF-8 encoding.
+   * 
+   * @return the number of bytes of the messages received by the WebSocket connections.
+   * @see #getWebSocketWireBytes()
+   */
+  public long getWebSocketPayloadBytes() {
+    return delegate.getWebSocketPayloadBytes();
+  }
+
   /**
    * Static method that can be used to share cookies between connections to the Server
    * (performed by this library) and connections to other sites that are performed
@@ -463,6 +586,43 @@ public class LightstreamerClient {
     return LSLightstreamerClient.getCookies(uri);
   }
   
+  /**
+   * Static method that gets the number of listener callbacks (e.g. {@link SubscriptionListener#onItemUpdate}) 
+   * of all the {@link LightstreamerClient} instances that have been scheduled but have not run yet. <BR>
+   * A value that keeps growing reveals a listener that is slower than the events it receives: 
+   * see {@link Subscription#setMaxPendingUpdates(int)} and {@link Subscription#setConflationEnabled(boolean)} 
+   * to bound the updates waiting for it.
+   * 
+   * @return the number of the listener callbacks waiting to run.
+   */
+  public static long getListenerQueueDepth() {
+    return LSLightstreamerClient.getListenerQueueDepth();
+  }
+
+  /**
+   * Static method that gets the number of listener callbacks of all the {@link LightstreamerClient} instances 
+   * that have run so far.
+   * 
+   * @return the number of the listener callbacks run.
+   * @see #getListenerDispatchDelay()
+   */
+  public static long getListenerDispatchCount() {
+    return LSLightstreamerClient.getListenerDispatchCount();
+  }
+
+  /**
+   * Static method that gets the total time, in nanoseconds, that the listener callbacks run so far waited between 
+   * their scheduling and their run. <BR>
+   * The difference between two readings, divided by the difference between the corresponding readings of 
+   * {@link #getListenerDispatchCount()}, gives the average delay with which the listeners received their events 
+   * in the meantime.
+   * 
+   * @return the total waiting time of the listener callbacks, in nanoseconds.
+   */
+  public static long getListenerDispatchDelay() {
+    return LSLightstreamerClient.getListenerDispatchDelay();
+  }
+
   /**
    * Provides a mean to control the way TLS certificates are evaluated, with the possibility to accept untrusted ones.
    * 
@@ -243,6 +243,40 @@ public interface ItemUpdate {
   */
   @Nullable 
   public String getValueAsJSONPatchIfAvailable(int fieldPos);
+
+  /**
+   * Returns the current value for the specified field as a JSON tree. <BR>
+   * When the value of the field has been obtained by applying JSON Patches (see {@link #getValueAsJSONPatchIfAvailable(String)}),
+   * the library already holds it as a tree, a copy of which is returned, without going through its string representation.
+   * Otherwise the value is parsed on each call.
+   * <BR>In both cases each call returns a new tree, which the caller is free to modify.
+   * 
+   * @param fieldName The field name as specified within the "Field List".
+   * @throws IllegalArgumentException if the specified field is not part of the Subscription.
+   * @throws IllegalStateException if the Subscription was initialized using a field schema or if the value is not valid JSON.
+   * @return The value of the specified field as a JSON tree, or null if the value is null (see {@link #getValue(String)}).
+   * 
+   * @see #getValue(String)
+   */
+  @Nullable
+  public com.fasterxml.jackson.databind.JsonNode getValueAsJSONNode(@Nonnull String fieldName);
+
+  /**
+   * Returns the current value for the specified field as a JSON tree. <BR>
+   * When the value of the field has been obtained by applying JSON Patches (see {@link #getValueAsJSONPatchIfAvailable(int)}),
+   * the library already holds it as a tree, a copy of which is returned, without going through its string representation.
+   * Otherwise the value is parsed on each call.
+   * <BR>In both cases each call returns a new tree, which the caller is free to modify.
+   * 
+   * @param fieldPos The 1-based position of the field within the "Field List" or "Field Schema".
+   * @throws IllegalArgumentException if the specified field is not part of the Subscription.
+   * @throws IllegalStateException if the value is not valid JSON.
+   * @return The value of the specified field as a JSON tree, or null if the value is null (see {@link #getValue(int)}).
+   * 
+   * @see #getValue(int)
+   */
+  @Nullable
+  public com.fasterxml.jackson.databind.JsonNode getValueAsJSONNode(int fieldPos);
   
   /**
    * Returns an immutable Map containing the values for each field changed with the last server update. 
@@ -20,6 +20,7 @@ import javax.annotation.Nullable;
 import java.util.*;
 import com.lightstreamer.log.*;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.net.URI;
 import java.net.HttpCookie;
 import javax.net.ssl.TrustManagerFactory;
@@ -332,6 +333,56 @@ public class LightstreamerClient {
     delegate.unsubscribe(subscription.delegate);
   }
   
+  /**
+   * Operation method that adds several Subscriptions to the list of "active" Subscriptions at once. <BR>
+   * The effect is the same as calling {@link #subscribe(Subscription)} for each Subscription, in iteration order,
+   * but the related requests are forwarded to the server together, grouped in as few requests as possible,
+   * rather than one by one. This makes a difference when thousands of Subscriptions are activated together.
+   * 
+   * @lifecycle Subscriptions can be given to the LightstreamerClient at any time. All the Subscriptions are checked
+   * before any of them is activated: if one of them cannot be activated (see {@link #subscribe(Subscription)}), 
+   * the method throws the related exception and none of the Subscriptions is activated.
+   * 
+   * @param subscriptions A collection of Subscription objects, none of which can be already "active".
+   * 
+   * @throws IllegalStateException if one of the Subscriptions is already "active" or appears more than once.
+   * @throws IllegalArgumentException if one of the Subscriptions lacks its items or its fields.
+   * 
+   * @see #unsubscribeAll(Collection)
+   */
+  public void subscribeAll(@Nonnull final Collection<Subscription> subscriptions) {
+    delegate.subscribeAll(toDelegates(subscriptions));
+  }
+  
+  /**
+   * Operation method that removes several Subscriptions that are currently in the "active" state at once. <BR>
+   * The effect is the same as calling {@link #unsubscribe(Subscription)} for each Subscription, in iteration order,
+   * but the related requests are forwarded to the server together, grouped in as few requests as possible,
+   * rather than one by one.
+   * 
+   * @lifecycle Subscriptions can be unsubscribed from at any time. All the Subscriptions are checked before any of 
+   * them is unsubscribed: if one of them was activated by another LightstreamerClient instance, the method throws 
+   * the related exception and none of the Subscriptions is unsubscribed.
+   * 
+   * @param subscriptions A collection of "active" Subscription objects that were activated by this 
+   * LightstreamerClient instance.
+   * 
+   * @throws IllegalArgumentException if one of the Subscriptions was activated by another LightstreamerClient instance.
+   * 
+   * @see #subscribeAll(Collection)
+   */
+  public void unsubscribeAll(@Nonnull final Collection<Subscription> subscriptions) {
+    delegate.unsubscribeAll(toDelegates(subscriptions));
+  }
+  
+  private static List<LSSubscription> toDelegates(Collection<Subscription> subscriptions) {
+    List<LSSubscription> delegates = new ArrayList<>(subscriptions.size());
+    for (Subscription subscription : subscriptions) {
+      delegates.add(subscription.delegate);
+    }
+    return delegates;
+  }
+  
   /**
    * Inquiry method that returns a list containing all the Subscription instances that are 
    * currently "active" on this LightstreamerClient. <BR>
@@ -434,6 +485,79 @@ public class LightstreamerClient {
     delegate.sendMessage(message, sequence, delayTimeout, listener, enqueueWhileDisconnected);
   }
   
+  /**
+   * A simplified version of the {@link #sendMessages(Collection,String,int,ClientMessageListener,boolean)}.
+   * The internal implementation will call
+   * <code>
+   *   sendMessages(messages,null,-1,null,false);
+   * </code>
+   * Note that this invocation involves no sequence and no listener, hence an optimized
+   * fire-and-forget behavior will be applied.
+   * 
+   * @param messages a collection of text messages, whose interpretation is entirely demanded to the Metadata Adapter
+   * associated to the current connection.
+   */
+  public void sendMessages(@Nonnull Collection<String> messages) {
+    delegate.sendMessages(new ArrayList<>(messages), null, -1, null, false);
+  }
+  
+  /**
+   * Operation method that sends several messages to the Server at once. <BR>
+   * The effect is the same as calling {@link #sendMessage(String,String,int,ClientMessageListener,boolean)} for each 
+   * message, in iteration order, with the same sequence, timeout, listener and flag, but the messages are forwarded 
+   * to the server together, grouped in as few requests as possible, rather than one by one. This makes a difference 
+   * when thousands of messages are sent together, for instance when a backlog of messages is replayed after a reconnection.
+   * 
+   * @lifecycle See {@link #sendMessage(String,String,int,ClientMessageListener,boolean)}. The sequence identifier is 
+   * checked before any message is sent: if it is not valid, the method throws the related exception and no message 
+   * is sent.
+   * 
+   * @param messages a collection of text messages, whose interpretation is entirely demanded to the Metadata Adapter
+   * associated to the current connection.
+   * @param sequence an alphanumeric identifier, used to identify a subset of messages to be managed in sequence; 
+   * underscore characters are also allowed. The messages are assigned to the sequence in iteration order. 
+   * The parameter is optional; if set to null, "UNORDERED_MESSAGES" is used as the sequence name. 
+   * @param delayTimeout a timeout, expressed in milliseconds, which applies to each message 
+   * (see {@link #sendMessage(String,String,int,ClientMessageListener,boolean)}).
+   * @param listener an object suitable for receiving notifications about the processing outcome of each message.
+   * The parameter is optional; if not supplied, no notification will be available.
+   * @param enqueueWhileDisconnected if this flag is set to true, and the client is in a disconnected status when
+   * the provided messages are handled, then the messages are not aborted right away but are queued waiting for a new
+   * session.
+   * 
+   * @throws IllegalArgumentException if the sequence identifier is not valid.
+   */
+  public void sendMessages(@Nonnull final Collection<String> messages, @Nullable String sequence, final int delayTimeout, @Nullable final ClientMessageListener listener, final boolean enqueueWhileDisconnected) {
+    delegate.sendMessages(new ArrayList<>(messages), sequence, delayTimeout, listener, enqueueWhileDisconnected);
+  }
+  
+  /**
+   * Inquiry method that gets the number of bytes received so far, on the network, by the WebSocket connections 
+   * of this LightstreamerClient instance. <BR>
+   * The bytes are counted once the WebSocket handshake is over, hence they are the messages, as compressed by the 
+   * "permessage-deflate" extension if in place (see {@link ConnectionOptions#setWebSocketCompressionEnabled(boolean)}), 
+   * along with the WebSocket framing and, for secure connections, the TLS overhead. The connections through a 
+   * SOCKS proxy are not counted. <BR>
+   * The ratio between this value and {@link #getWebSocketPayloadBytes()} gives an estimate of the effectiveness 
+   * of the compression.
+   * 
+   * @return the number of bytes received by the WebSocket connections.
+   */
+  public long getWebSocketWireBytes() {
+    return delegate.getWebSocketWireBytes();
+  }
+
+  /**
+   * Inquiry method that gets the number of bytes of the messages received so far by the WebSocket connections 
+   * of this LightstreamerClient instance, once decompressed, that is the length of their UTF-8 encoding.
+   * 
+   * @return the number of bytes of the messages received by the WebSocket connections.
+   * @see #getWebSocketWireBytes()
+   */
+  public long getWebSocketPayloadBytes() {
+    return delegate.getWebSocketPayloadBytes();
+  }
+
   /**
    * Static method that can be used to share cookies between connections to the Server
    * (performed by this library) and connections to other sites that are performed
@@ -492,6 +616,162 @@ public class LightstreamerClient {
     return LSLightstreamerClient.getCookies(uri);
   }
   
+  /**
+   * Static method that distributes the session work of the {@link LightstreamerClient} instances over a pool of threads. <BR>
+   * By default, a single thread manages the connections of all the LightstreamerClient instances living in the JVM.
+   * When a size greater than 1 is set, each new LightstreamerClient instance is bound to one of the threads of the pool,
+   * according to a round-robin policy, so that the events of the same instance are still processed in order.
+   * 
+   * @lifecycle May be called only before creating any LightstreamerClient instance.
+   * 
+   * @param size the number of threads of the pool
+   * @throws IllegalArgumentException if the size is not greater than zero
+   * @throws IllegalStateException if a LightstreamerClient instance has already been created
+   * 
+   * @see #setSessionExecutor(ScheduledExecutorService)
+   */
+  public static void setSessionThreadPoolSize(int size) {
+    LSLightstreamerClient.setSessionThreadPoolSize(size);
+  }
+
+  /**
+   * Static method that makes the {@link LightstreamerClient} instances run their session work on the given executor, 
+   * in place of the threads managed by the library. <BR>
+   * The executor must run the submitted tasks one at a time and in submission order
+   * (e.g. an executor obtained by {@link java.util.concurrent.Executors#newSingleThreadScheduledExecutor()}).
+   * The executor is never shut down by the library, not even by {@link #disconnectFuture()}.
+   * 
+   * @lifecycle May be called only before creating any LightstreamerClient instance.
+   * 
+   * @param executor the executor
+   * @throws NullPointerException if the executor is null
+   * @throws IllegalStateException if a LightstreamerClient instance has already been created
+   * 
+   * @see #setSessionThreadPoolSize(int)
+   */
+  public static void setSessionExecutor(@Nonnull ScheduledExecutorService executor) {
+    LSLightstreamerClient.setSessionExecutor(executor);
+  }
+
+  /**
+   * Static method that distributes the notifications to the listeners over a pool of threads. <BR>
+   * By default, a single thread notifies the events to all the listeners ({@link ClientListener}, {@link SubscriptionListener}
+   * and {@link ClientMessageListener}) living in the JVM, so a slow listener delays the notifications of all the others.
+   * When a size greater than 1 is set, each listener is bound to one of the threads of the pool, so that the
+   * listener is still notified of its events in order and it is never invoked concurrently, while distinct listeners
+   * can be notified in parallel. <BR>
+   * Note that the relative order of the events notified to distinct listeners is no longer guaranteed; in particular, 
+   * a listener shared among several Subscriptions receives the events of all of them in order, while two listeners 
+   * attached to different Subscriptions may be notified in any order.
+   * 
+   * @lifecycle May be called only before adding any listener.
+   * 
+   * @param size the number of threads of the pool
+   * @throws IllegalArgumentException if the size is not greater than zero
+   * @throws IllegalStateException if a listener has already been added
+   */
+  public static void setListenerThreadPoolSize(int size) {
+    LSLightstreamerClient.setListenerThreadPoolSize(size);
+  }
+
+  /**
+   * Static method that makes the library run on virtual threads (available since Java 21) instead of platform threads. <BR>
+   * When enabled, each {@link LightstreamerClient} instance and each listener ({@link ClientListener}, 
+   * {@link SubscriptionListener} and {@link ClientMessageListener}) gets its own queue of tasks, which is
+   * drained by a virtual thread whenever it is not empty. So the session work of a client is still carried out
+   * one task at a time and in order, and a listener is still notified of its events in order and never concurrently,
+   * but distinct clients and distinct listeners can proceed in parallel without requiring a platform thread each.
+   * This is meant for applications hosting a large number of LightstreamerClient instances. <BR>
+   * Enabling virtual threads overrides the settings of {@link #setSessionThreadPoolSize(int)}, 
+   * {@link #setSessionExecutor(ScheduledExecutorService)} and {@link #setListenerThreadPoolSize(int)}, and vice versa. <BR>
+   * Note that the relative order of the events notified to distinct listeners is not guaranteed (see 
+   * {@link #setListenerThreadPoolSize(int)}). Moreover, listeners should avoid holding monitors while blocking,
+   * because, on some Java versions, this pins the underlying platform thread.
+   * 
+   * @lifecycle May be called only before creating any LightstreamerClient instance and before adding any listener.
+   * 
+   * @param enabled true to run on virtual threads, false to restore the default threads
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   * @throws IllegalStateException if a LightstreamerClient instance has already been created or a listener has already been added
+   */
+  public static void setVirtualThreadsEnabled(boolean enabled) {
+    LSLightstreamerClient.setVirtualThreadsEnabled(enabled);
+  }
+
+  /**
+   * Static method that makes all the {@link LightstreamerClient} instances share a single timer service, based on
+   * a hashed timing wheel, instead of using the scheduler of their session thread. <BR>
+   * Each client continually starts and cancels timers (to detect stalled connections, to time out requests and so on).
+   * With the timing wheel, starting and canceling a timer take constant time, regardless of the number of pending timers,
+   * which reduces the overhead of applications hosting a large number of LightstreamerClient instances.
+   * On the other hand, the timers expire with a coarser resolution (about 10 milliseconds). <BR>
+   * The expired timers are still handled by the session thread of each client (see {@link #setSessionThreadPoolSize(int)}).
+   * 
+   * @lifecycle May be called only before creating any LightstreamerClient instance.
+   * 
+   * @param enabled true to use the shared timing wheel, false to restore the default timers
+   * @throws IllegalStateException if a LightstreamerClient instance has already been created
+   */
+  public static void setTimerWheelEnabled(boolean enabled) {
+    LSLightstreamerClient.setTimerWheelEnabled(enabled);
+  }
+
+  /**
+   * Static method that sets the maximum number of messages received from the Server that a {@link LightstreamerClient}
+   * instance processes in a row on its session thread. <BR>
+   * The messages that arrive together (e.g. the lines of a single WebSocket frame) are processed in batches, each of which
+   * requires a single task of the session thread. A larger size reduces the overhead when updates arrive in bursts, 
+   * while a smaller size lets the other work of the session thread (e.g. the requests issued by the application) 
+   * interleave more often with the processing of a long burst. <BR>
+   * The default value is 64.
+   * 
+   * @lifecycle May be called only before creating any LightstreamerClient instance.
+   * 
+   * @param size the maximum number of messages processed in a row
+   * @throws IllegalArgumentException if the size is not greater than zero
+   * @throws IllegalStateException if a LightstreamerClient instance has already been created
+   */
+  public static void setMaxInboundBatchSize(int size) {
+    LSLightstreamerClient.setMaxInboundBatchSize(size);
+  }
+
+  /**
+   * Static method that gets the number of listener callbacks (e.g. {@link SubscriptionListener#onItemUpdate}) 
+   * of all the {@link LightstreamerClient} instances that have been scheduled but have not run yet. <BR>
+   * A value that keeps growing reveals a listener that is slower than the events it receives: 
+   * see {@link Subscription#setMaxPendingUpdates(int)} and {@link Subscription#setConflationEnabled(boolean)} 
+   * to bound the updates waiting for it.
+   * 
+   * @return the number of the listener callbacks waiting to run.
+   */
+  public static long getListenerQueueDepth() {
+    return LSLightstreamerClient.getListenerQueueDepth();
+  }
+
+  /**
+   * Static method that gets the number of listener callbacks of all the {@link LightstreamerClient} instances 
+   * that have run so far.
+   * 
+   * @return the number of the listener callbacks run.
+   * @see #getListenerDispatchDelay()
+   */
+  public static long getListenerDispatchCount() {
+    return LSLightstreamerClient.getListenerDispatchCount();
+  }
+
+  /**
+   * Static method that gets the total time, in nanoseconds, that the listener callbacks run so far waited between 
+   * their scheduling and their run. <BR>
+   * The difference between two readings, divided by the difference between the corresponding readings of 
+   * {@link #getListenerDispatchCount()}, gives the average delay with which the listeners received their events 
+   * in the meantime.
+   * 
+   * @return the total waiting time of the listener callbacks, in nanoseconds.
+   */
+  public static long getListenerDispatchDelay() {
+    return LSLightstreamerClient.getListenerDispatchDelay();
+  }
+
   /**
    * Provides a mean to control the way TLS certificates are evaluated, with the possibility to accept untrusted ones.
    * 
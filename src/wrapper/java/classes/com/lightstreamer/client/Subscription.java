@@ -587,6 +587,90 @@ public class Subscription {
     */
   public void setRequestedMaxFrequency(@Nullable String freq) {
     delegate.setRequestedMaxFrequency(freq);
+  }
+   /**
+    * Inquiry method that checks if the updates of this Subscription are conflated when a listener
+    * falls behind.
+    * 
+    * @lifecycle This method can be called at any time.
+    * 
+    * @return true if the conflation is enabled, false otherwise.
+    * @see #setConflationEnabled(boolean)
+    */
+  public boolean isConflationEnabled() {
+    return delegate.isConflationEnabled();
+  }
+   /**
+    * Setter method that enables or disables the conflation of the updates delivered to the listeners.
+    * This is only available for Subscriptions in MERGE mode. <BR>
+    * Normally, each update is queued for delivery to each listener, hence, if a listener is slower than the
+    * updates, the updates pile up in memory and are delivered later and later. With the conflation enabled, 
+    * if an update of an item is still waiting to be delivered to a listener when a new update of the same item 
+    * arrives, the two are merged: the listener receives a single update, which carries the latest values of 
+    * the fields and reports as changed the fields changed by either update. As a consequence, at most one update 
+    * per item is waiting for each listener, and the listener always receives fresh values. <BR>
+    * Note that the snapshot updates are never conflated. Moreover, the updates that precede any other event
+    * (e.g. {@link SubscriptionListener#onItemLostUpdates}) are never merged with the updates that follow it.
+    * If JSON Patches are received for a field, the patch of a merged update is only available if just one of the
+    * merged updates changed the field.
+    *
+    * @default false.
+    *
+    * @lifecycle This method can only be called while the Subscription
+    * instance is in its "inactive" state.
+    * 
+    * @throws IllegalStateException if the Subscription is currently 
+    * "active".
+    * @throws IllegalStateException if the Subscription mode is not "MERGE".
+    *
+    * @param enabled true to enable the conflation, false to disable it.
+    */
+  public void setConflationEnabled(boolean enabled) {
+    delegate.setConflationEnabled(enabled);
+  }
+   /**
+    * Inquiry method that gets the maximum number of updates of this Subscription that can wait to be delivered 
+    * to each listener.
+    * 
+    * @lifecycle This method can be called at any time.
+    * 
+    * @return the maximum number of waiting updates, or 0 if the number is not bounded.
+    * @see #setMaxPendingUpdates(int)
+    */
+  public int getMaxPendingUpdates() {
+    return delegate.getMaxPendingUpdates();
+  }
+   /**
+    * Setter method that bounds the number of updates of this Subscription that can wait to be delivered to each 
+    * listener. This is not available for Subscriptions in COMMAND mode, where the loss of an update would corrupt
+    * the state of the keys. <BR>
+    * Normally, each update is queued for delivery to each listener, hence, if a listener is slower than the
+    * updates, the updates pile up in memory without limits. With a bound in place, when a new update arrives while
+    * the given number of updates is still waiting for a listener, the oldest of them is discarded and the listener,
+    * before receiving its next update, is notified of the loss through {@link SubscriptionListener#onItemLostUpdates},
+    * as it happens for the updates lost by the Server. <BR>
+    * Note that the snapshot updates are never discarded. Moreover, the updates that precede any other event
+    * (e.g. {@link SubscriptionListener#onEndOfSnapshot}) are counted separately from the updates that follow it,
+    * hence the waiting updates may briefly exceed the bound. If the conflation is enabled 
+    * (see {@link #setConflationEnabled(boolean)}), the updates are conflated rather than discarded and this setting 
+    * has no effect. <BR>
+    * The number of the callbacks waiting for all the listeners can be monitored through 
+    * {@link LightstreamerClient#getListenerQueueDepth()}.
+    *
+    * @default 0, which means that the number of waiting updates is not bounded.
+    *
+    * @lifecycle This method can only be called while the Subscription
+    * instance is in its "inactive" state.
+    * 
+    * @throws IllegalStateException if the Subscription is currently 
+    * "active".
+    * @throws IllegalStateException if the Subscription mode is "COMMAND".
+    * @throws IllegalArgumentException if a negative value is given.
+    *
+    * @param max the maximum number of waiting updates per listener, or 0 not to bound them.
+    */
+  public void setMaxPendingUpdates(int max) {
+    delegate.setMaxPendingUpdates(max);
   }
    /**
     * Inquiry method that can be used to read the selector name  
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.bench;
+
+import com.lightstreamer.client.LightstreamerClient.LSLightstreamerClient as LightstreamerClient;
+import com.lightstreamer.client.internal.ClientRequests.Encodable;
+import utils.TestFactory;
+
+/**
+ * Simulates the resubscription of many subscriptions after a reconnection, i.e. the grouping of the pending
+ * subscription requests in batches, in order to measure the cost of building the batches.
+ * 
+ * NB the requests are encoded in advance, so that only the batching is measured.
+ */
+@:keep
+@:access(com.lightstreamer.client)
+class BatchFixture {
+  final test = new utest.Test();
+  final client: LightstreamerClient;
+  final pendings: Array<Encodable>;
+
+  /**
+   * @param nSubscriptions the number of pending subscription requests
+   */
+  public function new(nSubscriptions: Int) {
+    client = new LightstreamerClient("http://server", "TEST", new TestFactory(test));
+    pendings = [for (i in 1...nSubscriptions + 1) new PendingSubscription(i)];
+  }
+
+  /**
+   * Groups the requests in WebSocket batches and returns the number of batches.
+   */
+  public function prepareBatchWS(requestLimit: Int): Int {
+    return client.machine.prepareBatchWS("control", pendings, requestLimit).length;
+  }
+
+  /**
+   * Groups the requests in HTTP batches, as many as needed, and returns the number of batches.
+   */
+  public function prepareBatchHTTP(requestLimit: Int): Int {
+    return client.machine.prepareBatchesHTTP(pendings, requestLimit, pendings.length).length;
+  }
+}
+
+private class PendingSubscription implements Encodable {
+  final ws: String;
+  final http: String;
+
+  public function new(subId: Int) {
+    http = 'LS_reqId=$subId&LS_op=add&LS_subId=$subId&LS_mode=MERGE&LS_group=item$subId&LS_schema=last_price%20time%20pct_change&LS_data_adapter=QUOTE_ADAPTER&LS_snapshot=true&LS_requested_max_frequency=unlimited';
+    ws = http + "&LS_ack=false";
+  }
+
+  public function isPending(): Bool {
+    return true;
+  }
+
+  public function encode(isWS: Bool): String {
+    return isWS ? ws : http;
+  }
+
+  public function encodeWS(): String {
+    return "control\r\n" + ws;
+  }
+}
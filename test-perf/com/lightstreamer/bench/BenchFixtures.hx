@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lightstreamer.client.internal.ParseTools.parseUpdate as decodeUpdate;
+import com.lightstreamer.client.internal.ParseTools.unquote as decodeString;
+import com.lightstreamer.internal.patch.Json;
+import com.lightstreamer.internal.patch.Diff.DiffDecoder;
+
+/**
+ * Entry points of the JMH benchmarks (see `test-perf/jmh`) into the decoding functions of the library.
+ * 
+ * The functions are exposed with plain Java types, so that the benchmarks don't depend on the names
+ * that the Haxe compiler gives to the module-level functions.
+ */
+@:keep
+class BenchFixtures {
+  /**
+   * Silences the `trace` calls of the mock objects used by the fixtures.
+   */
+  public static function mute() {
+    haxe.Log.trace = (v, ?infos) -> {};
+  }
+
+  /**
+   * Decodes a `U` message and returns the number of fields.
+   */
+  public static function parseUpdate(line: String): Int {
+    return decodeUpdate(line).values.length;
+  }
+
+  public static function unquote(s: String): String {
+    return decodeString(s);
+  }
+
+  public static function applyDiff(base: String, diff: String): String {
+    return DiffDecoder.apply(base, diff);
+  }
+
+  public static function parseJson(s: String): JsonNode {
+    return new Json(s);
+  }
+
+  /**
+   * Applies a JSON patch to a JSON value, as done when the value of a field is updated through a JSON patch.
+   */
+  public static function applyJsonPatch(base: JsonNode, patch: JsonNode): JsonNode {
+    var json: Json = base;
+    return json.apply(patch);
+  }
+}
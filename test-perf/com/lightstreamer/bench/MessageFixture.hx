@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.bench;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.lightstreamer.client.LightstreamerClient.LSLightstreamerClient as LightstreamerClient;
+import com.lightstreamer.client.internal.MessageManager;
+import com.lightstreamer.internal.PlatformApi.IWsClient;
+import utils.MockWsClient;
+import utils.TestFactory;
+
+/**
+ * A client with a WebSocket session, bound to a mock WebSocket (see `MockWsClient`) which discards the requests,
+ * in order to measure the cost of sending fire-and-forget messages (i.e. unordered messages without listener).
+ * 
+ * The messages can either take the lightweight path of `LightstreamerClient.sendMessage` (see `sendMessage`),
+ * or be sent through a `MessageManager` (see `sendManagedMessage`), as it happens to the other kinds of messages.
+ */
+@:keep
+@:access(com.lightstreamer.client)
+class MessageFixture {
+  final test = new utest.Test();
+  final ws: BenchWsClient;
+  final client: LightstreamerClient;
+
+  public function new() {
+    ws = new BenchWsClient(test);
+    client = new LightstreamerClient("http://server", "TEST", new TestFactory(test, ws));
+  }
+
+  /**
+   * Opens the session and waits until it is ready to send messages.
+   */
+  public function start() {
+    client.connect();
+    ws.awaitCreated();
+    ws.onOpen();
+    ws.onText("WSOK");
+    ws.onText("CONOK,sid,70000,5000,*");
+    var deadline = Sys.time() + 10;
+    while (client.getStatus() != "CONNECTED:WS-STREAMING") {
+      if (Sys.time() > deadline) {
+        throw new haxe.Exception("Timeout waiting for the session");
+      }
+      Sys.sleep(0.001);
+    }
+  }
+
+  public function stop() {
+    client.disconnect();
+  }
+
+  public function sendMessage(txt: String) {
+    client.sendMessage(txt);
+  }
+
+  public function sendManagedMessage(txt: String) {
+    var machine = client.machine;
+    machine.lock.synchronized(() -> {
+      var msg = new MessageManager(txt, "UNORDERED_MESSAGES", -1, null, false, machine);
+      msg.evtExtSendMessage();
+    });
+  }
+
+  /**
+   * The number of requests sent on the WebSocket so far.
+   */
+  public function getSent(): haxe.Int64 {
+    return ws.sent.get();
+  }
+}
+
+private class BenchWsClient extends MockWsClient {
+  final created = new CountDownLatch(1);
+  public final sent = new AtomicLong();
+
+  override public function create(url: String, headers: Null<Map<String, String>>, onOpen: IWsClient->Void, onText: (IWsClient, String)->Void, onError: (IWsClient, String)->Void): MockWsClient {
+    super.create(url, headers, onOpen, onText, onError);
+    created.countDown();
+    return this;
+  }
+
+  override public function send(txt: String) {
+    sent.incrementAndGet();
+  }
+
+  public function awaitCreated() {
+    if (!created.await(10, TimeUnit.SECONDS)) {
+      throw new haxe.Exception("Timeout waiting for the WebSocket");
+    }
+  }
+}
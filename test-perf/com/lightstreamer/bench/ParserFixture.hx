@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.bench;
+
+import com.lightstreamer.client.internal.ParseTools;
+import com.lightstreamer.internal.Types;
+
+using StringTools;
+
+/**
+ * Feeds a recorded stream of TLCP messages to the message dispatcher of a client with an active subscription 
+ * (see `SessionFixture`), in order to compare the current dispatcher (i.e. `ClientMachine.evtMessage`) with the former one,
+ * which compared each line with the tags in sequence and then split it (see `evtMessageWithSplit`).
+ * 
+ * NB the messages are processed on the calling thread, under the lock of the client, as the session thread does.
+ */
+@:keep
+@:access(com.lightstreamer.bench.SessionFixture)
+@:access(com.lightstreamer.client)
+class ParserFixture {
+  final session: SessionFixture;
+  final lines: Array<String>;
+  var next = 0;
+
+  public function new() {
+    session = new SessionFixture("MERGE", 10, 12, false);
+    lines = recordedStream();
+  }
+
+  public function start() {
+    session.start();
+  }
+
+  public function stop() {
+    session.stop();
+  }
+
+  /**
+   * Dispatches the next message of the stream through `ClientMachine.evtMessage`.
+   */
+  public function dispatchNext(): Bool {
+    var line = nextLine();
+    var machine = session.client.machine;
+    return machine.lock.synchronized(() -> machine.evtMessage(line));
+  }
+
+  /**
+   * Dispatches the next message of the stream through the former split-based dispatcher.
+   */
+  public function dispatchNextWithSplit(): Bool {
+    var line = nextLine();
+    var machine = session.client.machine;
+    return machine.lock.synchronized(() -> evtMessageWithSplit(machine, line));
+  }
+
+  function nextLine(): String {
+    var line = lines[next];
+    next = (next + 1) % lines.length;
+    return line;
+  }
+
+  /**
+   * A stream of updates interleaved with the other messages that a session receives while it is active.
+   * 
+   * NB the messages that would alter the state of the session (e.g. `PROG` or `SYNC`) are left out,
+   * so that the stream can be replayed indefinitely.
+   */
+  static function recordedStream(): Array<String> {
+    var lines = [
+      "SERVNAME,Lightstreamer HTTP Server",
+      "CLIENTIP,127.0.0.1",
+      "CONS,unlimited",
+    ];
+    for (i in 0...1000) {
+      var item = (i % 10) + 1;
+      lines.push('U,1,$item,${i}.5|10:${i % 60}:00||||^3|${i * 7}|#|$|ABC%2C DEF');
+      lines.push('U,1,$item,|${i}.75|^10');
+      if (i % 50 == 0) {
+        lines.push('REQOK,${i + 2}');
+      }
+      if (i % 100 == 0) {
+        lines.push("PROBE");
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * The former dispatcher of the messages (and of the header of the updates), which is the baseline of the benchmark.
+   * 
+   * NB the tags are compared in the original order; the handling of the tags that are not in the recorded stream is omitted.
+   */
+  static function evtMessageWithSplit(machine: com.lightstreamer.client.internal.ClientMachine, line: String): Bool {
+    if (line.startsWith("U,")) {
+      var tableIndex = checkedIndexOf(line, ",") + 1;
+      var itemIndex = checkedIndexOf(line, ",", tableIndex) + 1;
+      var fieldsIndex = checkedIndexOf(line, ",", itemIndex) + 1;
+      var table = parseInt(line.substring(tableIndex, itemIndex - 1));
+      var item = parseInt(line.substring(itemIndex, fieldsIndex - 1));
+      machine.evtU(table, item, parseFields(line, fieldsIndex), line);
+    } else if (line.startsWith("REQOK")) {
+      if (line == "REQOK") {
+        machine.evtREQOK_withoutReqId();
+      } else {
+        var args = line.split(",");
+        machine.evtREQOK(parseInt(args[1]));
+      }
+    } else if (line.startsWith("PROBE")) {
+      machine.evtPROBE();
+    } else if (line.startsWith("LOOP") || line.startsWith("CONOK") || line.startsWith("WSOK")) {
+      unexpected(line);
+    } else if (line.startsWith("SERVNAME")) {
+      var args = line.split(",");
+      machine.evtSERVNAME(args[1]);
+    } else if (line.startsWith("CLIENTIP")) {
+      var args = line.split(",");
+      machine.evtCLIENTIP(args[1]);
+    } else if (line.startsWith("CONS")) {
+      var args = line.split(",");
+      switch args[1] {
+      case "unlimited":
+        machine.evtCONS(BWUnlimited);
+      case "unmanaged":
+        machine.evtCONS(BWUnmanaged);
+      case bw:
+        machine.evtCONS(BWLimited(parseFloat(bw)));
+      }
+    } else if (line.startsWith("MSGDONE") || line.startsWith("MSGFAIL") || line.startsWith("REQERR") 
+      || line.startsWith("PROG") || line.startsWith("SUBOK") || line.startsWith("SUBCMD") || line.startsWith("UNSUB") 
+      || line.startsWith("CONF") || line.startsWith("EOS") || line.startsWith("CS") || line.startsWith("OV") 
+      || line.startsWith("NOOP") || line.startsWith("CONERR") || line.startsWith("END") || line.startsWith("ERROR") 
+      || line.startsWith("SYNC")) {
+      unexpected(line);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  static function checkedIndexOf(s: String, needle: String, ?startIndex: Int): Int {
+    var i = s.indexOf(needle, startIndex);
+    if (i == -1) {
+      throw new haxe.Exception("string not found");
+    }
+    return i;
+  }
+
+  static function unexpected(line: String) {
+    throw new haxe.Exception('Unexpected message in the recorded stream: $line');
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.bench;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.lightstreamer.client.LightstreamerClient.LSLightstreamerClient as LightstreamerClient;
+import com.lightstreamer.client.Subscription.LSSubscription as Subscription;
+import com.lightstreamer.client.BaseListener.BaseSubscriptionListener;
+import com.lightstreamer.client.internal.ParseTools;
+import com.lightstreamer.internal.PlatformApi.IWsClient;
+import utils.MockWsClient;
+import utils.TestFactory;
+
+using StringTools;
+
+/**
+ * A client with an active subscription, bound to a mock WebSocket (see `MockWsClient`)
+ * through which the JMH benchmarks inject the TLCP messages.
+ * 
+ * The messages can either travel the whole path from the WebSocket to the listener (see `pushLine`),
+ * or be decoded in advance and handed directly to the subscription (see `prepare` and `applyNext`),
+ * which measures the processing of the updates by the items (i.e. `ItemBase.doUpdate` and its overrides).
+ */
+@:keep
+class SessionFixture {
+  final test = new utest.Test();
+  final ws: BenchWsClient;
+  final client: LightstreamerClient;
+  final sub: Subscription;
+  final isCommand: Bool;
+  final nItems: Int;
+  final nFields: Int;
+  final updates = new AtomicLong();
+  final prepared: Array<UpdateInfo> = [];
+  var next = 0;
+
+  /**
+   * @param mode MERGE, DISTINCT or COMMAND (in the latter case the first two fields are the key and the command)
+   * @param withListener if false, the updates are not delivered to any listener
+   */
+  public function new(mode: String, nItems: Int, nFields: Int, withListener: Bool) {
+    this.isCommand = mode == "COMMAND";
+    this.nItems = nItems;
+    this.nFields = nFields;
+    ws = new BenchWsClient(test);
+    client = new LightstreamerClient("http://server", "TEST", new TestFactory(test, ws));
+    var items = [for (i in 1...nItems + 1) 'i$i'];
+    var fields = [for (i in 1...nFields + 1) 'f$i'];
+    if (isCommand) {
+      fields[0] = "key";
+      fields[1] = "command";
+    }
+    sub = new Subscription(mode, items, fields);
+    sub.setRequestedSnapshot("no");
+    if (withListener) {
+      var listener = new BaseSubscriptionListener();
+      listener._onItemUpdate = update -> updates.incrementAndGet();
+      sub.addListener(listener);
+    }
+  }
+
+  /**
+   * Opens the session and waits until the subscription is active.
+   */
+  public function start() {
+    client.subscribe(sub);
+    client.connect();
+    ws.awaitCreated();
+    ws.onOpen();
+    ws.awaitSent("create_session");
+    ws.onText("WSOK");
+    ws.onText("CONOK,sid,70000,5000,*");
+    ws.awaitSent("control\r\nLS_reqId=1&LS_op=add");
+    if (isCommand) {
+      ws.onText('SUBCMD,1,$nItems,$nFields,1,2');
+    } else {
+      ws.onText('SUBOK,1,$nItems,$nFields');
+    }
+    var deadline = Sys.time() + 10;
+    while (!sub.isSubscribed()) {
+      if (Sys.time() > deadline) {
+        throw new haxe.Exception("Timeout waiting for the subscription");
+      }
+      Sys.sleep(0.001);
+    }
+  }
+
+  public function stop() {
+    client.disconnect();
+  }
+
+  /**
+   * Delivers a message to the client as if it were received by the WebSocket.
+   * The message is processed asynchronously by the session thread.
+   */
+  public function pushLine(line: String) {
+    ws.onText(line);
+  }
+
+  /**
+   * The number of updates notified to the listener so far.
+   */
+  public function getUpdates(): haxe.Int64 {
+    return updates.get();
+  }
+
+  /**
+   * Decodes a `U` message and hands it to the subscription on the calling thread.
+   */
+  public function apply(line: String) {
+    var u = parseUpdate(line);
+    @:privateAccess sub.fetch_subManager().evtU(u.itemIdx, u.values);
+  }
+
+  /**
+   * Decodes the `U` messages that `applyNext` hands to the subscription in a round-robin fashion.
+   */
+  public function prepare(lines: java.NativeArray<String>) {
+    for (i in 0...lines.length) {
+      prepared.push(parseUpdate(lines[i]));
+    }
+  }
+
+  public function applyNext() {
+    var u = prepared[next];
+    next = (next + 1) % prepared.length;
+    @:privateAccess sub.fetch_subManager().evtU(u.itemIdx, u.values);
+  }
+}
+
+private class BenchWsClient extends MockWsClient {
+  final created = new CountDownLatch(1);
+  final sent = new LinkedBlockingQueue<String>();
+
+  override public function create(url: String, headers: Null<Map<String, String>>, onOpen: IWsClient->Void, onText: (IWsClient, String)->Void, onError: (IWsClient, String)->Void): MockWsClient {
+    super.create(url, headers, onOpen, onText, onError);
+    created.countDown();
+    return this;
+  }
+
+  override public function send(txt: String) {
+    sent.put(txt);
+  }
+
+  public function awaitCreated() {
+    if (!created.await(10, TimeUnit.SECONDS)) {
+      throw new haxe.Exception("Timeout waiting for the WebSocket");
+    }
+  }
+
+  public function awaitSent(prefix: String) {
+    while (true) {
+      var msg = sent.poll(10, TimeUnit.SECONDS);
+      if (msg == null) {
+        throw new haxe.Exception('Timeout waiting for "$prefix"');
+      }
+      if (msg.startsWith(prefix)) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.bench;
+
+import com.lightstreamer.internal.Executor;
+import com.lightstreamer.internal.PlatformApi.ITimer;
+import com.lightstreamer.internal.Timer;
+import com.lightstreamer.internal.TimerWheel;
+import com.lightstreamer.internal.Types.Millis;
+
+/**
+ * Simulates the timers of many clients, each restarting a timer on every request,
+ * in order to compare the overhead of the scheduler of the executors with that of the shared timing wheel.
+ */
+@:keep
+class TimerFixture {
+  final wheel: Bool;
+  final executors: Array<Executor> = [];
+  final timers: Array<Null<ITimer>> = [];
+  var next = 0;
+
+  /**
+   * @param wheel if true the timers are started on the shared timing wheel, otherwise on the executors of the clients
+   * @param nClients the number of clients
+   * @param nThreads the number of session threads the clients are spread over
+   */
+  public function new(wheel: Bool, nClients: Int, nThreads: Int) {
+    this.wheel = wheel;
+    var threads = [for (_ in 0...nThreads) new Executor()];
+    for (i in 0...nClients) {
+      executors.push(threads[i % nThreads]);
+      timers.push(null);
+    }
+  }
+
+  /**
+   * Cancels the timer of the next client and starts a new one, as done when a control request is sent.
+   */
+  public function restartNext() {
+    var i = next;
+    next = (next + 1) % executors.length;
+    var timer = timers[i];
+    if (timer != null) {
+      timer.cancel();
+    }
+    var delay = new Millis(4000);
+    timers[i] = wheel
+      ? TimerWheel.shared().newTimer(delay, onTimeout, executors[i])
+      : new Timer("ctrl.timeout", delay, onTimeout, executors[i]);
+  }
+
+  function onTimeout(timer: ITimer) {}
+
+  public function stop() {
+    for (timer in timers) {
+      timer?.cancel();
+    }
+    var stopped = [];
+    for (exec in executors) {
+      if (!stopped.contains(exec)) {
+        exec.stop();
+        stopped.push(exec);
+      }
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lightstreamer.bench.BatchFixture;
+
+/**
+ * Time taken to group the subscription requests of a resubscription (e.g. after a reconnection)
+ * in batches within the request limit of the Server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+
+    @Param({ "10000" })
+    int subscriptions;
+
+    @Param({ "50000", "1000000" })
+    int requestLimit;
+
+    BatchFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new BatchFixture(subscriptions);
+    }
+
+    @Benchmark
+    public int resubscribeWS() {
+        return fixture.prepareBatchWS(requestLimit);
+    }
+
+    @Benchmark
+    public int resubscribeHTTP() {
+        return fixture.prepareBatchHTTP(requestLimit);
+    }
+}
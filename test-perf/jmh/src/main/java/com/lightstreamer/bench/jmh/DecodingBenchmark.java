@@ -0,0 +1,76 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lightstreamer.bench.BenchFixtures;
+
+/**
+ * Throughput of the decoding of the fields of the updates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodingBenchmark {
+
+    final String plainUpdate = "U,1,3,20:00:33|3.04|0.0|2.41|3.67|3.03|3.04|#|#|$|ABC%2C DEF";
+    final String sparseUpdate = "U,1,3,|3.05|^5|3.02";
+    final String quoted = "http://via.placeholder.com/256/cbf1a2/61c73f?text=nick+242+I%C3%B1t%C3%ABrn%C3%A2ti%C3%B4n%C3%A0liz%C3%A6ti%C3%B8n%E2%98%83";
+    final String unquoted = "the quick brown fox jumps over the lazy dog, 0123456789";
+    final String diffBase = "The quick brown fox jumps over the lazy dog";
+    final String diff = "kdredfBc"; // copy(10) add(3, "red") del(5) copy(28)
+
+    JsonNode jsonBase;
+    JsonNode jsonPatch;
+
+    @Setup
+    public void setup() {
+        BenchFixtures.mute();
+        jsonBase = BenchFixtures.parseJson("{\"bid\":3.04,\"ask\":3.05,\"book\":[{\"px\":3.04,\"qty\":100},{\"px\":3.03,\"qty\":250}],\"venue\":\"XMIL\"}");
+        jsonPatch = BenchFixtures.parseJson("[{\"op\":\"replace\",\"path\":\"/bid\",\"value\":3.05},{\"op\":\"replace\",\"path\":\"/book/0/qty\",\"value\":120}]");
+    }
+
+    @Benchmark
+    public int parsePlainUpdate() {
+        return BenchFixtures.parseUpdate(plainUpdate);
+    }
+
+    @Benchmark
+    public int parseSparseUpdate() {
+        return BenchFixtures.parseUpdate(sparseUpdate);
+    }
+
+    @Benchmark
+    public String unquotePercentEncoded() {
+        return BenchFixtures.unquote(quoted);
+    }
+
+    @Benchmark
+    public String unquotePlain() {
+        return BenchFixtures.unquote(unquoted);
+    }
+
+    @Benchmark
+    public String applyDiff() {
+        return BenchFixtures.applyDiff(diffBase, diff);
+    }
+
+    @Benchmark
+    public JsonNode applyJsonPatch() {
+        return BenchFixtures.applyJsonPatch(jsonBase, jsonPatch);
+    }
+}
@@ -0,0 +1,100 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lightstreamer.bench.BenchFixtures;
+import com.lightstreamer.bench.SessionFixture;
+
+/**
+ * Throughput of the processing of the decoded updates by the items of a subscription,
+ * i.e. the merge with the current values, the detection of the changed fields and the creation of the ItemUpdate.
+ * The subscription has no listener, so the delivery of the updates is not measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemUpdateBenchmark {
+
+    static final int ITEMS = 10;
+    static final int FIELDS = 10;
+    static final int KEYS = 20;
+
+    @Param({ "MERGE", "DISTINCT", "COMMAND" })
+    String mode;
+
+    SessionFixture session;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchFixtures.mute();
+        session = new SessionFixture(mode, ITEMS, FIELDS, false);
+        session.start();
+        boolean isCommand = mode.equals("COMMAND");
+        if (isCommand) {
+            for (int item = 1; item <= ITEMS; item++) {
+                for (int key = 1; key <= KEYS; key++) {
+                    session.apply(update(item, "k" + key + "|ADD", 0));
+                }
+            }
+        }
+        int keys = isCommand ? KEYS : 1;
+        String[] lines = new String[2 * ITEMS * keys];
+        int n = 0;
+        for (int round = 1; round <= 2; round++) {
+            for (int item = 1; item <= ITEMS; item++) {
+                for (int key = 1; key <= keys; key++) {
+                    String prefix = isCommand ? "k" + key + "|UPDATE" : "";
+                    lines[n++] = update(item, prefix, round);
+                }
+            }
+        }
+        session.prepare(lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.stop();
+    }
+
+    /**
+     * Composes a U message where all the fields but the key and the command change with the round
+     * (for COMMAND mode, the prefix carries the key and the command).
+     */
+    static String update(int item, String prefix, int round) {
+        StringBuilder sb = new StringBuilder("U,1,").append(item).append(',');
+        int first = 1;
+        if (!prefix.isEmpty()) {
+            sb.append(prefix).append('|');
+            first = 3;
+        }
+        for (int f = first; f <= FIELDS; f++) {
+            if (f > first) {
+                sb.append('|');
+            }
+            sb.append(round * 100 + f).append('.').append(item);
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public void doUpdate() {
+        session.applyNext();
+    }
+}
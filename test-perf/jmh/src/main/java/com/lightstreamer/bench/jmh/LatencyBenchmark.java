@@ -0,0 +1,65 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lightstreamer.bench.BenchFixtures;
+import com.lightstreamer.bench.SessionFixture;
+
+/**
+ * Latency of an update from its reception by the WebSocket to its notification to the subscription listener,
+ * which includes the hops through the session thread and the listener thread.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LatencyBenchmark {
+
+    final String[] lines = {
+        "U,1,1,20:00:33|3.04|0.0|2.41|3.67|3.03|3.04|12000|XMIL|ABC%2C DEF",
+        "U,1,1,20:00:34|3.05|||||3.05|12100||",
+    };
+
+    SessionFixture session;
+    long expected;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchFixtures.mute();
+        session = new SessionFixture("MERGE", 1, 10, true);
+        session.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.stop();
+    }
+
+    @Benchmark
+    public long lineToListener() {
+        session.pushLine(lines[next]);
+        next = 1 - next;
+        expected++;
+        long received;
+        while ((received = session.getUpdates()) < expected) {
+            Thread.onSpinWait();
+        }
+        return received;
+    }
+}
@@ -0,0 +1,58 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lightstreamer.bench.BenchFixtures;
+import com.lightstreamer.bench.MessageFixture;
+
+/**
+ * Throughput of the fire-and-forget messages (i.e. unordered messages without listener) sent on a WebSocket,
+ * through the lightweight path of sendMessage and through a MessageManager.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageBenchmark {
+
+    final String text = "BUY|ABC%2C DEF|100|3.04";
+
+    MessageFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchFixtures.mute();
+        fixture = new MessageFixture();
+        fixture.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public void fireAndForget() {
+        fixture.sendMessage(text);
+    }
+
+    @Benchmark
+    public void managed() {
+        fixture.sendManagedMessage(text);
+    }
+}
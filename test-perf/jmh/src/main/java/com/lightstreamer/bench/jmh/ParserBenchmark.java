@@ -0,0 +1,56 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lightstreamer.bench.BenchFixtures;
+import com.lightstreamer.bench.ParserFixture;
+
+/**
+ * Throughput (lines/sec) of the dispatch of the TLCP messages received by an active session,
+ * through ClientMachine.evtMessage and through the former split-based dispatcher.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+    ParserFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchFixtures.mute();
+        fixture = new ParserFixture();
+        fixture.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return fixture.dispatchNext();
+    }
+
+    @Benchmark
+    public boolean split() {
+        return fixture.dispatchNextWithSplit();
+    }
+}
@@ -0,0 +1,59 @@
+package com.lightstreamer.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lightstreamer.bench.TimerFixture;
+
+/**
+ * Throughput of the restarts of the timers of 500 clients, when the timers are started on the scheduler
+ * of the session threads (the default) and when they are started on the shared timing wheel
+ * (see LightstreamerClient.setTimerWheelEnabled).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TimerBenchmark {
+
+    @Param({ "false", "true" })
+    boolean wheel;
+
+    @Param({ "500" })
+    int clients;
+
+    @Param({ "8" })
+    int threads;
+
+    TimerFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new TimerFixture(wheel, clients, threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public void restartTimer() {
+        fixture.restartNext();
+    }
+}
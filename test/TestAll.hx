@@ -38,11 +38,18 @@ class TestAll {
     runner.addCase(TestEventDispatcher);
     runner.addCase(TestTimer);
     runner.addCase(TestExecutor);
+    #if java
+    runner.addCase(TestThreads);
+    runner.addCase(TestLineIterator);
+    #end
+    runner.addCase(TestEventBatcher);
     runner.addCase(TestUrl);
     runner.addCase(TestRequestBuilder);
     runner.addCase(TestMyArray);
     runner.addCase(TestOrderedIntMap);
+    runner.addCase(TestFieldBitSet);
     runner.addCase(TestRequest);
+    runner.addCase(TestMessageScanner);
     #if js
     runner.addCase(TestStreamReader);
     #end
@@ -98,6 +105,7 @@ class TestAll {
     runner.addCase(TestSendMessage);
     runner.addCase(TestStreamSense);
     runner.addCase(TestRecovery);
+    runner.addCase(TestKeepalive);
     runner.addCase(TestControlLink);
     #if LS_JSON_PATCH
     runner.addCase(TestJsonPatch);
@@ -16,6 +16,8 @@
 package com.lightstreamer.client;
 
 import com.lightstreamer.client.BaseListener;
+import com.lightstreamer.internal.NativeTypes.IllegalStateException;
+import com.lightstreamer.internal.NativeTypes.IllegalArgumentException;
 
 class TestJsonPatch extends utest.Test {
   var ws: MockWsClient;
@@ -639,6 +641,11 @@ class TestJsonPatch extends utest.Test {
       equals('{"x":2}', u.getValue("value"));
       equals(#if cs '[{"value":2,"path":"/x","op":"replace"}]' #else '[{"op":"replace","path":"/x","value":2}]' #end, patch2str(u.getValueAsJSONPatchIfAvailable("value")));
       equals(#if cs '[{"value":2,"path":"/x","op":"replace"}]' #else '[{"op":"replace","path":"/x","value":2}]' #end, patch2str(u.getValueAsJSONPatchIfAvailable(3)));
+      #if java
+      equals(2, u.getValueAsJSONNode(3).get("x").asInt());
+      raisesEx(() -> u.getValueAsJSONNode(0), IllegalArgumentException, "The field position is out of bounds");
+      raisesEx(() -> u.getValueAsJSONNode(4), IllegalArgumentException, "The field position is out of bounds");
+      #end
     })
     .then(() -> ws.onText("U,1,1,k1|DELETE"))
     .await("onItemUpdate", "control\r\nLS_reqId=3&LS_subId=2&LS_op=delete&LS_ack=false")
@@ -652,4 +659,65 @@ class TestJsonPatch extends utest.Test {
     .then(() -> async.completed())
     .verify();
   }
-}
\ No newline at end of file
+
+  #if java
+  function testJSONNode(async: utest.Async) {
+    var updates = new Array<ItemUpdate>();
+    exps
+    .then(() -> {
+      subListener._onItemUpdate = update -> {
+        updates.push(update);
+        exps.signal("onItemUpdate");
+      };
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=MERGE&LS_group=count&LS_schema=count&LS_snapshot=true&LS_ack=false")
+    .then(() -> {
+      ws.onText("SUBOK,1,1,1");
+      ws.onText('U,1,1,{"baz":"qux"}');
+      ws.onText('U,1,1,^P[{"op":"replace","path":"/baz","value":"boo"}]');
+    })
+    .await("onItemUpdate")
+    .await("onItemUpdate")
+    .then(() -> {
+      // a plain value is parsed
+      equals('{"baz":"qux"}', updates[0].getValueAsJSONNode(1).toString());
+      // a patched value is the tree held by the library
+      var node = updates[1].getValueAsJSONNode("count");
+      equals("boo", node.get("baz").asText());
+      // but a copy of it is returned, so modifying it affects neither this update nor the next patches
+      (cast node: com.fasterxml.jackson.databind.node.ObjectNode).put("baz", "hacked");
+      equals('{"baz":"boo"}', updates[1].getValue(1));
+      equals("boo", updates[1].getValueAsJSONNode(1).get("baz").asText());
+      ws.onText('U,1,1,^P[{"op":"add","path":"/hello","value":1}]');
+    })
+    .await("onItemUpdate")
+    .then(() -> {
+      equals('{"baz":"boo","hello":1}', updates[2].getValue(1));
+      equals('{"baz":"boo","hello":1}', updates[2].getValueAsJSONNode(1).toString());
+      ws.onText("U,1,1,foo");
+      ws.onText("U,1,1,#");
+    })
+    .await("onItemUpdate")
+    .await("onItemUpdate")
+    .then(() -> {
+      raisesEx(() -> updates[3].getValueAsJSONNode(1), IllegalStateException, "The value of the field is not valid JSON");
+      isNull(updates[4].getValueAsJSONNode(1));
+      isNull(updates[4].getValueAsJSONNode("count"));
+      raisesEx(() -> updates[4].getValueAsJSONNode(2), IllegalArgumentException, "The field position is out of bounds");
+      raisesEx(() -> updates[4].getValueAsJSONNode("foo"), IllegalArgumentException, "The field name is unknown");
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+  #end
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.client;
+
+import com.lightstreamer.client.BaseListener.BaseClientListener;
+
+class TestKeepalive extends utest.Test {
+  var ws: MockWsClient;
+  var scheduler: MockScheduler;
+  var client: LightstreamerClient;
+
+  function setup() {
+    ws = new MockWsClient(this);
+    scheduler = new MockScheduler(this);
+    client = new LightstreamerClient("http://server", "TEST", new TestFactory(this, ws, null, null, scheduler));
+  }
+
+  function teardown() {
+    client.disconnect();
+  }
+
+  function testTrafficPostponesKeepalive(async: utest.Async) {
+    scheduler.traceTimer("keepalive.timeout");
+    var listener = new BaseClientListener();
+    listener._onPropertyChange = property -> if (property == "serverSocketName") exps.signal(property);
+    client.addListener(listener);
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .await("schedule keepalive.timeout 5000")
+    .then(() -> {
+      // the deadline is moved to 7000, but the timer is not rescheduled
+      scheduler.advance(2000);
+      ws.onText("SERVNAME,server");
+    })
+    .await("serverSocketName")
+    .then(() -> {
+      // at 5000 the timer is rescheduled for the time left
+      scheduler.fireKeepaliveTimeout();
+    })
+    .await("schedule keepalive.timeout 2000")
+    .then(() -> {
+      // at 7000 the connection is stalled
+      scheduler.fireKeepaliveTimeout();
+      scheduler.fireStalledTimeout();
+      scheduler.fireReconnectTimeout();
+    })
+    .await("ws.dispose")
+    .then(() -> {
+      equals("DISCONNECTED:TRYING-RECOVERY", client.getStatus());
+      async.completed();
+    })
+    .verify();
+  }
+
+  function testTrafficPostponesReverseHeartbeat(async: utest.Async) {
+    scheduler.traceTimer("rhb.timeout");
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> client.connectionOptions.setReverseHeartbeatInterval(3000))
+    .await("schedule rhb.timeout 3000")
+    .then(() -> {
+      // the deadline is moved to 4000, but the timer is not rescheduled
+      scheduler.advance(1000);
+      client._sendMessage("foo");
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=foo&LS_outcome=false&LS_ack=false")
+    .then(() -> {
+      // at 3000 the timer is rescheduled for the time left
+      scheduler.fireRhbTimeout();
+    })
+    .await("schedule rhb.timeout 1000")
+    .then(() -> {
+      // at 4000 the heartbeat is sent
+      scheduler.fireRhbTimeout();
+    })
+    .await("heartbeat\r\n\r\n")
+    .await("schedule rhb.timeout 3000")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testReverseHeartbeatIntervalChange(async: utest.Async) {
+    scheduler.traceTimer("rhb.timeout");
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> client.connectionOptions.setReverseHeartbeatInterval(60000))
+    .await("schedule rhb.timeout 60000")
+    .then(() -> {
+      // the new interval doesn't affect the pending timer
+      scheduler.advance(1000);
+      client.connectionOptions.setReverseHeartbeatInterval(5000);
+      // but it applies from the next restart of the heartbeat, which reschedules the timer because the deadline is earlier
+      scheduler.advance(1000);
+      client._sendMessage("foo");
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=foo&LS_outcome=false&LS_ack=false")
+    .await("schedule rhb.timeout 5000")
+    .then(() -> scheduler.fireRhbTimeout())
+    .await("heartbeat\r\n\r\n")
+    .await("schedule rhb.timeout 5000")
+    .then(() -> async.completed())
+    .verify();
+  }
+}
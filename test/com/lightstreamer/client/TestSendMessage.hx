@@ -16,15 +16,18 @@
 package com.lightstreamer.client;
 
 import com.lightstreamer.client.BaseListener;
+import com.lightstreamer.internal.NativeTypes.IllegalArgumentException;
 
 class TestSendMessage extends utest.Test {
   var ws: MockWsClient;
+  var scheduler: MockScheduler;
   var client: LightstreamerClient;
   var msgListener: BaseMessageListener;
 
   function setup() {
     ws = new MockWsClient(this);
-    client = new LightstreamerClient("http://server", "TEST", new TestFactory(this, ws));
+    scheduler = new MockScheduler(this);
+    client = new LightstreamerClient("http://server", "TEST", new TestFactory(this, ws, null, null, scheduler));
     msgListener = new BaseMessageListener();
     msgListener._onAbort = (msg, sentOnNetwork) -> exps.signal('onAbort $msg');
     msgListener._onDeny = (msg, code, error) -> exps.signal('onDeny $msg $code $error');
@@ -105,6 +108,28 @@ class TestSendMessage extends utest.Test {
     .verify();
   }
 
+  function testRequest_FireAndForgetIsNotTracked(async: utest.Async) {
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      client._sendMessage("foo bar");
+      client._sendMessage("zap");
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=foo%20bar&LS_outcome=false&LS_ack=false")
+    .await("msg\r\nLS_reqId=2&LS_message=zap&LS_outcome=false&LS_ack=false")
+    .then(() -> equals(0, @:privateAccess client.machine.messageManagers.length))
+    .then(() -> async.completed())
+    .verify();
+  }
+
   function testEnqueueWhileDisconnected_eq_false_InDisconnected(async: utest.Async) {
     exps
     .then(() -> {
@@ -460,4 +485,173 @@ class TestSendMessage extends utest.Test {
     .then(() -> async.completed())
     .verify();
   }
-}
\ No newline at end of file
+
+  function testREQOK_REQERR_Routing(async: utest.Async) {
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      client._sendMessage("m1", "seq", msgListener);
+      client._sendMessage("m2", "seq", msgListener);
+      client._sendMessage("m3", "seq");
+      client._sendMessage("m4", "seq", msgListener);
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=m1&LS_sequence=seq&LS_msg_prog=1")
+    .await("msg\r\nLS_reqId=2&LS_message=m2&LS_sequence=seq&LS_msg_prog=2")
+    .await("msg\r\nLS_reqId=3&LS_message=m3&LS_outcome=false&LS_sequence=seq&LS_msg_prog=3")
+    .await("msg\r\nLS_reqId=4&LS_message=m4&LS_sequence=seq&LS_msg_prog=4")
+    .then(() -> {
+      ws.onText("REQERR,2,-5,error");
+      ws.onText("REQOK,3");
+      ws.onText("REQOK,1");
+      // NB a response is delivered once, so the repeated ones are ignored
+      ws.onText("REQERR,1,-5,late");
+      ws.onText("REQERR,2,-5,late");
+      ws.onText("REQERR,4,-5,error");
+    })
+    .await("onError m2")
+    .await("onError m4")
+    .then(() -> {
+      isFalse(@:privateAccess client.machine.msgRequests.iterator().hasNext());
+      // only the message waiting for its outcome is still tracked
+      equals(1, @:privateAccess client.machine.messageManagers.length);
+      equals(0, @:privateAccess client.machine.getPendingMessages().length);
+      ws.onText("MSGDONE,seq,1,ok");
+    })
+    .await("onProcessed m1 ok")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testREQERR_AfterSessionChange(async: utest.Async) {
+    exps
+    .then(() -> {
+      client.connectionOptions.setSessionRecoveryTimeout(0);
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      client._sendMessage("m1", "seq", msgListener);
+      client._sendMessage("m2", "seq");
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=m1&LS_sequence=seq&LS_msg_prog=1")
+    .await("msg\r\nLS_reqId=2&LS_message=m2&LS_outcome=false&LS_sequence=seq&LS_msg_prog=2")
+    .then(() -> {
+      ws.onError();
+      scheduler.fireRetryTimeout();
+    })
+    .await("ws.dispose")
+    .await("onAbort m1", "ws.init http://server/lightstreamer")
+    .then(() -> {
+      // the requests of the closed session are forgotten
+      isFalse(@:privateAccess client.machine.msgRequests.iterator().hasNext());
+      equals(0, @:privateAccess client.machine.getPendingMessages().length);
+      ws.onOpen();
+    })
+    .await("wsok")
+    .await("create_session\r\nLS_keepalive_millis=5000&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_old_session=sid&LS_send_sync=false&LS_cause=ws.error")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+      client._sendMessage("m3", "seq", msgListener);
+    })
+    .await("msg\r\nLS_reqId=3&LS_message=m3&LS_sequence=seq&LS_msg_prog=1")
+    .then(() -> {
+      // the late response of the previous session is ignored
+      ws.onText("REQERR,1,-5,late");
+      ws.onText("REQERR,3,-5,error");
+    })
+    .await("onError m3")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  #if java
+  function testSendMessages(async: utest.Async) {
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> client.sendMessages(new com.lightstreamer.internal.NativeTypes.NativeList(["m1", "m2", "m3"]), "seq", -1, msgListener, false))
+    .await("msg\r\nLS_reqId=1&LS_message=m1&LS_sequence=seq&LS_msg_prog=1\r\nLS_reqId=2&LS_message=m2&LS_sequence=seq&LS_msg_prog=2\r\nLS_reqId=3&LS_message=m3&LS_sequence=seq&LS_msg_prog=3")
+    .then(() -> client.sendMessages(new com.lightstreamer.internal.NativeTypes.NativeList(["m4", "m5"]), null, -1, null, false))
+    .await("msg\r\nLS_reqId=4&LS_message=m4&LS_outcome=false&LS_ack=false\r\nLS_reqId=5&LS_message=m5&LS_outcome=false&LS_ack=false")
+    .then(() -> ws.onText("MSGDONE,seq,3,ok"))
+    .await("onProcessed m3 ok")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testSendMessagesChecksFirst(async: utest.Async) {
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      // when the sequence is not valid, no message is sent
+      raises(() -> client.sendMessages(new com.lightstreamer.internal.NativeTypes.NativeList(["m1", "m2"]), "s-q", -1, msgListener, false), IllegalArgumentException);
+      client.sendMessages(new com.lightstreamer.internal.NativeTypes.NativeList(["m3"]), "seq", -1, msgListener, false);
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=m3&LS_sequence=seq&LS_msg_prog=1")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testMessageLinger(async: utest.Async) {
+    exps
+    .then(() -> {
+      client.connectionOptions.setMessageLingerMillis(100);
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      client._sendMessage("m1");
+      client._sendMessage("m2", msgListener);
+      client._sendMessage("m3", "seq", msgListener);
+      scheduler.fireLingerTimeout();
+    })
+    .await("msg\r\nLS_reqId=1&LS_message=m1&LS_outcome=false&LS_ack=false\r\nLS_reqId=2&LS_message=m2&LS_msg_prog=1\r\nLS_reqId=3&LS_message=m3&LS_sequence=seq&LS_msg_prog=1")
+    .then(() -> {
+      client._sendMessage("m4", "seq", msgListener);
+      scheduler.fireLingerTimeout();
+    })
+    .await("msg\r\nLS_reqId=4&LS_message=m4&LS_sequence=seq&LS_msg_prog=2")
+    .then(() -> {
+      client.connectionOptions.setMessageLingerMillis(0);
+      client._sendMessage("m5");
+    })
+    .await("msg\r\nLS_reqId=5&LS_message=m5&LS_outcome=false&LS_ack=false")
+    .then(() -> async.completed())
+    .verify();
+  }
+  #end
+}
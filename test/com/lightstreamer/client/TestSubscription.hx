@@ -156,6 +156,27 @@ class TestSubscription extends utest.Test {
     equals("sel", sub.getSelector());
   }
 
+  #if java
+  function testConflation() {
+    equals(false, sub.isConflationEnabled());
+    sub.setConflationEnabled(true);
+    equals(true, sub.isConflationEnabled());
+
+    var sub = new Subscription("DISTINCT", ["i1"], ["f1"]);
+    raisesEx(() -> sub.setConflationEnabled(true), IllegalStateException, "This method can only be used on MERGE subscriptions");
+  }
+
+  function testMaxPendingUpdates() {
+    equals(0, sub.getMaxPendingUpdates());
+    sub.setMaxPendingUpdates(10);
+    equals(10, sub.getMaxPendingUpdates());
+    raisesEx(() -> sub.setMaxPendingUpdates(-1), IllegalArgumentException, "The given value is not valid. Use 0 or a positive number");
+
+    var sub = new Subscription("COMMAND", ["i1"], ["key", "command"]);
+    raisesEx(() -> sub.setMaxPendingUpdates(10), IllegalStateException, "This method cannot be used on COMMAND subscriptions");
+  }
+  #end
+
   function testCommandPosition() {
     raisesEx(() -> sub.getCommandPosition(), IllegalArgumentException, "This method can only be used on COMMAND subscriptions");
   }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.client.internal;
+
+import com.lightstreamer.client.internal.ParseTools;
+
+class TestMessageScanner extends utest.Test {
+
+  function testInts() {
+    var args = new MessageScanner("SUBCMD,1,2,30,-4,5", "SUBCMD".length);
+    equals(1, args.nextInt());
+    equals(2, args.nextInt());
+    equals(30, args.nextInt());
+    equals(-4, args.nextInt());
+    equals(5, args.nextInt());
+  }
+
+  function testStrings() {
+    var args = new MessageScanner("CONOK,S1,50000,5000,*", "CONOK".length);
+    equals("S1", args.nextString());
+    equals(50000, args.nextInt());
+    equals(5000, args.nextInt());
+    equals("*", args.nextString());
+  }
+
+  function testEmptyString() {
+    var args = new MessageScanner("MSGDONE,*,1,", "MSGDONE".length);
+    equals("*", args.nextString());
+    equals(1, args.nextInt());
+    equals("", args.nextString());
+  }
+
+  function testInvalidInt() {
+    raises(() -> new MessageScanner("PROG,", "PROG".length).nextInt());
+    raises(() -> new MessageScanner("PROG,1x", "PROG".length).nextInt());
+    raises(() -> new MessageScanner("PROG,-", "PROG".length).nextInt());
+  }
+
+  function testUpdate() {
+    var update = parseUpdate("U,12,3,a|b");
+    equals(12, update.subId);
+    equals(3, update.itemIdx);
+  }
+}
@@ -40,4 +40,17 @@ class TestRequest extends utest.Test {
     equals(10, req.getByteSize());
     equals("🌉\r\n🌐", req.getBody());
   }
+
+  function testIncrementalBody() {
+    var req = new Request();
+    req.addSubRequest("a");
+    equals("a", req.getBody());
+    req.addSubRequest("è");
+    equals(5, req.getByteSize());
+    equals("a\r\nè", req.getBody());
+    equals(true, req.addSubRequestOnlyIfBodyIsLessThan("b", 9));
+    equals(false, req.addSubRequestOnlyIfBodyIsLessThan("c", 9));
+    equals(8, req.getByteSize());
+    equals("a\r\nè\r\nb", req.getBody());
+  }
 }
\ No newline at end of file
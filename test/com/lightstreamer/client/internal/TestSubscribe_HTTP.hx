@@ -65,6 +65,62 @@ class TestSubscribe_HTTP extends utest.Test {
     .verify();
   }
 
+  #if java
+  function testConcurrentControls(async: utest.Async) {
+    // NB each control request gets its own client, so that they can be closed independently
+    ctrl = new MockHttpClient(this, "ctrl", true);
+    client = new LightstreamerClient("http://server", "TEST", new TestFactory(this, ws, http, ctrl, scheduler));
+    client.connectionOptions.setForcedTransport("HTTP-STREAMING");
+    var sub2 = new Subscription("DISTINCT", ["item2"], ["f1", "f2"]);
+    sub2.setRequestedSnapshot("no");
+    var sub3 = new Subscription("DISTINCT", ["item3"], ["f1", "f2"]);
+    sub3.setRequestedSnapshot("no");
+    exps
+    .then(() -> {
+      client.connectionOptions.setMaxConcurrentControlRequests(2);
+      client.subscribe(sub);
+      client.subscribe(sub2);
+      client.connect();
+    })
+    .await("http.send http://server/lightstreamer/create_session.txt?LS_protocol=TLCP-2.5.0\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_cause=api")
+    .then(() -> {
+      // NB the request limit only allows one subscription per request
+      http.onText("CONOK,sid,70000,150,*");
+      http.onText("LOOP,0");
+    })
+    .await("http.dispose")
+    .await("http.send http://server/lightstreamer/bind_session.txt?LS_protocol=TLCP-2.5.0\r\nLS_session=sid&LS_content_length=50000000&LS_send_sync=false&LS_cause=http.loop")
+    .await(
+      "ctrl.send http://server/lightstreamer/control.txt?LS_protocol=TLCP-2.5.0&LS_session=sid\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false",
+      "ctrl.send http://server/lightstreamer/control.txt?LS_protocol=TLCP-2.5.0&LS_session=sid\r\nLS_reqId=2&LS_op=add&LS_subId=2&LS_mode=DISTINCT&LS_group=item2&LS_schema=f1%20f2&LS_snapshot=false")
+    .then(() -> {
+      equals(2, ctrl.requests.length);
+      ctrl.requests[0].onText("REQOK,1");
+      ctrl.requests[0].onDone();
+    })
+    .await("ctrl.dispose")
+    .then(() -> {
+      isTrue(ctrl.requests[0].disposed);
+      isFalse(ctrl.requests[1].disposed);
+      // while a request is still in flight, the new controls wait
+      client.subscribe(sub3);
+    })
+    .then(() -> {
+      ctrl.requests[1].onText("REQOK,2");
+      ctrl.requests[1].onDone();
+    })
+    .await("ctrl.dispose")
+    .await("ctrl.send http://server/lightstreamer/control.txt?LS_protocol=TLCP-2.5.0&LS_session=sid\r\nLS_reqId=3&LS_op=add&LS_subId=3&LS_mode=DISTINCT&LS_group=item3&LS_schema=f1%20f2&LS_snapshot=false")
+    .then(() -> {
+      equals(3, ctrl.requests.length);
+      isTrue(ctrl.requests[1].disposed);
+      isFalse(ctrl.requests[2].disposed);
+      async.completed();
+    })
+    .verify();
+  }
+  #end
+
   function testREQERR(async: utest.Async) {
     exps
     .then(() -> {
@@ -17,6 +17,8 @@ package com.lightstreamer.client.internal;
 
 import com.lightstreamer.client.BaseListener.BaseSubscriptionListener;
 import com.lightstreamer.client.BaseListener.BaseClientListener;
+import com.lightstreamer.internal.NativeTypes.IllegalArgumentException;
+import com.lightstreamer.internal.NativeTypes.IllegalStateException;
 
 class TestSubscribe_WS extends utest.Test {
   var client: LightstreamerClient;
@@ -65,6 +67,69 @@ class TestSubscribe_WS extends utest.Test {
     .verify();
   }
 
+  #if java
+  function testSubscribeAll(async: utest.Async) {
+    var sub2 = new Subscription("DISTINCT", ["item2"], ["f1", "f2"]);
+    sub2.setRequestedSnapshot("no");
+    var subListener2 = new BaseSubscriptionListener();
+    sub2.addListener(subListener2);
+    exps
+    .then(() -> {
+      subListener._onSubscription = () -> exps.signal("onSubscription 1");
+      subListener2._onSubscription = () -> exps.signal("onSubscription 2");
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .then(() -> client.subscribeAll(new com.lightstreamer.internal.NativeTypes.NativeList([sub, sub2])))
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false\r\nLS_reqId=2&LS_op=add&LS_subId=2&LS_mode=DISTINCT&LS_group=item2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      ws.onText("SUBOK,1,1,2");
+      ws.onText("SUBOK,2,1,2");
+    })
+    .await("onSubscription 1", "onSubscription 2")
+    .then(() -> client.unsubscribeAll(new com.lightstreamer.internal.NativeTypes.NativeList([sub, sub2])))
+    .await("control\r\nLS_reqId=3&LS_subId=1&LS_op=delete&LS_ack=false\r\nLS_reqId=4&LS_subId=2&LS_op=delete&LS_ack=false")
+    .then(() -> {
+      isFalse(sub.isActive());
+      isFalse(sub2.isActive());
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testSubscribeAllChecksFirst(async: utest.Async) {
+    var invalid = new Subscription("DISTINCT", ["item2"], null);
+    exps
+    .then(() -> {
+      client.connect();
+      ws.onOpen();
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("ws.init http://server/lightstreamer")
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      // when a subscription is not valid, none is subscribed
+      raises(() -> client.subscribeAll(new com.lightstreamer.internal.NativeTypes.NativeList([sub, invalid])), IllegalArgumentException);
+      isFalse(sub.isActive());
+      raises(() -> client.subscribeAll(new com.lightstreamer.internal.NativeTypes.NativeList([sub, sub])), IllegalStateException);
+      isFalse(sub.isActive());
+      client.subscribe(sub);
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> async.completed())
+    .verify();
+  }
+  #end
+
   function testSubscribeFieldWithPlus(async: utest.Async) {
     exps
     .then(() -> {
@@ -644,6 +709,161 @@ class TestSubscribe_WS extends utest.Test {
     .verify();
   }
 
+  /**
+   * Test that REQOK and REQERR are delivered only to the subscriptions that sent the requests.
+   */
+  function testREQOK_REQERR_Routing(async: utest.Async) {
+    var sub2 = new Subscription("DISTINCT", ["item2"], ["f1", "f2"]);
+    sub2.setRequestedSnapshot("no");
+    var subListener2 = new BaseSubscriptionListener();
+    sub2.addListener(subListener2);
+    var sub3 = new Subscription("DISTINCT", ["item3"], ["f1", "f2"]);
+    sub3.setRequestedSnapshot("no");
+    var subListener3 = new BaseSubscriptionListener();
+    sub3.addListener(subListener3);
+    exps
+    .then(() -> {
+      subListener._onSubscriptionError = (code, msg) -> exps.signal('onError 1 $code $msg');
+      subListener2._onSubscriptionError = (code, msg) -> exps.signal('onError 2 $code $msg');
+      subListener3._onSubscriptionError = (code, msg) -> exps.signal('onError 3 $code $msg');
+      client.subscribe(sub);
+      client.subscribe(sub2);
+      client.subscribe(sub3);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false\r\nLS_reqId=2&LS_op=add&LS_subId=2&LS_mode=DISTINCT&LS_group=item2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false\r\nLS_reqId=3&LS_op=add&LS_subId=3&LS_mode=DISTINCT&LS_group=item3&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      ws.onText("REQERR,2,-5,error");
+      ws.onText("REQOK,1");
+      // NB a response is delivered once, so the repeated ones are ignored
+      ws.onText("REQERR,1,-5,late");
+      ws.onText("REQERR,2,-5,late");
+      ws.onText("REQERR,3,-5,error");
+    })
+    .await("onError 2 -5 error")
+    .await("onError 3 -5 error")
+    .then(() -> {
+      isTrue(sub.isActive());
+      isFalse(sub2.isActive());
+      isFalse(sub3.isActive());
+      isFalse(@:privateAccess client.machine.subRequests.exists(1));
+      isFalse(@:privateAccess client.machine.subRequests.exists(2));
+      isFalse(@:privateAccess client.machine.subRequests.exists(3));
+      isFalse(@:privateAccess client.machine.pendingSubManagers.exists(2));
+      isFalse(@:privateAccess client.machine.pendingSubManagers.exists(3));
+      // the subscription that is no longer pending is dropped when the pending controls are collected
+      equals(0, @:privateAccess client.machine.getPendingControls().length);
+      isFalse(@:privateAccess client.machine.pendingSubManagers.exists(1));
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  /**
+   * Test that the requests of the subscriptions that are never answered are dropped once the subscriptions are released.
+   */
+  function testSubRequestsCleanup(async: utest.Async) {
+    exps
+    .then(() -> {
+      subListener._onSubscriptionError = (code, msg) -> exps.signal('onError $code $msg');
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      var machine = @:privateAccess client.machine;
+      // the requests of a subscription that doesn't exist (any more) are never answered
+      for (_ in 0...100) {
+        machine.generateFreshSubReqId(1000);
+      }
+      isTrue(@:privateAccess machine.subRequestsCount < 100);
+      isTrue(@:privateAccess machine.subRequests.exists(1));
+      ws.onText("REQERR,1,-5,error");
+    })
+    .await("onError -5 error")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  /**
+   * Test that the subscriptions are sent again after a session is aborted and that the late responses are ignored.
+   */
+  function testSubscribeAgainAfterAbort(async: utest.Async) {
+    var sub2 = new Subscription("DISTINCT", ["item2"], ["f1", "f2"]);
+    sub2.setRequestedSnapshot("no");
+    var subListener2 = new BaseSubscriptionListener();
+    sub2.addListener(subListener2);
+    exps
+    .then(() -> {
+      subListener._onSubscription = () -> exps.signal("onSubscription 1");
+      subListener2._onSubscriptionError = (code, msg) -> exps.signal('onError 2 $code $msg');
+      client.connectionOptions.setSessionRecoveryTimeout(0);
+      client.subscribe(sub);
+      client.subscribe(sub2);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false\r\nLS_reqId=2&LS_op=add&LS_subId=2&LS_mode=DISTINCT&LS_group=item2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> ws.onText("SUBOK,1,1,2"))
+    .await("onSubscription 1")
+    .then(() -> {
+      ws.onError();
+      scheduler.fireRetryTimeout();
+    })
+    .await("ws.dispose")
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> {
+      // the requests of the closed session are forgotten
+      isFalse(@:privateAccess client.machine.subRequests.exists(1));
+      isFalse(@:privateAccess client.machine.subRequests.exists(2));
+      ws.onOpen();
+    })
+    .await("wsok")
+    .await("create_session\r\nLS_keepalive_millis=5000&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_old_session=sid&LS_send_sync=false&LS_cause=ws.error")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    // NB both the subscribed and the pending subscriptions are sent again
+    .await("control\r\nLS_reqId=3&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=item&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false\r\nLS_reqId=4&LS_op=add&LS_subId=2&LS_mode=DISTINCT&LS_group=item2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      // the late response of the previous session is ignored
+      ws.onText("REQERR,2,-5,late");
+      ws.onText("SUBOK,1,1,2");
+      ws.onText("REQERR,4,-5,error");
+    })
+    .await("onSubscription 1", "onError 2 -5 error")
+    .then(() -> {
+      isTrue(sub.isSubscribed());
+      isFalse(sub2.isActive());
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+
   /**
    * Test that the unsubscriptions made in a session don't leak in the next session.
    */
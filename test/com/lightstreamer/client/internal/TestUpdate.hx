@@ -18,6 +18,7 @@ package com.lightstreamer.client.internal;
 import com.lightstreamer.client.BaseListener.BaseSubscriptionListener;
 import com.lightstreamer.client.internal.ParseTools;
 import com.lightstreamer.internal.Types.FieldValue;
+import com.lightstreamer.internal.Threads;
 
 class TestUpdate extends utest.Test {
   var client: LightstreamerClient;
@@ -91,9 +92,9 @@ class TestUpdate extends utest.Test {
     equals(3, parseUpdate("U,3,1,abc").subId);
     equals(1, parseUpdate("U,3,1,abc").itemIdx);
 
-    equals([1 => changed("abc")], parseUpdate("U,3,1,abc").values);
-    equals([1 => changed("😀")], parseUpdate("U,3,1,😀").values);
-    equals([1 => changed("baràè%#$^")], parseUpdate("U,3,1,bar%c3%a0%C3%A8%25%23%24%5E").values);
+    equals([1 => changed("abc")], parseUpdate("U,3,1,abc").values.toMap());
+    equals([1 => changed("😀")], parseUpdate("U,3,1,😀").values.toMap());
+    equals([1 => changed("baràè%#$^")], parseUpdate("U,3,1,bar%c3%a0%C3%A8%25%23%24%5E").values.toMap());
 
     equals([
       1 => changed("20:00:33"),
@@ -106,7 +107,7 @@ class TestUpdate extends utest.Test {
       8 => changed(null),
       9 => changed(null),
       10 => changed(""),
-    ], parseUpdate("U,3,1,20:00:33|3.04|0.0|2.41|3.67|3.03|3.04|#|#|$").values);
+    ], parseUpdate("U,3,1,20:00:33|3.04|0.0|2.41|3.67|3.03|3.04|#|#|$").values.toMap());
     
     equals([
         1 => changed("20:00:54"),
@@ -119,7 +120,7 @@ class TestUpdate extends utest.Test {
         8 => unchanged,
         9 => unchanged,
         10 => changed("Suspended"),
-    ], parseUpdate("U,3,1,20:00:54|3.07|0.98|||3.06|3.07|||Suspended").values);
+    ], parseUpdate("U,3,1,20:00:54|3.07|0.98|||3.06|3.07|||Suspended").values.toMap());
     
     equals([
         1 => changed("20:04:16"),
@@ -132,7 +133,7 @@ class TestUpdate extends utest.Test {
         8 => unchanged,
         9 => unchanged,
         10 => changed(""),
-    ], parseUpdate("U,3,1,20:04:16|3.02|-0.65|||3.01|3.02|||$").values);
+    ], parseUpdate("U,3,1,20:04:16|3.02|-0.65|||3.01|3.02|||$").values.toMap());
     
     equals([
         1 => changed("20:06:10"),
@@ -145,7 +146,7 @@ class TestUpdate extends utest.Test {
         8 => unchanged,
         9 => unchanged,
         10 => unchanged,
-    ], parseUpdate("U,3,1,20:06:10|3.05|0.32|^7").values);
+    ], parseUpdate("U,3,1,20:06:10|3.05|0.32|^7").values.toMap());
     
     equals([
         1 => changed("20:06:49"),
@@ -158,7 +159,7 @@ class TestUpdate extends utest.Test {
         8 => unchanged,
         9 => unchanged,
         10 => unchanged,
-    ], parseUpdate("U,3,1,20:06:49|3.08|1.31|||3.08|3.09|||").values);
+    ], parseUpdate("U,3,1,20:06:49|3.08|1.31|||3.08|3.09|||").values.toMap());
   }
 
   function testNull(async: utest.Async) {
@@ -554,6 +555,228 @@ class TestUpdate extends utest.Test {
     .verify();
   }
 
+  #if java
+  function testMERGE_Conflation(async: utest.Async) {
+    // the listener is stuck on the first update until the others have been received
+    var gate = new java.util.concurrent.CountDownLatch(1);
+    subListener._onItemUpdate = update -> {
+      updates.push(update);
+      exps.signal("onItemUpdate");
+      if (updates.length == 1) {
+        gate.await();
+      }
+    };
+    exps
+    .then(() -> {
+      sub = new Subscription("MERGE", ["i1", "i2"], ["f1", "f2"]);
+      sub.setRequestedSnapshot("no");
+      sub.setConflationEnabled(true);
+      sub.addListener(subListener);
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=MERGE&LS_group=i1%20i2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      ws.onText("SUBOK,1,2,2");
+      ws.onText("U,1,1,a|b");
+    })
+    .await("onItemUpdate")
+    .then(() -> {
+      ws.onText("U,1,2,c|d");
+      ws.onText("U,1,1,A|");
+      ws.onText("U,1,2,|D");
+      ws.onText("U,1,1,|B");
+      // NB the gate is opened by the session thread after the updates above
+      sessionThread.submit(() -> gate.countDown());
+    })
+    .await("onItemUpdate")
+    .await("onItemUpdate")
+    .then(() -> {
+      strictEquals(3, updates.length);
+      var u = updates[1];
+      strictEquals("i2", u.getItemName());
+      strictEquals(["f1"=>"c","f2"=>"D"], u.getChangedFields());
+      strictEquals(["f1"=>"c","f2"=>"D"], u.getFields());
+      u = updates[2];
+      strictEquals("i1", u.getItemName());
+      strictEquals(["f1"=>"A","f2"=>"B"], u.getChangedFields());
+      strictEquals(["f1"=>"A","f2"=>"B"], u.getFields());
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testMERGE_Conflation_RemoveListener(async: utest.Async) {
+    // the listener is stuck on the first update until the others have been received
+    var gate = new java.util.concurrent.CountDownLatch(1);
+    subListener._onItemUpdate = update -> {
+      updates.push(update);
+      exps.signal("onItemUpdate");
+      if (updates.length == 1) {
+        gate.await();
+      }
+    };
+    exps
+    .then(() -> {
+      sub = new Subscription("MERGE", ["i1", "i2"], ["f1", "f2"]);
+      sub.setRequestedSnapshot("no");
+      sub.setConflationEnabled(true);
+      sub.addListener(subListener);
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=MERGE&LS_group=i1%20i2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      ws.onText("SUBOK,1,2,2");
+      ws.onText("U,1,1,a|b");
+    })
+    .await("onItemUpdate")
+    .then(() -> {
+      ws.onText("U,1,2,c|d");
+      // NB once the listener is removed, its pending update is forgotten and the next one is not merged with it
+      sessionThread.submit(() -> {
+        sub.removeListener(subListener);
+        sub.addListener(subListener);
+      });
+      ws.onText("U,1,2,|D");
+      sessionThread.submit(() -> gate.countDown());
+    })
+    .await("onItemUpdate")
+    .await("onItemUpdate")
+    .then(() -> {
+      strictEquals(3, updates.length);
+      var u = updates[1];
+      strictEquals("i2", u.getItemName());
+      strictEquals(["f1"=>"c","f2"=>"d"], u.getFields());
+      u = updates[2];
+      strictEquals("i2", u.getItemName());
+      strictEquals(["f2"=>"D"], u.getChangedFields());
+      strictEquals(["f1"=>"c","f2"=>"D"], u.getFields());
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testDISTINCT_MaxPendingUpdates(async: utest.Async) {
+    // the listener is stuck on the first update until the others have been received
+    var gate = new java.util.concurrent.CountDownLatch(1);
+    subListener._onItemUpdate = update -> {
+      updates.push(update);
+      exps.signal('onItemUpdate ${update.getValue(1)}');
+      if (updates.length == 1) {
+        gate.await();
+      }
+    };
+    subListener._onItemLostUpdates = (name, pos, lost) -> exps.signal('onItemLostUpdates $name $pos $lost');
+    exps
+    .then(() -> {
+      sub = new Subscription("DISTINCT", ["i1", "i2"], ["f1", "f2"]);
+      sub.setRequestedSnapshot("no");
+      sub.setMaxPendingUpdates(2);
+      sub.addListener(subListener);
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=i1%20i2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      ws.onText("SUBOK,1,2,2");
+      ws.onText("U,1,1,a|b");
+    })
+    .await("onItemUpdate a")
+    .then(() -> {
+      ws.onText("U,1,2,c|d");
+      ws.onText("U,1,2,e|f");
+      ws.onText("U,1,2,g|h");
+      ws.onText("U,1,2,i|j");
+      // NB the gate is opened by the session thread after the updates above
+      sessionThread.submit(() -> gate.countDown());
+    })
+    .await("onItemLostUpdates i2 2 2")
+    .await("onItemUpdate g")
+    .await("onItemUpdate i")
+    .then(() -> async.completed())
+    .verify();
+  }
+
+  function testDISTINCT_MaxPendingUpdates_RemoveListener(async: utest.Async) {
+    // the listener is stuck on the first update until the others have been received
+    var gate = new java.util.concurrent.CountDownLatch(1);
+    subListener._onItemUpdate = update -> {
+      updates.push(update);
+      exps.signal('onItemUpdate ${update.getValue(1)}');
+      if (updates.length == 1) {
+        gate.await();
+      }
+    };
+    subListener._onItemLostUpdates = (name, pos, lost) -> exps.signal('onItemLostUpdates $name $pos $lost');
+    exps
+    .then(() -> {
+      sub = new Subscription("DISTINCT", ["i1", "i2"], ["f1", "f2"]);
+      sub.setRequestedSnapshot("no");
+      sub.setMaxPendingUpdates(2);
+      sub.addListener(subListener);
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=DISTINCT&LS_group=i1%20i2&LS_schema=f1%20f2&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      ws.onText("SUBOK,1,2,2");
+      ws.onText("U,1,1,a|b");
+    })
+    .await("onItemUpdate a")
+    .then(() -> {
+      ws.onText("U,1,2,c|d");
+      ws.onText("U,1,2,e|f");
+      // NB once the listener is removed, its queue is forgotten and the next updates do not count against it
+      sessionThread.submit(() -> {
+        sub.removeListener(subListener);
+        sub.addListener(subListener);
+      });
+      ws.onText("U,1,2,g|h");
+      ws.onText("U,1,2,i|j");
+      sessionThread.submit(() -> gate.countDown());
+    })
+    .await("onItemUpdate c")
+    .await("onItemUpdate e")
+    .await("onItemUpdate g")
+    .await("onItemUpdate i")
+    .then(() -> async.completed())
+    .verify();
+  }
+  #end
+
   function testDISTINCT(async: utest.Async) {
     exps
     .then(() -> {
@@ -993,6 +1216,48 @@ class TestUpdate extends utest.Test {
     .verify();
   }
 
+  function testCOMMAND_UPDATE_SameKey(async: utest.Async) {
+    exps
+    .then(() -> {
+      sub = new Subscription("COMMAND", ["i1", "i2"], ["f1", "f2", "key", "command"]);
+      sub.setRequestedSnapshot("no");
+      sub.addListener(subListener);
+      client.subscribe(sub);
+      client.connect();
+    })
+    .await("ws.init http://server/lightstreamer")
+    .then(() -> ws.onOpen())
+    .await("wsok")
+    .await("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg&LS_send_sync=false&LS_cause=api")
+    .then(() -> {
+      ws.onText("WSOK");
+      ws.onText("CONOK,sid,70000,5000,*");
+    })
+    .await("control\r\nLS_reqId=1&LS_op=add&LS_subId=1&LS_mode=COMMAND&LS_group=i1%20i2&LS_schema=f1%20f2%20key%20command&LS_snapshot=false&LS_ack=false")
+    .then(() -> {
+      // NB the updates of the same key are compared through the incoming values
+      ws.onText("SUBCMD,1,2,4,3,4");
+      ws.onText("U,1,1,a|b|k1|ADD");
+      ws.onText("U,1,1,|B||");
+      ws.onText("U,1,1,A|||");
+    })
+    .await("onItemUpdate")
+    .await("onItemUpdate")
+    .await("onItemUpdate")
+    .then(() -> {
+      strictEquals(3, updates.length);
+      var u = updates[1];
+      strictEquals([1=>"a",2=>"B",3=>"k1",4=>"UPDATE"], u.getFieldsByPosition());
+      // the unchanged command is still turned from ADD into UPDATE
+      strictEquals([2=>"B",4=>"UPDATE"], u.getChangedFieldsByPosition());
+      u = updates[2];
+      strictEquals([1=>"A",2=>"B",3=>"k1",4=>"UPDATE"], u.getFieldsByPosition());
+      strictEquals([1=>"A"], u.getChangedFieldsByPosition());
+    })
+    .then(() -> async.completed())
+    .verify();
+  }
+
   function testCOMMAND_DELETE(async: utest.Async) {
     exps
     .then(() -> {
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import com.lightstreamer.internal.Executor;
+
+class TestEventBatcher extends utest.Test {
+
+  function testOrder(async: utest.Async) {
+    for (i in 0...100) {
+      exps.await('$i');
+    }
+    exps
+    .then(() -> async.completed())
+    .verify();
+
+    var batcher = new EventBatcher(new Executor(), new RLock(), 7);
+    for (i in 0...100) {
+      batcher.post(() -> exps.signal('$i'));
+    }
+  }
+
+  function testInterleaving(async: utest.Async) {
+    exps
+    .await("e0")
+    .await("e1")
+    // the batch is full, so the task submitted in the meantime runs before the rest of the events
+    .await("task")
+    .await("e2")
+    .then(() -> async.completed())
+    .verify();
+
+    var exec = new Executor();
+    var batcher = new EventBatcher(exec, new RLock(), 2);
+    // blocks the executor until all the events have been posted
+    var gate = new RLock();
+    gate.acquire();
+    exec.submit(() -> gate.synchronized(() -> {}));
+    for (i in 0...3) {
+      batcher.post(() -> exps.signal('e$i'));
+    }
+    exec.submit(() -> exps.signal("task"));
+    gate.release();
+  }
+
+  function testError(async: utest.Async) {
+    exps
+    .await("before")
+    .await("after")
+    .then(() -> async.completed())
+    .verify();
+
+    var batcher = new EventBatcher(new Executor(), new RLock());
+    batcher.post(() -> exps.signal("before"));
+    batcher.post(() -> throw new haxe.Exception("error"));
+    batcher.post(() -> exps.signal("after"));
+  }
+}
@@ -32,4 +32,64 @@ class TestExecutor extends utest.Test {
       exec.submit(() -> exps.signal('$i'));
     }
   }
+
+  #if java
+  function testUserExecutor(async: utest.Async) {
+    for (i in 0...100) {
+      exps.await('$i');
+    }
+    exps
+    .then(() -> async.completed())
+    .verify();
+
+    var exec = new Executor(java.util.concurrent.Executors.newSingleThreadScheduledExecutor());
+    for (i in 0...100) {
+      exec.submit(() -> exps.signal('$i'));
+    }
+  }
+
+  function testVirtualExecutor(async: utest.Async) {
+    if (!Executor.VirtualThreads.isSupported()) {
+      pass();
+      async.completed();
+      return;
+    }
+    for (i in 0...100) {
+      exps.await('$i');
+    }
+    exps.await("timeout");
+    exps
+    .then(() -> async.completed())
+    .verify();
+
+    var exec = Executor.newVirtual();
+    for (i in 0...100) {
+      exec.submit(() -> exps.signal('$i'));
+    }
+    exec.schedule(() -> exps.signal("timeout"), 10);
+  }
+
+  function testVirtualExecutorCancel(async: utest.Async) {
+    if (!Executor.VirtualThreads.isSupported()) {
+      pass();
+      async.completed();
+      return;
+    }
+    exps
+    .await("done")
+    .then(() -> async.completed())
+    .verify();
+
+    var exec = Executor.newVirtual();
+    var latch = new java.util.concurrent.CountDownLatch(1);
+    // the mailbox is kept busy, so the expired timer waits in the mailbox until it is canceled
+    exec.submit(() -> latch.await());
+    var task = exec.schedule(() -> exps.signal("timeout"), 1);
+    java.lang.Thread.sleep(50);
+    task.cancel();
+    isTrue(task.isCanceled());
+    latch.countDown();
+    exec.submit(() -> exps.signal("done"));
+  }
+  #end
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+class TestFieldBitSet extends utest.Test {
+
+  function testInsert() {
+    var s = new FieldBitSet(10);
+    s.insert(3);
+    s.insert(1);
+    s.insert(3);
+    equals(2, s.count());
+    equals(true, s.contains(1));
+    equals(false, s.contains(2));
+    equals(true, s.contains(3));
+    equals("{1, 3}", s.toString());
+  }
+
+  function testRemove() {
+    var s = FieldBitSet.all(5);
+    s.remove(2);
+    s.remove(100);
+    equals("{1, 3, 4, 5}", s.toString());
+    equals(4, s.count());
+  }
+
+  function testGrow() {
+    var s = new FieldBitSet(1);
+    s.insert(80);
+    s.insert(31);
+    s.insert(32);
+    s.insert(64);
+    equals("{31, 32, 64, 80}", s.toString());
+    equals(false, s.contains(1000));
+    equals(false, s.contains(-1));
+  }
+
+  function testAll() {
+    var s = FieldBitSet.all(100);
+    equals(100, s.count());
+    equals(false, s.contains(0));
+    equals(true, s.contains(100));
+    equals(false, s.contains(101));
+    var expected = 1;
+    for (pos in s) {
+      equals(expected++, pos);
+    }
+    equals(101, expected);
+  }
+
+  function testEmpty() {
+    var s = new FieldBitSet();
+    equals(0, s.count());
+    equals("{}", s.toString());
+  }
+}
@@ -37,6 +37,17 @@ class TestHttpClientJava extends utest.Test {
     Globals.instance.clearTrustManager();
   }
 
+  function testClientReuse() {
+    var url = host + "/lightstreamer";
+    var client = OkHttpClients.get(url, null, null, []);
+    isTrue(client == OkHttpClients.get(url, null, null, []));
+    var proxyClient = OkHttpClients.get(url, new com.lightstreamer.client.Proxy.LSProxy("HTTP", "localtest.me", 8079), null, []);
+    isFalse(client == proxyClient);
+    isTrue(proxyClient == OkHttpClients.get(url, new com.lightstreamer.client.Proxy.LSProxy("HTTP", "localtest.me", 8079), null, []));
+    var pinnedClient = OkHttpClients.get(url, null, null, ["sha256/AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA="]);
+    isFalse(client == pinnedClient);
+  }
+
   function testPolling(async: utest.Async) {
     new HttpClient(
       host + "/lightstreamer/create_session.txt?LS_protocol=TLCP-2.5.0", 
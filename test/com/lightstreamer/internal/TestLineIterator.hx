@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+class TestLineIterator extends utest.Test {
+
+  function lines(frame: String) {
+    return [for (line in new LineIterator(frame)) line];
+  }
+
+  function testSingleLine() {
+    same([], lines(""));
+    same(["U,1,1,a"], lines("U,1,1,a"));
+    same(["U,1,1,a"], lines("U,1,1,a\r\n"));
+  }
+
+  function testMultiLine() {
+    same(["U,1,1,a", "U,1,1,b", "PROBE"], 
+      lines("U,1,1,a\r\nU,1,1,b\r\nPROBE"));
+    same(["U,1,1,a", "U,1,1,b", "PROBE"], 
+      lines("U,1,1,a\r\nU,1,1,b\r\nPROBE\r\n"));
+  }
+
+  function testEmptyLine() {
+    same([], lines("\r\n"));
+    same([], lines("\r\n\r\n"));
+    same(["U,1,1,a", "PROBE"], 
+      lines("\r\nU,1,1,a\r\n\r\nPROBE\r\n\r\n"));
+  }
+
+  function testBareTerminators() {
+    // NB only CRLF ends a line
+    same(["U,1,1,a\nb\rc"], lines("U,1,1,a\nb\rc\r\n"));
+    same(["U,1,1,a", "\r"], lines("U,1,1,a\r\n\r"));
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2023 Lightstreamer Srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lightstreamer.internal;
+
+import com.lightstreamer.internal.Threads;
+import com.lightstreamer.internal.NativeTypes.IllegalStateException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@:access(com.lightstreamer.internal.UserThreads)
+@:access(com.lightstreamer.internal.Executor)
+@:access(com.lightstreamer.internal.VirtualThreads)
+class TestThreads extends utest.Test {
+
+  function testStripedListenersKeepTheOrder(async: utest.Async) {
+    for (i in 0...100) {
+      exps.await('$i');
+    }
+    exps
+    .then(() -> async.completed())
+    .verify();
+
+    var threads = new UserThreads();
+    threads.setPoolSize(4);
+    var listener = new Array<Int>();
+    for (i in 0...100) {
+      // NB each event selects the executor again, as EventDispatcher does
+      threads.select(listener).submit(() -> exps.signal('$i'));
+    }
+  }
+
+  function testStripedListenersRunInParallel(async: utest.Async) {
+    exps
+    .await("l2")
+    .await("l1 true")
+    .then(() -> async.completed())
+    .verify();
+
+    var threads = new UserThreads();
+    threads.setPoolSize(4);
+    var l1 = new Array<Int>();
+    var l2 = new Array<Int>();
+    while (threads.select(l2) == threads.select(l1)) {
+      l2 = new Array<Int>();
+    }
+    // the first listener waits for the second one, which would never run if they shared the thread
+    var latch = new CountDownLatch(1);
+    threads.select(l1).submit(() -> {
+      var released = latch.await(5, TimeUnit.SECONDS);
+      exps.signal('l1 $released');
+    });
+    threads.select(l2).submit(() -> {
+      exps.signal("l2");
+      latch.countDown();
+    });
+  }
+
+  function testConfigurationAfterSelection() {
+    var threads = new UserThreads();
+    threads.select(new Array<Int>());
+    raisesEx(() -> threads.setPoolSize(4), IllegalStateException, "The listener threads must be configured before adding any listener");
+  }
+
+  function testVirtualMailboxes(async: utest.Async) {
+    if (!VirtualThreads.isSupported()) {
+      pass();
+      async.completed();
+      return;
+    }
+    for (i in 0...100) {
+      exps.await('$i');
+    }
+    exps
+    .await("l2")
+    .await("l1 true")
+    .then(() -> async.completed())
+    .verify();
+
+    var threads = new UserThreads();
+    threads.setVirtual(true);
+    var l1 = new Array<Int>();
+    var l2 = new Array<Int>();
+    // each listener gets its own mailbox, which is kept for its following events
+    same(threads.select(l1), threads.select(l1));
+    notEquals(threads.select(l1), threads.select(l2));
+    for (i in 0...100) {
+      threads.select(l1).submit(() -> exps.signal('$i'));
+    }
+    var latch = new CountDownLatch(1);
+    threads.select(l1).submit(() -> {
+      var released = latch.await(5, TimeUnit.SECONDS);
+      exps.signal('l1 $released');
+    });
+    threads.select(l2).submit(() -> {
+      exps.signal("l2");
+      latch.countDown();
+    });
+  }
+
+  function testStopVirtual(async: utest.Async) {
+    if (!VirtualThreads.isSupported()) {
+      pass();
+      async.completed();
+      return;
+    }
+    var threads = new UserThreads();
+    threads.setVirtual(true);
+    exps
+    .await("before stop")
+    .then(() -> {
+      threads.stop();
+      equals(null, VirtualThreads.carrierExec);
+      equals(null, VirtualThreads.timerExec);
+      // the shared resources are created again by the following executors
+      Executor.newVirtual().submit(() -> exps.signal("after stop"));
+    })
+    .await("after stop")
+    .then(() -> async.completed())
+    .verify();
+
+    threads.select(new Array<Int>()).submit(() -> exps.signal("before stop"));
+  }
+
+  function testStopPool() {
+    var threads = new UserThreads();
+    threads.setPoolSize(3);
+    var execs = threads.pool;
+    threads.stop();
+    // NB the first stripe is the default user thread, which is never stopped
+    same(userThread, execs[0]);
+    isFalse(execs[0].exec.isShutdown());
+    isTrue(execs[1].exec.isShutdown());
+    isTrue(execs[2].exec.isShutdown());
+  }
+}
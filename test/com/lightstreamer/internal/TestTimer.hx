@@ -16,6 +16,7 @@
 package com.lightstreamer.internal;
 
 import com.lightstreamer.internal.Timer;
+import com.lightstreamer.internal.Threads;
 
 class TestTimer extends utest.Test {
 
@@ -43,6 +44,103 @@ class TestTimer extends utest.Test {
     }, 200);
   }
 
+  @:timeout(700)
+  function testDeadline(async: utest.Async) {
+    var deadline = new TimerDeadline();
+    equals(0, deadline.remaining().toInt());
+    deadline.schedule(new Types.Millis(200));
+    isTrue(deadline.remaining() > 100);
+    delay(() -> {
+      isTrue(deadline.remaining() < new Types.Millis(100));
+      isTrue(deadline.postpone(new Types.Millis(200)));
+      isTrue(deadline.remaining() > 100);
+      delay(() -> {
+        equals(0, deadline.remaining().toInt());
+        async.completed();
+      }, 300);
+    }, 150);
+  }
+
+  function testDeadlinePostpone() {
+    var now = 0.0;
+    var deadline = new TimerDeadline(() -> new TimerStamp(now));
+    deadline.schedule(new Types.Millis(2000));
+    equals(2000, deadline.remaining().toInt());
+    now = 1;
+    equals(1000, deadline.remaining().toInt());
+    // the new deadline follows the expiration of the timer
+    isTrue(deadline.postpone(new Types.Millis(2000)));
+    equals(2000, deadline.remaining().toInt());
+    // the new deadline precedes the expiration of the timer
+    isFalse(deadline.postpone(new Types.Millis(500)));
+    equals(2000, deadline.remaining().toInt());
+    deadline.schedule(new Types.Millis(500));
+    equals(500, deadline.remaining().toInt());
+    now = 2;
+    equals(0, deadline.remaining().toInt());
+  }
+
+  #if java
+  @:timeout(700)
+  function testTimerWheel(async: utest.Async) {
+    var ts = haxe.Timer.stamp();
+    TimerWheel.shared().newTimer(new Types.Millis(500), tr -> {
+      var now = haxe.Timer.stamp();
+      equals(false, tr.isCanceled());
+      floatEquals(0.5, now - ts, 0.1);
+      async.completed();
+    }, sessionThread);
+  }
+
+  @:timeout(700)
+  function testTimerWheelCancel(async: utest.Async) {
+    var timer = TimerWheel.shared().newTimer(new Types.Millis(100), tr -> {
+      fail("Not expected");
+      async.completed();
+    }, sessionThread);
+    timer.cancel();
+    delay(() -> {
+      equals(true, timer.isCanceled());
+      async.completed();
+    }, 200);
+  }
+
+  @:timeout(1500)
+  @:access(com.lightstreamer.internal.TimerWheel)
+  function testTimerWheelRounds(async: utest.Async) {
+    // NB with a tick of 1ms the wheel spans 512ms, so the deadline is more than two rounds ahead
+    var wheel = new TimerWheel(1);
+    var ts = haxe.Timer.stamp();
+    wheel.newTimer(new Types.Millis(1200), tr -> {
+      var now = haxe.Timer.stamp();
+      floatEquals(1.2, now - ts, 0.1);
+      wheel.stop();
+      async.completed();
+    }, sessionThread);
+  }
+
+  @:timeout(700)
+  @:access(com.lightstreamer.internal.TimerWheel)
+  function testTimerWheelCancelAfterTransfer(async: utest.Async) {
+    var wheel = new TimerWheel();
+    var timer = wheel.newTimer(new Types.Millis(300), tr -> {
+      fail("Not expected");
+      async.completed();
+    }, sessionThread);
+    delay(() -> {
+      // the timer has been moved into its bucket
+      isTrue(wheel.started.isEmpty());
+      timer.cancel();
+      delay(() -> {
+        // the timer has been removed and the empty wheel is parked
+        isTrue(wheel.idle);
+        wheel.stop();
+        async.completed();
+      }, 400);
+    }, 100);
+  }
+  #end
+
   function testDiff() {
     var diff: TimerMillis = new TimerStamp(2) - new TimerStamp(1);
     equals(1000, diff);
@@ -41,7 +41,7 @@ class TestWsClientJava extends utest.Test {
 
   function testPolling(async: utest.Async) {
     ws = new WsClient(
-      host + "/lightstreamer", null, null, null, [],
+      host + "/lightstreamer", null, null, null, [], true, new WsTraffic(),
       function onOpen(c) {
         c.send("create_session\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
@@ -58,10 +58,13 @@ class TestWsClientJava extends utest.Test {
       function onFatalError(c, errCode, errMsg) {});
   }
 
+  @:access(com.lightstreamer.internal.WsClient)
   function testStreaming(async: utest.Async) {
     ws = new WsClient(
-      host + "/lightstreamer", null, null, null, [],
+      host + "/lightstreamer", null, null, null, [], true, new WsTraffic(),
       function onOpen(c) {
+        // the compression is offered in the handshake
+        equals("permessage-deflate", c.handshake.networkResponse().request().header("Sec-WebSocket-Extensions"));
         c.send("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
       function onText(c, line) {
@@ -76,10 +79,37 @@ class TestWsClientJava extends utest.Test {
       function onFatalError(c, errCode, errMsg) {});
   }
 
+  @:access(com.lightstreamer.internal.WsClient)
+  function testCompressionDisabled(async: utest.Async) {
+    var traffic = new WsTraffic();
+    ws = new WsClient(
+      host + "/lightstreamer", null, null, null, [], false, traffic,
+      function onOpen(c) {
+        // the offer of the compression is withdrawn from the handshake, so the Server doesn't accept it
+        equals(null, c.handshake.networkResponse().request().header("Sec-WebSocket-Extensions"));
+        equals(null, c.handshake.header("Sec-WebSocket-Extensions"));
+        equals(0, traffic.getWireBytes());
+        c.send("create_session\r\nLS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
+      },
+      function onText(c, line) {
+        if (c.isDisposed()) return;
+        match(~/CONOK/, line);
+        // without compression, the bytes on the wire exceed the payload by the framing
+        isTrue(traffic.getPayloadBytes() > line.length);
+        isTrue(traffic.getWireBytes() > traffic.getPayloadBytes());
+        async.completed();
+      }, 
+      function onError(c, error) { 
+        fail(error); 
+        async.completed(); 
+      },
+      function onFatalError(c, errCode, errMsg) {});
+  }
+
   @:timeout(3000)
   function testHttps(async: utest.Async) {
     ws = new WsClient(
-      "https://push.lightstreamer.com/lightstreamer", null, null, null, [],
+      "https://push.lightstreamer.com/lightstreamer", null, null, null, [], true, new WsTraffic(),
       function onOpen(c) {
         c.send("create_session\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=DEMO&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
@@ -98,7 +128,7 @@ class TestWsClientJava extends utest.Test {
   function testConnectionError(async: utest.Async) {
     ws = new WsClient(
       secHost + "/lightstreamer", 
-      null, null, null, [],
+      null, null, null, [], true, new WsTraffic(),
       function onOpen(c) {
         fail("Unexpected call"); 
         async.completed(); 
@@ -127,7 +157,7 @@ class TestWsClientJava extends utest.Test {
     LightstreamerClient.addCookies(uri, new NativeList([cookie]));
 
     ws = new WsClient(
-      host + "/lightstreamer", null, null, null, [],
+      host + "/lightstreamer", null, null, null, [], true, new WsTraffic(),
       function onOpen(c) {
         var cookies = LightstreamerClient.getCookies(uri).toHaxe().map(c -> c.getName() + "=" + c.getValue());
         equals(2, cookies.length);
@@ -147,7 +177,7 @@ class TestWsClientJava extends utest.Test {
   function testHeaders(async: utest.Async) {
     ws = new WsClient(
       host + "/lightstreamer", 
-      ["X-Header" => "header"], null, null, [],
+      ["X-Header" => "header"], null, null, [], true, new WsTraffic(),
       function onOpen(c) {
         c.send("create_session\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
@@ -172,7 +202,7 @@ class TestWsClientJava extends utest.Test {
       #else
       new Proxy("HTTP", "localtest.me", 8079, "myuser", "mypassword"),
       #end
-      null, [],
+      null, [], true, new WsTraffic(),
       function onOpen(c) {
         c.send("create_session\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
@@ -198,7 +228,7 @@ class TestWsClientJava extends utest.Test {
       #else
       new Proxy("HTTP", "localtest.me", 8079, "myuser", "mypassword"),
       #end
-      null, [],
+      null, [], true, new WsTraffic(),
       function onOpen(c) {
         c.send("create_session\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=DEMO&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
@@ -229,7 +259,7 @@ class TestWsClientJava extends utest.Test {
     LightstreamerClient.setTrustManagerFactory(tmf);
     ws = new WsClient(
       secHost + "/lightstreamer", null, null, 
-      Globals.instance.getTrustManagerFactory(), [],
+      Globals.instance.getTrustManagerFactory(), [], true, new WsTraffic(),
       function onOpen(c) {
         c.send("create_session\r\nLS_polling=true&LS_polling_millis=0&LS_idle_millis=0&LS_adapter_set=TEST&LS_cid=mgQkwtwdysogQz2BJ4Ji%20kOj2Bg");
       },
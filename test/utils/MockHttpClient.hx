@@ -20,13 +20,23 @@ import com.lightstreamer.internal.PlatformApi.IHttpClient;
 class MockHttpClient implements IHttpClient {
   final test: utest.Test;
   final prefix: String;
+  // when true, each request gets its own client, which is recorded in `requests`
+  final perRequest: Bool;
+  public final requests: Array<MockHttpClient> = [];
+  public var disposed(default, null) = false;
 
-  public function new(test: utest.Test, prefix: String = "http") {
+  public function new(test: utest.Test, prefix: String = "http", perRequest: Bool = false) {
     this.test = test;
     this.prefix = prefix;
+    this.perRequest = perRequest;
   }
 
   public function create(url: String, body: String, headers: Null<Map<String, String>>, onText: (IHttpClient, String)->Void, onError: (IHttpClient, String)->Void, onDone: IHttpClient->Void) {
+    if (perRequest) {
+      var request = new MockHttpClient(test, prefix);
+      requests.push(request);
+      return request.create(url, body, headers, onText, onError, onDone);
+    }
     this.onText = onText.bind(this);
     this.onError = onError.bind(this, prefix + ".error");
     this.onDone = onDone.bind(this);
@@ -34,7 +44,11 @@ class MockHttpClient implements IHttpClient {
     return this;
   }
 
-  public function dispose() test.exps.signal(prefix + ".dispose");
+  public function dispose() {
+    disposed = true;
+    test.exps.signal(prefix + ".dispose");
+  }
+
   public function isDisposed() return false;
 
   dynamic public function onText(s: String) {}
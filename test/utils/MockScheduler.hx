@@ -19,6 +19,8 @@ import haxe.Exception;
 import com.lightstreamer.internal.PlatformApi.ITimer;
 import com.lightstreamer.internal.Types.Millis;
 import com.lightstreamer.internal.Threads;
+import com.lightstreamer.internal.Timer.TimerStamp;
+import com.lightstreamer.internal.Timer.TimerDeadline;
 
 @:access(utils.MockScheduler)
 class MockTimer implements ITimer {
@@ -26,15 +28,21 @@ class MockTimer implements ITimer {
   final id: String;
   final delay: Millis;
   final callback: ITimer->Void;
+  final expiration: Float;
 
   public function new(factory: MockScheduler, id: String, delay: Millis, callback: ITimer->Void) {
     this.scheduler = factory;
     this.id = id;
     this.delay = delay;
     this.callback = callback;
+    this.expiration = factory.time + delay.toInt();
   }
 
   public function perform() {
+    // NB a timer fires when the (virtual) time reaches its expiration
+    if (expiration > scheduler.time) {
+      scheduler.time = expiration;
+    }
     callback(this);
   }
 
@@ -45,9 +53,17 @@ class MockTimer implements ITimer {
   public function isCanceled() return false;
 }
 
+/**
+ * Fires the timers on demand.
+ * 
+ * The scheduler keeps a virtual time, which starts at zero, is moved ahead by `advance`
+ * and reaches the expiration of a timer when the timer fires.
+ */
 class MockScheduler {
   final test: utest.Test;
   final timeouts: Map<String, MockTimer> = [];
+  final traced: Array<String> = [];
+  var time = 0.0;
 
   public function new(test: utest.Test) this.test = test;
 
@@ -57,9 +73,30 @@ class MockScheduler {
       throw new Exception('Timer $id already running');
     }
     timeouts[id] = timer;
+    if (traced.contains(id)) {
+      test.exps.signal('schedule $id ${delay.toInt()}');
+    }
     return timer;
   }
 
+  public function createDeadline() {
+    return new TimerDeadline(() -> new TimerStamp(time / 1000));
+  }
+
+  /**
+   * Signals the scheduling of the timer `id` (e.g. `schedule keepalive.timeout 5000`).
+   */
+  public function traceTimer(id: String) {
+    traced.push(id);
+  }
+
+  /**
+   * Moves the virtual time `millis` ahead.
+   */
+  public function advance(millis: Int) {
+    time += millis;
+  }
+
   public function fireRetryTimeout() {
     sessionThread.submit(() -> timeouts["retry.timeout"].perform());
   }
@@ -99,4 +136,13 @@ class MockScheduler {
   public function fireRhbTimeout() {
     sessionThread.submit(() -> timeouts["rhb.timeout"].perform());
   }
+
+  public function fireLingerTimeout() {
+    // NB the linger timer is rescheduled after it expires
+    sessionThread.submit(() -> {
+      var timer = timeouts["linger.timeout"];
+      timeouts.remove("linger.timeout");
+      timer.perform();
+    });
+  }
 }
\ No newline at end of file
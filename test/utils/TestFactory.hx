@@ -17,6 +17,7 @@ package utils;
 
 import com.lightstreamer.internal.Types.Millis;
 import com.lightstreamer.internal.PlatformApi;
+import com.lightstreamer.internal.Timer.TimerDeadline;
 
 class TestFactory implements IFactory {
   final ws: MockWsClient;
@@ -65,6 +66,10 @@ class TestFactory implements IFactory {
     return scheduler.create(id, delay, callback);
   }
   
+  public function createTimerDeadline(): TimerDeadline {
+    return scheduler.createDeadline();
+  }
+
   public function randomMillis(max: Millis): Millis {
     return new Millis(Std.random(max.toInt()));
   }
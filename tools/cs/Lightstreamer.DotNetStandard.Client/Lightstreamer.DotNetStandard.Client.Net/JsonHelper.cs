@@ -19,6 +19,11 @@ namespace com.lightstreamer.cs
             return new Microsoft.AspNetCore.JsonPatch.JsonPatchDocument(ops, new Newtonsoft.Json.Serialization.DefaultContractResolver());
         }
 
+        public static bool IsEmptyPatch(object patch)
+        {
+            return ((Microsoft.AspNetCore.JsonPatch.JsonPatchDocument)patch).Operations.Count == 0;
+        }
+
         public static string Stringify(object obj)
         {
             return Newtonsoft.Json.JsonConvert.SerializeObject(obj);